@@ -0,0 +1,37 @@
+package com.example.blog.config;
+
+import com.example.blog.util.CompressedText;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 正文列透明压缩类型处理器
+ * 写入时按 blog.article.compression 配置压缩，读取时自动识别压缩格式并解压，未压缩的旧数据原样返回
+ */
+public class CompressedTextTypeHandler extends BaseTypeHandler<String> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        ps.setString(i, CompressedText.encode(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return CompressedText.decode(rs.getString(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return CompressedText.decode(rs.getString(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return CompressedText.decode(cs.getString(columnIndex));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.blog.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+
+/**
+ * SQL执行次数统计拦截器
+ * 按线程累计每条语句的执行次数，用于校验批量装配等场景的查询预算，防止N+1查询回归。
+ * 默认关闭，只在开发、测试环境通过 blog.query-count.enabled 开启，关闭时不计数也不校验
+ */
+@Slf4j
+@Component
+@Intercepts({
+    @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})
+})
+public class QueryCountInterceptor implements Interceptor {
+
+    private static final ThreadLocal<long[]> COUNTER = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Value("${blog.query-count.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 严格模式下超出预算直接抛出异常（测试环境开启），否则只记录告警
+     */
+    @Value("${blog.query-count.strict:false}")
+    private boolean strict;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (enabled) {
+            COUNTER.get()[0]++;
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * 获取当前线程已执行的SQL次数
+     */
+    public long currentCount() {
+        return COUNTER.get()[0];
+    }
+
+    /**
+     * 校验自 startCount 以来执行的SQL次数是否在预算之内
+     */
+    public void assertWithinBudget(long startCount, int budget, String scene) {
+        if (!enabled) {
+            return;
+        }
+        long used = currentCount() - startCount;
+        if (used <= budget) {
+            return;
+        }
+        String message = String.format("%s SQL执行次数超出预算 - 实际: %d, 预算: %d", scene, used, budget);
+        if (strict) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.blog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置
+ * 用于计数器缓冲区的定期落库等后台任务
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,193 @@
+package com.example.blog.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL写入字节数统计拦截器
+ * 设置 INSERT / UPDATE 语句参数时按参数值估算写入的字节数（字符串按 UTF-8 计算），按语句累计，
+ * 用于确认更新语句只写入了实际变化的列。
+ * 默认关闭，通过 blog.write-bytes.enabled 开启；关闭时不包装语句处理器，开启后也先按 SQL 文本跳过非写入语句，再反射取语句信息
+ */
+@Slf4j
+@Component
+@Intercepts({
+    @Signature(type = StatementHandler.class, method = "parameterize", args = {Statement.class})
+})
+public class WriteBytesInterceptor implements Interceptor {
+
+    private final Map<String, StatementStats> stats = new ConcurrentHashMap<>();
+
+    @Value("${blog.write-bytes.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public Object plugin(Object target) {
+        return enabled ? Interceptor.super.plugin(target) : target;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (!(invocation.getTarget() instanceof StatementHandler handler) || !isWrite(handler.getBoundSql().getSql())) {
+            return invocation.proceed();
+        }
+
+        MappedStatement mappedStatement = resolveMappedStatement(invocation.getTarget());
+        Object[] args = invocation.getArgs();
+        if (mappedStatement == null || !(args[0] instanceof PreparedStatement statement)
+                || (mappedStatement.getSqlCommandType() != SqlCommandType.UPDATE
+                && mappedStatement.getSqlCommandType() != SqlCommandType.INSERT)) {
+            return invocation.proceed();
+        }
+
+        // 参数设置期间换成计数代理，执行时仍使用原语句对象
+        long[] bytes = new long[1];
+        args[0] = Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, methodArgs) -> {
+                    if (method.getName().startsWith("set") && methodArgs != null && methodArgs.length >= 2
+                            && methodArgs[0] instanceof Integer) {
+                        bytes[0] += estimateBytes(methodArgs[1]);
+                    }
+                    try {
+                        return method.invoke(statement, methodArgs);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        try {
+            return invocation.proceed();
+        } finally {
+            args[0] = statement;
+            stats.computeIfAbsent(mappedStatement.getId(), StatementStats::new).record(bytes[0]);
+            log.debug("SQL写入字节数 - statement: {}, bytes: {}", mappedStatement.getId(), bytes[0]);
+        }
+    }
+
+    /**
+     * 各语句的写入统计，按累计字节数降序排列
+     */
+    public List<WriteStats> snapshot() {
+        List<WriteStats> result = new ArrayList<>();
+        stats.values().forEach(stat -> result.add(stat.toWriteStats()));
+        result.sort(Comparator.comparingLong(WriteStats::totalBytes).reversed());
+        return result;
+    }
+
+    /**
+     * SQL 是否以 INSERT / UPDATE 开头，只看首个关键字，不做反射
+     */
+    private static boolean isWrite(String sql) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        return sql.regionMatches(true, start, "INSERT", 0, 6) || sql.regionMatches(true, start, "UPDATE", 0, 6);
+    }
+
+    private static MappedStatement resolveMappedStatement(Object target) {
+        MetaObject metaObject = SystemMetaObject.forObject(target);
+        // 被多个插件包装时逐层取出被代理的对象
+        while (metaObject.hasGetter("h")) {
+            metaObject = SystemMetaObject.forObject(metaObject.getValue("h.target"));
+        }
+        if (metaObject.hasGetter("delegate.mappedStatement")) {
+            return (MappedStatement) metaObject.getValue("delegate.mappedStatement");
+        }
+        return metaObject.hasGetter("mappedStatement") ? (MappedStatement) metaObject.getValue("mappedStatement") : null;
+    }
+
+    private static long estimateBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return utf8Length(text);
+        }
+        if (value instanceof byte[] data) {
+            return data.length;
+        }
+        if (value instanceof Boolean || value instanceof Byte) {
+            return 1;
+        }
+        if (value instanceof Short) {
+            return 2;
+        }
+        if (value instanceof Integer || value instanceof Float) {
+            return 4;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString().length();
+        }
+        // 长整数、浮点数、日期时间等按 8 字节计
+        return 8;
+    }
+
+    private static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 单条语句的写入统计
+     */
+    public record WriteStats(String statement, long executions, long totalBytes, long maxBytes) {
+    }
+
+    private static final class StatementStats {
+
+        private final String statement;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalBytes = new LongAdder();
+        private final AtomicLong maxBytes = new AtomicLong();
+
+        StatementStats(String statement) {
+            this.statement = statement;
+        }
+
+        void record(long bytes) {
+            executions.increment();
+            totalBytes.add(bytes);
+            maxBytes.accumulateAndGet(bytes, Math::max);
+        }
+
+        WriteStats toWriteStats() {
+            return new WriteStats(statement, executions.sum(), totalBytes.sum(), maxBytes.get());
+        }
+    }
+}
@@ -2,18 +2,58 @@ package com.example.blog.controller;
 
 import com.example.blog.common.Result;
 import com.example.blog.dto.request.ArticleQueryRequest;
+import com.example.blog.dto.request.SchedulePublishRequest;
 import com.example.blog.dto.response.ArticleListResponse;
 import com.example.blog.dto.response.ArticleDetailResponse;
+import com.example.blog.dto.response.ArticleVersionDiffResponse;
+import com.example.blog.dto.response.ArticleVersionResponse;
+import com.example.blog.dto.response.ContentCompressionReport;
 import com.example.blog.entity.Article;
+import com.example.blog.config.WriteBytesInterceptor;
+import com.example.blog.security.JwtTokenProvider;
+import com.example.blog.security.RequireAdmin;
+import com.example.blog.service.ArticleCatalogService;
+import com.example.blog.service.ArticleContentService;
+import com.example.blog.service.ArticleDetailCacheService;
+import com.example.blog.service.ArticleImportService;
+import com.example.blog.service.ArticleLikeService;
 import com.example.blog.service.ArticleService;
+import com.example.blog.service.ArticleVersionService;
+import com.example.blog.service.CategoryTreeService;
+import com.example.blog.service.ContentCompressionService;
+import com.example.blog.service.MarkdownRenderService;
+import com.example.blog.service.ResponseCacheService;
+import com.example.blog.service.ScheduledPublishService;
+import com.example.blog.service.TrendingService;
+import com.example.blog.service.ViewCountService;
 import com.example.blog.dto.CreateArticleRequest;
 import com.example.blog.dto.UpdateArticleRequest;
+import com.example.blog.util.BoundedCache;
+import com.example.blog.util.OffHeapSlabCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -22,23 +62,113 @@ import jakarta.validation.Valid;
 public class ArticleController {
 
     private final ArticleService articleService;
+    private final ArticleLikeService articleLikeService;
+    private final ArticleDetailCacheService articleDetailCacheService;
+    private final ArticleCatalogService articleCatalogService;
+    private final ViewCountService viewCountService;
+    private final MarkdownRenderService markdownRenderService;
+    private final ArticleImportService articleImportService;
+    private final ScheduledPublishService scheduledPublishService;
+    private final ArticleVersionService articleVersionService;
+    private final ContentCompressionService contentCompressionService;
+    private final ArticleContentService articleContentService;
+    private final ResponseCacheService responseCacheService;
+    private final CategoryTreeService categoryTreeService;
+    private final WriteBytesInterceptor writeBytesInterceptor;
+    private final ObjectMapper objectMapper;
+    private final JwtTokenProvider jwtTokenProvider;
 
     @GetMapping
-    public Result<ArticleListResponse> getArticles(@Valid ArticleQueryRequest request) {
+    public Result<ArticleListResponse> getArticles(@Valid ArticleQueryRequest request,
+                                                   HttpServletRequest httpRequest,
+                                                   ServletWebRequest webRequest) throws IOException {
+        if (checkListNotModified(request, httpRequest, webRequest)) {
+            return null;
+        }
+        if (getCurrentUserId(httpRequest) == null) {
+            writeCachedList(request, httpRequest, webRequest.getResponse());
+            return null;
+        }
         ArticleListResponse result = articleService.getArticleList(request);
+        fillLikedStatus(result.getArticles(), httpRequest);
         return Result.success(result);
     }
 
     @GetMapping("/published")
-    public Result<ArticleListResponse> getPublishedArticles(@Valid ArticleQueryRequest request) {
+    public Result<ArticleListResponse> getPublishedArticles(@Valid ArticleQueryRequest request,
+                                                            HttpServletRequest httpRequest,
+                                                            ServletWebRequest webRequest) throws IOException {
         request.setStatus("PUBLISHED");
+        if (checkListNotModified(request, httpRequest, webRequest)) {
+            return null;
+        }
+        if (getCurrentUserId(httpRequest) == null) {
+            writeCachedList(request, httpRequest, webRequest.getResponse());
+            return null;
+        }
         ArticleListResponse result = articleService.getArticleList(request);
+        fillLikedStatus(result.getArticles(), httpRequest);
+        return Result.success(result);
+    }
+
+    /**
+     * 热门文章，window 可选 now / today / week
+     */
+    @GetMapping("/trending")
+    public Result<List<ArticleDetailResponse>> getTrendingArticles(@RequestParam(defaultValue = "now") String window,
+                                                                   @RequestParam(defaultValue = "10") int limit,
+                                                                   HttpServletRequest httpRequest,
+                                                                   HttpServletResponse response) throws IOException {
+        TrendingService.Window trendingWindow = TrendingService.Window.fromCode(window);
+        if (trendingWindow == null) {
+            return Result.error(400, "不支持的时间窗口: " + window);
+        }
+        if (getCurrentUserId(httpRequest) == null) {
+            ResponseCacheService.CachedResponse cached = responseCacheService.get(ResponseCacheService.Region.TRENDING,
+                    trendingWindow.name() + '|' + limit,
+                    () -> Result.success(articleService.getTrendingArticles(trendingWindow, limit)));
+            writeCachedResponse(cached, httpRequest, response);
+            return null;
+        }
+
+        List<ArticleDetailResponse> result = articleService.getTrendingArticles(trendingWindow, limit);
+        fillLikedStatus(result, httpRequest);
+        return Result.success(result);
+    }
+
+    /**
+     * 相关文章
+     */
+    @GetMapping("/{id}/related")
+    public Result<List<ArticleDetailResponse>> getRelatedArticles(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "5") int limit,
+                                                                  HttpServletRequest httpRequest) {
+        List<ArticleDetailResponse> result = articleService.getRelatedArticles(id, limit);
+        fillLikedStatus(result, httpRequest);
         return Result.success(result);
     }
 
     @GetMapping("/{id}")
-    public Result<ArticleDetailResponse> getArticle(@PathVariable Long id) {
+    public Result<ArticleDetailResponse> getArticle(@PathVariable Long id, HttpServletRequest httpRequest,
+                                                    ServletWebRequest webRequest) {
+        Long userId = getCurrentUserId(httpRequest);
+        Long updateTime = articleCatalogService.getUpdateTime(id);
+        if (updateTime != null) {
+            long lastModified = Math.max(updateTime, articleDetailCacheService.getRelatedDataVersion());
+            String etag = "a" + id + "-" + Long.toHexString(lastModified)
+                    + (userId == null ? "" : "-u" + userId + (articleLikeService.hasLiked(id, userId) ? "-l" : ""));
+            // 登录用户的响应包含点赞状态，只按 ETag 校验
+            if (checkNotModified(webRequest, etag, userId == null ? lastModified : -1L, userId != null)) {
+                // 客户端持有的版本仍是最新的，已发布的文章同样计入一次浏览
+                if (articleCatalogService.isPublished(id)) {
+                    viewCountService.recordView(id);
+                }
+                return null;
+            }
+        }
+
         ArticleDetailResponse result = articleService.getArticleDetail(id);
+        fillLikedStatus(List.of(result), httpRequest);
         return Result.success(result);
     }
 
@@ -57,6 +187,45 @@ public class ArticleController {
         }
     }
 
+    /**
+     * 批量导入文章
+     * 请求体为 NDJSON，每行一篇文章；响应同样为 NDJSON，逐行输出错误（error）、每批完成后的进度（progress）
+     * 以及最终结果（done）
+     */
+    @PostMapping("/import")
+    public void importArticles(HttpServletRequest httpRequest, HttpServletResponse response) throws IOException {
+        Long userId = getCurrentUserId(httpRequest);
+        log.info("批量导入文章请求 - userId: {}, ip: {}", userId, getClientIpAddress(httpRequest));
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = response.getWriter();
+        if (userId == null) {
+            // 导入的文章需要归属到当前用户，未登录时不读取请求体
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            writeEvent(writer, "failed", Map.of("message", "请先登录"));
+            return;
+        }
+        try (Reader reader = new InputStreamReader(httpRequest.getInputStream(), StandardCharsets.UTF_8)) {
+            ArticleImportService.ImportProgress result = articleImportService.importArticles(reader, userId,
+                    new ArticleImportService.ImportListener() {
+                        @Override
+                        public void onError(ArticleImportService.ImportError error) {
+                            writeEvent(writer, "error", error);
+                        }
+
+                        @Override
+                        public void onProgress(ArticleImportService.ImportProgress progress) {
+                            writeEvent(writer, "progress", progress);
+                        }
+                    });
+            writeEvent(writer, "done", result);
+        } catch (Exception e) {
+            log.error("批量导入文章失败: {}", e.getMessage());
+            writeEvent(writer, "failed", Map.of("message", "批量导入文章失败: " + e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public Result<Article> updateArticle(@PathVariable Long id,
                                        @Valid @RequestBody UpdateArticleRequest request,
@@ -115,19 +284,321 @@ public class ArticleController {
         }
     }
 
+    /**
+     * 版本历史列表（不含正文）
+     */
+    @GetMapping("/{id}/versions")
+    public Result<List<ArticleVersionResponse>> listVersions(@PathVariable Long id) {
+        return Result.success(articleVersionService.listVersions(id));
+    }
+
+    /**
+     * 比较两个版本的正文差异
+     */
+    @GetMapping("/{id}/versions/diff")
+    public Result<ArticleVersionDiffResponse> diffVersions(@PathVariable Long id,
+                                                           @RequestParam int from,
+                                                           @RequestParam int to) {
+        return Result.success(articleVersionService.diff(id, from, to));
+    }
+
+    @GetMapping("/{id}/versions/{versionNumber}")
+    public Result<ArticleVersionResponse> getVersion(@PathVariable Long id, @PathVariable int versionNumber) {
+        return Result.success(articleVersionService.getVersion(id, versionNumber));
+    }
+
+    @RequireAdmin
+    @PostMapping("/{id}/versions/{versionNumber}/restore")
+    public Result<Article> restoreVersion(@PathVariable Long id, @PathVariable int versionNumber,
+                                          HttpServletRequest httpRequest) {
+        String ipAddress = getClientIpAddress(httpRequest);
+        log.info("恢复文章版本请求 - id: {}, version: {}, ip: {}", id, versionNumber, ipAddress);
+
+        try {
+            return Result.success(articleService.restoreArticleVersion(id, versionNumber));
+        } catch (Exception e) {
+            log.error("恢复文章版本失败: {}", e.getMessage());
+            return Result.error("恢复文章版本失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 设置定时发布，已有计划时改期
+     */
+    @RequireAdmin
+    @PutMapping("/{id}/schedule")
+    public Result<String> schedulePublish(@PathVariable Long id,
+                                          @Valid @RequestBody SchedulePublishRequest request,
+                                          HttpServletRequest httpRequest) {
+        String ipAddress = getClientIpAddress(httpRequest);
+        log.info("定时发布请求 - id: {}, 发布时间: {}, ip: {}", id, request.getScheduledPublishTime(), ipAddress);
+
+        try {
+            scheduledPublishService.schedule(id, request.getScheduledPublishTime());
+            return Result.success("定时发布设置成功");
+        } catch (Exception e) {
+            log.error("设置定时发布失败: {}", e.getMessage());
+            return Result.error("设置定时发布失败: " + e.getMessage());
+        }
+    }
+
+    @RequireAdmin
+    @DeleteMapping("/{id}/schedule")
+    public Result<String> cancelSchedulePublish(@PathVariable Long id, HttpServletRequest httpRequest) {
+        String ipAddress = getClientIpAddress(httpRequest);
+        log.info("取消定时发布请求 - id: {}, ip: {}", id, ipAddress);
+
+        try {
+            scheduledPublishService.cancel(id);
+            return Result.success("已取消定时发布");
+        } catch (Exception e) {
+            log.error("取消定时发布失败: {}", e.getMessage());
+            return Result.error("取消定时发布失败: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/like")
+    public Result<Boolean> likeArticle(@PathVariable Long id, HttpServletRequest httpRequest) {
+        Long userId = getCurrentUserId(httpRequest);
+        if (userId == null) {
+            return Result.error(401, "请先登录");
+        }
+
+        try {
+            boolean liked = articleService.likeArticle(id, userId);
+            return Result.success(liked ? "点赞成功" : "取消点赞成功", liked);
+        } catch (Exception e) {
+            log.error("点赞文章失败: {}", e.getMessage());
+            return Result.error("点赞文章失败: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/search")
     public Result<ArticleListResponse> searchArticles(@RequestParam String keyword,
                                                      @RequestParam(defaultValue = "1") int page,
-                                                     @RequestParam(defaultValue = "10") int size) {
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     HttpServletRequest httpRequest,
+                                                     ServletWebRequest webRequest) {
         ArticleQueryRequest request = new ArticleQueryRequest();
         request.setKeyword(keyword);
+        request.setStatus("PUBLISHED");
         request.setPage(page);
         request.setSize(size);
+        if (checkListNotModified(request, httpRequest, webRequest)) {
+            return null;
+        }
 
         ArticleListResponse result = articleService.getArticleList(request);
         return Result.success(result);
     }
 
+    /**
+     * 切换正文存储模式后迁移已有正文
+     */
+    @RequireAdmin
+    @PostMapping("/content-storage/migrate")
+    public Result<Integer> migrateContentStorage() {
+        return Result.success(articleContentService.migrateStorage());
+    }
+
+    @RequireAdmin
+    @GetMapping("/cache/stats")
+    public Result<BoundedCache.CacheStats> getDetailCacheStats() {
+        return Result.success(articleDetailCacheService.getStats());
+    }
+
+    @RequireAdmin
+    @GetMapping("/response-cache/stats")
+    public Result<BoundedCache.CacheStats> getResponseCacheStats() {
+        return Result.success(responseCacheService.getStats());
+    }
+
+    /**
+     * 各 INSERT / UPDATE 语句写入的参数字节数统计，blog.write-bytes.enabled 关闭时为空
+     */
+    @RequireAdmin
+    @GetMapping("/write-stats")
+    public Result<List<WriteBytesInterceptor.WriteStats>> getWriteStats() {
+        return Result.success(writeBytesInterceptor.snapshot());
+    }
+
+    @RequireAdmin
+    @GetMapping("/render-cache/stats")
+    public Result<OffHeapSlabCache.CacheStats> getRenderCacheStats() {
+        return Result.success(markdownRenderService.getStats());
+    }
+
+    @RequireAdmin
+    @GetMapping("/compression/benchmark")
+    public Result<ContentCompressionReport> benchmarkCompression(@RequestParam(defaultValue = "100") int sample) {
+        return Result.success(contentCompressionService.benchmark(sample));
+    }
+
+    /**
+     * 列表条件请求校验，ETag 由请求路径、查询参数和目录版本号组成；
+     * 按浏览/点赞排序时计数变化会影响顺序，版本号中额外包含计数版本；包含子分类时额外包含分类版本。
+     * 登录用户的列表包含点赞状态，不做校验
+     */
+    private boolean checkListNotModified(ArticleQueryRequest request, HttpServletRequest httpRequest,
+                                         ServletWebRequest webRequest) {
+        if (getCurrentUserId(httpRequest) != null) {
+            setCacheHeaders(webRequest.getResponse(), true);
+            return false;
+        }
+
+        String etag = "l" + DigestUtils.md5DigestAsHex(listVersionKey(request, httpRequest).getBytes(StandardCharsets.UTF_8));
+        return checkNotModified(webRequest, etag, -1L, false);
+    }
+
+    /**
+     * 列表响应的版本键：请求路径、查询参数和目录版本号，同时用作 ETag 和响应缓存的键
+     */
+    private String listVersionKey(ArticleQueryRequest request, HttpServletRequest httpRequest) {
+        StringBuilder key = new StringBuilder(httpRequest.getRequestURI())
+                .append('?').append(httpRequest.getQueryString())
+                .append('|').append(articleCatalogService.getVersion())
+                .append('|').append(articleDetailCacheService.getRelatedDataVersion());
+        if ("views".equals(request.getSort()) || "likes".equals(request.getSort())) {
+            key.append('|').append(articleCatalogService.getCountVersion());
+        }
+        if (request.getCategoryId() != null && Boolean.TRUE.equals(request.getIncludeSubCategories())) {
+            // 子分类范围随分类层级变化
+            key.append('|').append(categoryTreeService.getVersion());
+        }
+        return key.toString();
+    }
+
+    /**
+     * 匿名列表请求从响应缓存输出，同一版本的列表只查询和序列化一次
+     */
+    private void writeCachedList(ArticleQueryRequest request, HttpServletRequest httpRequest,
+                                 HttpServletResponse response) throws IOException {
+        ResponseCacheService.CachedResponse cached = responseCacheService.get(ResponseCacheService.Region.ARTICLE_LIST,
+                listVersionKey(request, httpRequest), () -> Result.success(articleService.getArticleList(request)));
+        writeCachedResponse(cached, httpRequest, response);
+    }
+
+    /**
+     * 把缓存的响应字节直接写入输出流，客户端接受 gzip 时输出预先压缩的版本
+     */
+    private void writeCachedResponse(ResponseCacheService.CachedResponse cached, HttpServletRequest request,
+                                     HttpServletResponse response) throws IOException {
+        boolean gzip = cached.gzip() != null && acceptsGzip(request);
+        byte[] body = gzip ? cached.gzip() : cached.json();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+
+    /**
+     * Accept-Encoding 中包含 gzip 或 *，且 q 值不为 0
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (!"gzip".equalsIgnoreCase(coding) && !"*".equals(coding)) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 设置缓存头并校验 If-None-Match / If-Modified-Since，客户端版本未过期时返回 true，响应状态已置为 304
+     */
+    private boolean checkNotModified(ServletWebRequest webRequest, String etag, long lastModified, boolean personalized) {
+        setCacheHeaders(webRequest.getResponse(), personalized);
+        return lastModified > 0
+                ? webRequest.checkNotModified(etag, lastModified)
+                : webRequest.checkNotModified(etag);
+    }
+
+    /**
+     * 允许缓存但每次使用前必须重新校验；包含个人数据的响应只允许浏览器私有缓存
+     */
+    private void setCacheHeaders(HttpServletResponse response, boolean personalized) {
+        if (response == null) {
+            return;
+        }
+        CacheControl cacheControl = personalized
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.noCache().cachePublic();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+    }
+
+    /**
+     * 输出一行导入事件并立即刷新，使客户端能实时看到进度
+     */
+    @SuppressWarnings("unchecked")
+    private void writeEvent(Writer writer, String type, Object payload) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.putAll(objectMapper.convertValue(payload, Map.class));
+        try {
+            writer.write(objectMapper.writeValueAsString(event));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            // 客户端断开后继续导入，结果以日志为准
+            log.debug("导入进度输出失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 为已登录用户批量标记点赞状态
+     */
+    private void fillLikedStatus(List<ArticleDetailResponse> articles, HttpServletRequest request) {
+        Long userId = getCurrentUserId(request);
+        if (userId == null || articles == null || articles.isEmpty()) {
+            return;
+        }
+
+        List<Long> articleIds = articles.stream()
+                .map(ArticleDetailResponse::getId)
+                .collect(Collectors.toList());
+        Set<Long> likedIds = articleLikeService.getLikedArticleIds(userId, articleIds);
+        articles.forEach(article -> article.setLiked(likedIds.contains(article.getId())));
+    }
+
+    /**
+     * 从授权头中解析当前用户ID，未登录或令牌无效时返回 null
+     */
+    private Long getCurrentUserId(HttpServletRequest request) {
+        String authorization = request.getHeader("Authorization");
+        if (!StringUtils.hasText(authorization) || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+
+        String token = authorization.substring(7);
+        return jwtTokenProvider.validateToken(token) ? jwtTokenProvider.extractUserId(token) : null;
+    }
+
     private String getClientIpAddress(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
@@ -0,0 +1,42 @@
+package com.example.blog.controller;
+
+import com.example.blog.common.Result;
+import com.example.blog.dto.CategoryReorderRequest;
+import com.example.blog.security.RequireAdmin;
+import com.example.blog.service.CategoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+
+/**
+ * 分类重排控制器
+ * 其余分类管理接口仍在停用的 CategoryController 中
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class CategoryReorderController {
+
+    private final CategoryService categoryService;
+
+    /**
+     * 按完整的新顺序重排分类（需要管理员权限），只更新父分类或排序值发生变化的分类
+     */
+    @RequireAdmin
+    @PutMapping("/reorder")
+    public Result<Integer> reorderCategories(@Valid @RequestBody CategoryReorderRequest request) {
+        log.info("分类重排请求 - 分类数: {}", request.getCategories().size());
+        try {
+            return Result.success(categoryService.reorderCategories(request.getCategories()));
+        } catch (RuntimeException e) {
+            log.error("分类重排失败: {}", e.getMessage());
+            return Result.error(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.blog.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量导入中的一篇文章（NDJSON 中的一行）
+ */
+@Data
+public class ArticleImportRecord {
+
+    @NotBlank(message = "文章标题不能为空")
+    @Size(max = 200, message = "文章标题不能超过200个字符")
+    private String title;
+
+    @NotBlank(message = "文章内容不能为空")
+    private String content;
+
+    @Size(max = 500, message = "文章摘要不能超过500个字符")
+    private String summary;
+
+    private String coverImage;
+
+    private Long categoryId;
+
+    private List<Long> tagIds;
+
+
+    /**
+     * DRAFT 或 PUBLISHED，为空时为草稿
+     */
+    private String status;
+
+    /**
+     * 原始创建时间，迁移历史文章时保留，为空时使用导入时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 原始发布时间，仅已发布文章有效，为空时使用创建时间
+     */
+    private LocalDateTime publishTime;
+}
@@ -0,0 +1,32 @@
+package com.example.blog.dto;
+
+import lombok.Data;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * 分类重排请求
+ * 按新的显示顺序列出全部分类及其父分类，同一父分类下的排序值按出现顺序从 1 开始编号
+ */
+@Data
+public class CategoryReorderRequest {
+
+    @NotEmpty(message = "分类列表不能为空")
+    @Valid
+    private List<Item> categories;
+
+    @Data
+    public static class Item {
+
+        @NotNull(message = "分类ID不能为空")
+        private Long id;
+
+        /**
+         * 父分类ID，null 或 0 表示顶级分类
+         */
+        private Long parentId;
+    }
+}
@@ -2,6 +2,8 @@ package com.example.blog.dto.request;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class ArticleQueryRequest {
 
@@ -13,8 +15,23 @@ public class ArticleQueryRequest {
 
     private Long categoryId;
 
+    /**
+     * 分类过滤是否包含全部子孙分类下的文章
+     */
+    private Boolean includeSubCategories;
+
     private Long tagId;
 
+    /**
+     * 多标签过滤，与 tagMatch 配合使用
+     */
+    private List<Long> tagIds;
+
+    /**
+     * 多标签匹配方式：any（命中任意一个，默认）/ all（全部命中）
+     */
+    private String tagMatch = "any";
+
     private String keyword;
 
     private String status;
@@ -22,4 +39,9 @@ public class ArticleQueryRequest {
     private Long authorId;
 
     private Boolean isTop;
+
+    /**
+     * 游标分页：上一页返回的 nextCursor；传空字符串表示以游标模式请求第一页，不传则使用页码分页
+     */
+    private String after;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.blog.dto.response;
 
 import com.example.blog.entity.Tag;
+import com.example.blog.util.MarkdownRenderer;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -41,6 +42,36 @@ public class ArticleDetailResponse {
 
     private List<Tag> tags;
 
+    /**
+     * 当前登录用户是否已点赞，未登录时为空
+     */
+    private Boolean liked;
+
+    /**
+     * 检索结果中高亮后的标题（HTML）
+     */
+    private String highlightedTitle;
+
+    /**
+     * 检索结果中包含查询词的正文片段（HTML），检索结果不再返回完整正文
+     */
+    private String snippet;
+
+    /**
+     * 由 Markdown 正文渲染的 HTML，仅详情接口返回
+     */
+    private String renderedHtml;
+
+    /**
+     * 正文目录，仅详情接口返回
+     */
+    private List<MarkdownRenderer.Heading> toc;
+
+    /**
+     * 热门文章的当前趋势得分，仅热门接口返回
+     */
+    private Double trendingScore;
+
     public ArticleDetailResponse() {
         this.viewCount = 0L;
         this.likeCount = 0L;
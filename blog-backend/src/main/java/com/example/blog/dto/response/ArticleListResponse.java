@@ -17,6 +17,16 @@ public class ArticleListResponse {
 
     private Long pages;
 
+    /**
+     * 游标分页模式下的下一页游标，没有下一页时为空
+     */
+    private String nextCursor;
+
+    /**
+     * 游标分页模式下是否还有下一页
+     */
+    private Boolean hasMore;
+
     public ArticleListResponse() {
         this.articles = List.of();
         this.total = 0L;
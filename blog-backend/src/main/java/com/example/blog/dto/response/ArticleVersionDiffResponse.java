@@ -0,0 +1,35 @@
+package com.example.blog.dto.response;
+
+import com.example.blog.util.LineDiff;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ArticleVersionDiffResponse {
+
+    private Long articleId;
+
+    private Integer fromVersion;
+
+    private Integer toVersion;
+
+    private String fromTitle;
+
+    private String toTitle;
+
+    /**
+     * 新增行数
+     */
+    private Integer addedLines;
+
+    /**
+     * 删除行数
+     */
+    private Integer removedLines;
+
+    /**
+     * 正文差异片段（统一差异格式，每个片段保留 3 行上下文）
+     */
+    private List<LineDiff.Hunk> hunks;
+}
@@ -0,0 +1,47 @@
+package com.example.blog.dto.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ArticleVersionResponse {
+
+    private Long id;
+
+    private Long articleId;
+
+    private Integer versionNumber;
+
+    private String title;
+
+    /**
+     * 还原后的完整正文，版本列表中不返回
+     */
+    private String content;
+
+    private String summary;
+
+    private String coverImage;
+
+    private String changeReason;
+
+    private Long editorId;
+
+    /**
+     * 存储方式：FULL（关键帧）/ DELTA（增量）
+     */
+    private String storageType;
+
+    /**
+     * 正文字符数
+     */
+    private Integer contentLength;
+
+    /**
+     * 该版本实际占用的存储字节数（关键帧为正文字节数，增量为差异字节数），版本列表中不返回
+     */
+    private Integer storedBytes;
+
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,43 @@
+package com.example.blog.dto.response;
+
+import lombok.Data;
+
+/**
+ * 正文压缩基准测试结果，按当前压缩配置对抽样正文计算
+ */
+@Data
+public class ContentCompressionReport {
+
+    private String codec;
+
+    private Integer minLength;
+
+    private Integer sampleRows;
+
+    /**
+     * 达到阈值且压缩后确有收益的行数
+     */
+    private Integer compressedRows;
+
+    /**
+     * 原文按 UTF-8 存储的总字节数
+     */
+    private Long plainBytes;
+
+    /**
+     * 按当前配置存储的总字节数
+     */
+    private Long storedBytes;
+
+    private Double compressionRatio;
+
+    /**
+     * 未压缩时每行读取（字节解码为字符串）的平均耗时 (纳秒)
+     */
+    private Long plainReadNanos;
+
+    /**
+     * 按当前配置存储时每行读取（含解压）的平均耗时 (纳秒)
+     */
+    private Long storedReadNanos;
+}
@@ -1,6 +1,7 @@
 package com.example.blog.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.example.blog.config.CompressedTextTypeHandler;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -8,7 +9,7 @@ import java.time.LocalDateTime;
 
 @Data
 @EqualsAndHashCode(callSuper = false)
-@TableName("t_article")
+@TableName(value = "t_article", autoResultMap = true)
 public class Article {
 
     @TableId(value = "id", type = IdType.AUTO)
@@ -17,7 +18,7 @@ public class Article {
     @TableField("title")
     private String title;
 
-    @TableField("content")
+    @TableField(value = "content", typeHandler = CompressedTextTypeHandler.class)
     private String content;
 
     @TableField("summary")
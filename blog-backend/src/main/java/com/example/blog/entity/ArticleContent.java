@@ -0,0 +1,30 @@
+package com.example.blog.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import com.example.blog.config.CompressedTextTypeHandler;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName(value = "t_article_content", autoResultMap = true)
+public class ArticleContent {
+
+    @TableId(value = "article_id", type = IdType.INPUT)
+    private Long articleId;
+
+    @TableField(value = "content", typeHandler = CompressedTextTypeHandler.class)
+    private String content;
+
+    @TableField(value = "update_time", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+
+    public ArticleContent() {}
+
+    public ArticleContent(Long articleId, String content) {
+        this.articleId = articleId;
+        this.content = content;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.blog.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.example.blog.config.CompressedTextTypeHandler;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -8,9 +9,19 @@ import java.time.LocalDateTime;
 
 @Data
 @EqualsAndHashCode(callSuper = false)
-@TableName("t_article_version")
+@TableName(value = "t_article_version", autoResultMap = true)
 public class ArticleVersion {
 
+    /**
+     * 关键帧：content 保存完整正文
+     */
+    public static final String STORAGE_FULL = "FULL";
+
+    /**
+     * 增量：delta 保存相对上一版本的行级差异
+     */
+    public static final String STORAGE_DELTA = "DELTA";
+
     @TableId(value = "id", type = IdType.AUTO)
     private Long id;
 
@@ -23,9 +34,18 @@ public class ArticleVersion {
     @TableField("title")
     private String title;
 
-    @TableField("content")
+    @TableField(value = "content", typeHandler = CompressedTextTypeHandler.class)
     private String content;
 
+    @TableField("storage_type")
+    private String storageType;
+
+    @TableField("delta")
+    private byte[] delta;
+
+    @TableField("content_length")
+    private Integer contentLength;
+
     @TableField("summary")
     private String summary;
 
@@ -41,9 +61,7 @@ public class ArticleVersion {
     @TableField(value = "create_time", fill = FieldFill.INSERT)
     private LocalDateTime createTime;
 
-    @TableField(exist = false)
-    private String editorName;
-
-    @TableField(exist = false)
-    private String editorAvatar;
-}
\ No newline at end of file
+    public boolean isKeyframe() {
+        return STORAGE_FULL.equals(storageType);
+    }
+}
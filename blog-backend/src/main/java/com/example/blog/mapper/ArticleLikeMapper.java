@@ -5,6 +5,7 @@ import com.example.blog.entity.ArticleLike;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -16,6 +17,10 @@ public interface ArticleLikeMapper extends BaseMapper<ArticleLike> {
 
     List<ArticleLike> selectLikesByArticleId(@Param("articleId") Long articleId);
 
+    List<Long> selectUserIdsByArticleId(@Param("articleId") Long articleId);
+
+    List<Long> selectLikedArticleIds(@Param("userId") Long userId, @Param("articleIds") Collection<Long> articleIds);
+
     int countLikesByArticleId(@Param("articleId") Long articleId);
 
     int countLikesByUserId(@Param("userId") Long userId);
@@ -28,10 +28,14 @@ public interface ArticleMapper extends BaseMapper<Article> {
 
     int incrementViewCount(@Param("id") Long id);
 
+    int addViewCount(@Param("id") Long id, @Param("delta") Long delta);
+
     int incrementLikeCount(@Param("id") Long id);
 
     int decrementLikeCount(@Param("id") Long id);
 
+    int addLikeCount(@Param("id") Long id, @Param("delta") Long delta);
+
     int incrementCommentCount(@Param("id") Long id);
 
     int decrementCommentCount(@Param("id") Long id);
@@ -58,7 +62,44 @@ public interface ArticleMapper extends BaseMapper<Article> {
 
     int restoreArticle(@Param("id") Long id);
 
+    /**
+     * 只更新 changes 中非 null 的可编辑字段和更新时间
+     */
+    int updateArticleFields(@Param("changes") Article changes);
+
+    int updateArticleStatus(@Param("id") Long id, @Param("status") String status,
+                            @Param("updateTime") java.time.LocalDateTime updateTime);
+
+    int markArticleDeleted(@Param("id") Long id, @Param("deletedAt") java.time.LocalDateTime deletedAt);
+
     int updateScheduledPublishTime(@Param("id") Long id, @Param("scheduledPublishTime") java.time.LocalDateTime scheduledPublishTime);
 
     List<Article> selectScheduledArticlesToPublish(@Param("currentTime") java.time.LocalDateTime currentTime);
+
+    List<Article> selectPendingScheduledArticles();
+
+    int claimScheduledPublish(@Param("id") Long id,
+                              @Param("scheduledPublishTime") java.time.LocalDateTime scheduledPublishTime,
+                              @Param("owner") String owner,
+                              @Param("now") java.time.LocalDateTime now,
+                              @Param("leaseUntil") java.time.LocalDateTime leaseUntil);
+
+    int releasePublishLease(@Param("id") Long id, @Param("owner") String owner);
+
+    List<Article> selectArticlesChangedSince(@Param("since") java.time.LocalDateTime since);
+
+    /**
+     * 按 id 顺序分批查询主表中仍带有正文的文章（含已删除的文章），只返回 id 和 content
+     */
+    List<Article> selectInlineContents(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    /**
+     * 清空主表正文，返回 0 表示正文已被清空
+     */
+    int clearInlineContent(@Param("id") Long id);
+
+    /**
+     * 主表正文为空时写回正文，不修改更新时间
+     */
+    int restoreInlineContent(@Param("id") Long id, @Param("content") String content);
 }
\ No newline at end of file
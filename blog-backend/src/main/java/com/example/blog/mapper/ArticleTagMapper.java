@@ -5,6 +5,7 @@ import com.example.blog.entity.ArticleTag;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -24,7 +25,11 @@ public interface ArticleTagMapper extends BaseMapper<ArticleTag> {
 
     int deleteArticleTag(@Param("articleId") Long articleId, @Param("tagId") Long tagId);
 
+    int deleteArticleTags(@Param("articleId") Long articleId, @Param("tagIds") Collection<Long> tagIds);
+
     boolean existsArticleTag(@Param("articleId") Long articleId, @Param("tagId") Long tagId);
 
     List<ArticleTag> selectArticleTagsByArticleId(@Param("articleId") Long articleId);
+
+    List<ArticleTag> selectArticleTagsByArticleIds(@Param("articleIds") Collection<Long> articleIds);
 }
\ No newline at end of file
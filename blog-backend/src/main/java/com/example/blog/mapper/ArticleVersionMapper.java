@@ -0,0 +1,9 @@
+package com.example.blog.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.blog.entity.ArticleVersion;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface ArticleVersionMapper extends BaseMapper<ArticleVersion> {
+}
@@ -5,6 +5,8 @@ import com.example.blog.entity.Category;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -28,5 +30,21 @@ public interface CategoryMapper extends BaseMapper<Category> {
 
     int decrementArticleCount(@Param("id") Long id);
 
+    /**
+     * 批量调整文章数，结果不小于 0
+     */
+    int addArticleCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
     List<Category> selectCategoriesBySortOrder();
+
+    /**
+     * 把分类（连同整棵子树）移动到新的父分类下，parentId 为 null 表示顶级分类
+     */
+    int moveCategory(@Param("id") Long id, @Param("parentId") Long parentId,
+                     @Param("sortOrder") Integer sortOrder, @Param("updateTime") LocalDateTime updateTime);
+
+    /**
+     * 用一条 CASE 语句批量写入多个分类的父分类和排序值
+     */
+    int batchUpdatePosition(@Param("changes") List<Category> changes, @Param("updateTime") LocalDateTime updateTime);
 }
\ No newline at end of file
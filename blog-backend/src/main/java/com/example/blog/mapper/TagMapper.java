@@ -5,6 +5,7 @@ import com.example.blog.entity.Tag;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -26,5 +27,10 @@ public interface TagMapper extends BaseMapper<Tag> {
 
     int decrementArticleCount(@Param("id") Long id);
 
+    /**
+     * 批量调整文章数，结果不小于 0
+     */
+    int addArticleCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
     List<Tag> selectTagsByNameLike(@Param("name") String name, @Param("limit") Integer limit);
 }
\ No newline at end of file
@@ -1,22 +1,38 @@
 package com.example.blog.security;
 
+import com.example.blog.common.Result;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
 
 /**
- * 简化的权限检查工具类
- * 提供基础的用户角色检查功能
+ * 权限拦截器
+ * 从 Bearer 令牌中解析当前用户角色，并校验处理方法（或其所在类）上的 @RequireAdmin、@RequireRole 注解：
+ * 未登录返回 401，角色不符返回 403
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class PermissionInterceptor implements HandlerInterceptor {
 
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ObjectMapper objectMapper;
+
     private static final ThreadLocal<String> currentUserRole = new ThreadLocal<>();
 
     /**
@@ -88,12 +104,70 @@ public class PermissionInterceptor implements HandlerInterceptor {
     }
 
     @Override
-    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) throws IOException {
         // 在请求开始时清除可能存在的用户角色信息
         clearCurrentUserRole();
+        String role = resolveRole(request);
+        if (role != null) {
+            setCurrentUserRole(role);
+        }
+
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RequireAdmin requireAdmin = findAnnotation(handlerMethod, RequireAdmin.class);
+        RequireRole requireRole = findAnnotation(handlerMethod, RequireRole.class);
+        if (requireAdmin == null && requireRole == null) {
+            return true;
+        }
+
+        if (role == null) {
+            writeError(response, HttpStatus.UNAUTHORIZED, "请先登录");
+            return false;
+        }
+        if (requireAdmin != null && !isCurrentUserAdmin()) {
+            log.warn("拒绝访问 - uri: {}, role: {}", request.getRequestURI(), role);
+            writeError(response, HttpStatus.FORBIDDEN, requireAdmin.message());
+            return false;
+        }
+        if (requireRole != null && !hasRole(requireRole.value())) {
+            log.warn("拒绝访问 - uri: {}, role: {}, 需要角色: {}", request.getRequestURI(), role, requireRole.value());
+            writeError(response, HttpStatus.FORBIDDEN, requireRole.message());
+            return false;
+        }
         return true;
     }
 
+    /**
+     * 从 Authorization 头中解析角色，令牌缺失或无效时返回 null
+     */
+    private String resolveRole(HttpServletRequest request) {
+        String authorization = request.getHeader("Authorization");
+        if (!StringUtils.hasText(authorization) || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+
+        String token = authorization.substring(7);
+        return jwtTokenProvider.validateToken(token) ? jwtTokenProvider.extractRole(token) : null;
+    }
+
+    private static <A extends Annotation> A findAnnotation(HandlerMethod handlerMethod,
+                                                               Class<A> annotationType) {
+        A annotation = handlerMethod.getMethodAnnotation(annotationType);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), annotationType);
+        }
+        return annotation;
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), Result.error(status.value(), message));
+    }
+
     @Override
     public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler, @Nullable Exception ex) {
         // 在请求完成后清除用户角色信息
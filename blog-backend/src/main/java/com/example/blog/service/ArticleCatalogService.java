@@ -0,0 +1,95 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.request.ArticleQueryRequest;
+import com.example.blog.entity.Article;
+import com.example.blog.util.LongHashSet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文章目录服务
+ * 在内存中以列式数组保存文章元数据（不含正文），并按状态、分类、作者、标签建立压缩位图索引，
+ * 过滤、排序和分页都在内存中完成，只有当前页的文章才回表查询
+ */
+public interface ArticleCatalogService {
+
+    /**
+     * 按状态、分类、作者、标签过滤并排序，返回一页文章ID（已按排序顺序排列）
+     */
+    CatalogPage query(ArticleQueryRequest request);
+
+    /**
+     * 解析请求中的标签过滤条件，返回匹配的文章ID；请求中没有标签条件时返回 null
+     */
+    List<Long> findArticleIdsByTags(ArticleQueryRequest request);
+
+    /**
+     * 解析请求中的状态、分类、作者、标签过滤条件，返回匹配的文章ID集合；没有任何过滤条件时返回 null
+     */
+    LongHashSet findArticleIds(ArticleQueryRequest request);
+
+    /**
+     * 获取文章最后更新时间（毫秒时间戳），文章不存在时返回 null
+     */
+    Long getUpdateTime(Long articleId);
+
+    /**
+     * 获取文章已落库的浏览次数，文章不在目录中时返回 null
+     */
+    Long getViewCount(Long articleId);
+
+    /**
+     * 获取文章已落库的点赞数，文章不在目录中时返回 null
+     */
+    Long getLikeCount(Long articleId);
+
+    /**
+     * 文章是否存在且已发布
+     */
+    boolean isPublished(Long articleId);
+
+    /**
+     * 目录结构版本号，文章新增、更新、删除、发布状态变化或目录重建后改变
+     */
+    long getVersion();
+
+    /**
+     * 计数版本号，浏览次数或点赞数增量落库后改变
+     */
+    long getCountVersion();
+
+    /**
+     * 新增或更新文章元数据，tagIds 为 null 时保留原有标签
+     */
+    void upsert(Article article, Collection<Long> tagIds);
+
+    /**
+     * 移除文章（软删除）
+     */
+    void remove(Long articleId);
+
+    /**
+     * 累加已落库的浏览次数增量
+     */
+    void addViewCounts(Map<Long, Long> deltas);
+
+    /**
+     * 累加已落库的点赞数增量
+     */
+    void addLikeCounts(Map<Long, Long> deltas);
+
+    /**
+     * 从数据库全量重建目录
+     *
+     * @return 目录中的文章数量
+     */
+    int rebuild();
+
+    /**
+     * 目录查询结果
+     */
+    record CatalogPage(List<Long> articleIds, long total) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.blog.service;
+
+import com.example.blog.entity.Article;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 文章正文存储服务
+ * inline 模式下正文保存在 t_article.content；split 模式下保存在独立的 t_article_content 表，只有详情页才会加载
+ */
+public interface ArticleContentService {
+
+    /**
+     * 是否启用分离存储
+     */
+    boolean isSplitStorage();
+
+    /**
+     * 加载文章正文，尚未迁移到当前存储的文章从另一种存储读取
+     */
+    String loadContent(Article article);
+
+    /**
+     * 批量加载文章正文，返回 文章ID -> 正文；实体中未携带正文时一次性补查
+     */
+    Map<Long, String> loadContents(Collection<Article> articles);
+
+    /**
+     * 保存文章正文（仅分离存储模式下写入 t_article_content，inline 模式下由调用方写入主表）
+     */
+    void saveContent(Long articleId, String content);
+
+    /**
+     * 切换存储模式后，把另一种存储中的正文迁移到当前模式对应的存储，并清除原存储中的副本
+     *
+     * @return 迁移的文章数
+     */
+    int migrateStorage();
+}
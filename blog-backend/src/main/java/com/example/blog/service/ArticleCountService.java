@@ -0,0 +1,45 @@
+package com.example.blog.service;
+
+import java.util.Collection;
+
+/**
+ * 分类、标签文章数计数服务
+ * 文章数变化在事务提交后累加到内存缓冲区，由后台任务合并为 article_count = article_count + ? 批量写回，
+ * 并定期按 GROUP BY 重新统计校正偏差；不依赖数据库触发器，H2 与 MySQL 行为一致
+ */
+public interface ArticleCountService {
+
+    /**
+     * 事务提交后调整分类的文章数
+     */
+    void addCategoryCount(Long categoryId, int delta);
+
+    /**
+     * 事务提交后调整一组标签的文章数
+     */
+    void addTagCounts(Collection<Long> tagIds, int delta);
+
+    /**
+     * 获取分类尚未写入数据库的文章数增量
+     */
+    long getPendingCategoryCount(Long categoryId);
+
+    /**
+     * 获取标签尚未写入数据库的文章数增量
+     */
+    long getPendingTagCount(Long tagId);
+
+    /**
+     * 将缓冲的增量批量写入数据库
+     *
+     * @return 本次写入的分类和标签数量
+     */
+    int flush();
+
+    /**
+     * 按文章表重新统计各分类、标签的文章数，修正与统计结果不一致的行
+     *
+     * @return 修正的分类和标签数量
+     */
+    int reconcile();
+}
@@ -0,0 +1,45 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.response.ArticleDetailResponse;
+import com.example.blog.util.BoundedCache;
+
+import java.util.function.Function;
+
+/**
+ * 文章详情缓存服务
+ * 缓存装配好的文章详情（含作者、分类、标签、正文），其中的浏览数和点赞数是加载时的快照，调用方在响应时重新读取
+ */
+public interface ArticleDetailCacheService {
+
+    /**
+     * 读取文章详情，未命中时调用 loader 加载；返回的是副本，调用方可以自由修改
+     */
+    ArticleDetailResponse get(Long articleId, Function<Long, ArticleDetailResponse> loader);
+
+    /**
+     * 事务提交后失效指定文章
+     */
+    void invalidate(Long articleId);
+
+    /**
+     * 事务提交后失效指定作者的所有文章
+     */
+    void invalidateByAuthor(Long authorId);
+
+    /**
+     * 事务提交后失效指定分类下的所有文章
+     */
+    void invalidateByCategory(Long categoryId);
+
+    /**
+     * 事务提交后失效带有指定标签的所有文章
+     */
+    void invalidateByTag(Long tagId);
+
+    /**
+     * 作者、分类、标签最近一次变更的时间戳，这类变更不会修改文章本身的更新时间
+     */
+    long getRelatedDataVersion();
+
+    BoundedCache.CacheStats getStats();
+}
@@ -0,0 +1,48 @@
+package com.example.blog.service;
+
+import java.io.Reader;
+
+/**
+ * 文章批量导入服务
+ * 逐行读取 NDJSON，每行一篇文章，校验后按批写入数据库；内存占用只与批大小有关，与导入总量无关
+ */
+public interface ArticleImportService {
+
+    /**
+     * 导入文章，单行校验或写入失败不影响其他行
+     *
+     * @param reader          NDJSON 输入
+     * @param authorId 导入的文章统一归属的作者（当前登录用户），记录中不能指定作者
+     * @param listener        接收逐行错误和每批完成后的进度
+     * @return 最终进度
+     */
+    ImportProgress importArticles(Reader reader, Long authorId, ImportListener listener);
+
+    /**
+     * 导入事件监听器
+     */
+    interface ImportListener {
+
+        void onError(ImportError error);
+
+        void onProgress(ImportProgress progress);
+    }
+
+    /**
+     * 导入进度
+     *
+     * @param lines    已读取的非空行数
+     * @param imported 已写入的文章数
+     * @param failed   失败的行数
+     */
+    record ImportProgress(long lines, long imported, long failed) {
+    }
+
+    /**
+     * 单行导入错误
+     *
+     * @param line 行号，从 1 开始
+     */
+    record ImportError(long line, String message) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.blog.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 文章点赞服务
+ * 点赞关系在内存中维护，点赞记录与点赞数增量由后台任务批量写回数据库
+ */
+public interface ArticleLikeService {
+
+    /**
+     * 切换点赞状态
+     *
+     * @return 切换后是否为已点赞
+     */
+    boolean toggleLike(Long articleId, Long userId);
+
+    /**
+     * 判断用户是否已点赞文章
+     */
+    boolean hasLiked(Long articleId, Long userId);
+
+    /**
+     * 批量判断用户点赞过其中哪些文章，用于列表页
+     */
+    Set<Long> getLikedArticleIds(Long userId, Collection<Long> articleIds);
+
+    /**
+     * 获取尚未写入数据库的点赞数增量
+     */
+    long getPendingLikeDelta(Long articleId);
+
+    /**
+     * 将缓冲的点赞记录和点赞数增量批量写入数据库
+     *
+     * @return 本次写入的点赞记录数量
+     */
+    int flush();
+}
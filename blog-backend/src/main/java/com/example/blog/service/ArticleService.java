@@ -7,6 +7,7 @@ import com.example.blog.dto.CreateArticleRequest;
 import com.example.blog.dto.UpdateArticleRequest;
 import com.example.blog.entity.Article;
 
+import java.util.List;
 import java.util.Map;
 
 public interface ArticleService {
@@ -21,6 +22,11 @@ public interface ArticleService {
 
     Article updateArticle(Long id, UpdateArticleRequest request);
 
+    /**
+     * 将文章恢复到指定历史版本的标题、摘要和正文，恢复操作本身记录为新版本
+     */
+    Article restoreArticleVersion(Long id, int versionNumber);
+
     boolean deleteArticle(Long id);
 
     boolean publishArticle(Long id);
@@ -30,4 +36,14 @@ public interface ArticleService {
     boolean likeArticle(Long articleId, Long userId);
 
     Map<String, Object> getArticleStatistics();
+
+    /**
+     * 获取指定时间窗口内的热门文章
+     */
+    List<ArticleDetailResponse> getTrendingArticles(TrendingService.Window window, int limit);
+
+    /**
+     * 获取相关文章，按相似度降序排列
+     */
+    List<ArticleDetailResponse> getRelatedArticles(Long id, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.response.ArticleVersionDiffResponse;
+import com.example.blog.dto.response.ArticleVersionResponse;
+import com.example.blog.entity.Article;
+
+import java.util.List;
+
+/**
+ * 文章版本历史服务
+ * 每隔固定数量的版本保存一次完整正文作为关键帧，其余版本只保存相对上一版本的行级增量，
+ * 存储和写入量与实际改动的行数成正比；还原任意版本最多回放 keyframe-interval - 1 个增量
+ */
+public interface ArticleVersionService {
+
+    /**
+     * 记录文章的新版本；标题、摘要、正文与上一版本完全相同时不产生新版本
+     *
+     * @param content 该版本的完整正文
+     */
+    void recordVersion(Article article, String content, String changeReason);
+
+    /**
+     * 版本列表（不含正文），按版本号降序排列
+     */
+    List<ArticleVersionResponse> listVersions(Long articleId);
+
+    /**
+     * 获取指定版本，正文由最近的关键帧回放增量还原
+     */
+    ArticleVersionResponse getVersion(Long articleId, int versionNumber);
+
+    /**
+     * 比较两个版本的正文差异
+     */
+    ArticleVersionDiffResponse diff(Long articleId, int fromVersion, int toVersion);
+}
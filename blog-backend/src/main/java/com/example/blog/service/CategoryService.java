@@ -1,5 +1,7 @@
 package com.example.blog.service;
 
+import com.example.blog.dto.CategoryDTO;
+import com.example.blog.dto.CategoryReorderRequest;
 import com.example.blog.entity.Category;
 import java.util.List;
 
@@ -18,6 +20,11 @@ public interface CategoryService {
      */
     Category updateCategory(Long id, Category category);
 
+    /**
+     * 移动分类及其整棵子树到新的父分类下，parentId 为 null 或 0 表示移动为顶级分类
+     */
+    Category moveCategory(Long id, Long parentId);
+
     /**
      * 删除分类
      */
@@ -34,9 +41,9 @@ public interface CategoryService {
     List<Category> getAllCategories();
 
     /**
-     * 获取分类树形结构
+     * 获取分类树形结构，根分类及各级子分类均按排序值、ID 排列
      */
-    List<Category> getCategoryTree();
+    List<CategoryDTO> getCategoryTree();
 
     /**
      * 获取根分类列表
@@ -49,10 +56,15 @@ public interface CategoryService {
     List<Category> getChildCategories(Long parentId);
 
     /**
-     * 更新分类排序
+     * 更新分类排序，排序值为分类在列表中的位置（从 1 开始）
      */
     boolean updateCategorySort(List<Category> categories);
 
+    /**
+     * 按完整的新顺序重排全部分类，只写入父分类或排序值实际变化的行，返回变化的行数
+     */
+    int reorderCategories(List<CategoryReorderRequest.Item> ordering);
+
     /**
      * 检查分类名称是否存在
      */
@@ -0,0 +1,57 @@
+package com.example.blog.service;
+
+import com.example.blog.entity.Category;
+import com.example.blog.util.CategoryTree;
+
+import java.util.Collection;
+
+/**
+ * 分类树快照服务
+ * 分类变更时只递增版本号，下次读取时才重新加载并构建新的不可变快照，读取方始终无锁；
+ * 其他节点的变更不会递增本节点的版本号，由定时任务与数据库比对后使快照过期
+ */
+public interface CategoryTreeService {
+
+    /**
+     * 获取当前分类树快照，快照已过期时重新构建
+     */
+    CategoryTree getSnapshot();
+
+    /**
+     * 事务提交后使当前快照过期
+     */
+    void invalidate();
+
+    /**
+     * 与数据库中的分类比对当前快照，不一致（如其他节点修改过分类）时使快照过期
+     *
+     * @return 快照是否已过期
+     */
+    boolean refresh();
+
+    /**
+     * 分类数据版本号，已提交的分类变更都会使其递增，不触发快照重建
+     */
+    long getVersion();
+
+    /**
+     * 校验把分类挂到 parentId 下是否合法：父分类必须存在，不能是分类自身或其子孙，
+     * 移动后整棵子树不能超过层级上限。categoryId 为 null 表示新建分类，parentId 为 null 或 0 表示顶级分类
+     */
+    void checkParent(Long categoryId, Long parentId);
+
+    /**
+     * 校验一组完整的分类层级（如重排后的全部分类）：父分类必须在集合中，不能形成环，层数不能超过上限
+     */
+    void checkHierarchy(Collection<Category> categories);
+
+    /**
+     * 父分类下新增子分类时使用的排序值：当前最大排序值 + 1，没有子分类时为 1
+     */
+    int nextSortOrder(Long parentId);
+
+    /**
+     * 分类及其全部子孙分类的ID；分类不在快照中（如已删除）时只返回其自身
+     */
+    long[] expandCategory(Long categoryId);
+}
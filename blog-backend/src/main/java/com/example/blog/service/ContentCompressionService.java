@@ -0,0 +1,22 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.response.ContentCompressionReport;
+
+/**
+ * 正文压缩服务
+ * 开启压缩后新写入的正文自动压缩，存量数据由后台任务按主键分批改写；压缩与未压缩的行可以共存
+ */
+public interface ContentCompressionService {
+
+    /**
+     * 压缩一批存量正文（文章主表、正文分表、版本关键帧），全部完成后不再查询
+     *
+     * @return 本批改写的行数
+     */
+    int migrateBatch();
+
+    /**
+     * 抽样最近的文章正文，比较压缩前后的存储大小和读取耗时
+     */
+    ContentCompressionReport benchmark(int sampleSize);
+}
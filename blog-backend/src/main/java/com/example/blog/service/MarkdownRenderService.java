@@ -0,0 +1,23 @@
+package com.example.blog.service;
+
+import com.example.blog.util.MarkdownRenderer;
+import com.example.blog.util.OffHeapSlabCache;
+
+/**
+ * Markdown 渲染服务
+ * 文章正文按内容哈希渲染一次，渲染结果（HTML 与目录）缓存在堆外内存中，正文不变时直接复用
+ */
+public interface MarkdownRenderService {
+
+    /**
+     * 渲染 Markdown 正文，同一内容只渲染一次；正文为空时返回空结果
+     */
+    MarkdownRenderer.Rendered render(String markdown);
+
+    /**
+     * 事务提交后预先渲染正文，使首次读取直接命中缓存
+     */
+    void prerender(String markdown);
+
+    OffHeapSlabCache.CacheStats getStats();
+}
@@ -0,0 +1,43 @@
+package com.example.blog.service;
+
+import com.example.blog.entity.Article;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 相关文章服务
+ * 综合标签 Jaccard 相似度、同分类加权和标题/摘要 TF-IDF 余弦相似度，在后台为每篇已发布文章预先计算
+ * 得分最高的若干篇相邻文章；文章或其标签变化时增量刷新受影响的列表，查询时直接读取
+ */
+public interface RelatedArticleService {
+
+    /**
+     * 返回相关文章ID，按相似度降序排列；文章不在索引中（未发布或已删除）时返回空列表
+     */
+    List<Long> getRelatedArticleIds(Long articleId, int limit);
+
+    /**
+     * 文章新增、更新或发布状态变化后调用，未发布的文章会从索引中移除；tagIds 为 null 时从数据库读取当前标签
+     */
+    void upsert(Article article, Collection<Long> tagIds);
+
+    /**
+     * 移除文章（删除或取消发布）
+     */
+    void remove(Long articleId);
+
+    /**
+     * 重新计算增量刷新后标记为过期的相邻列表
+     *
+     * @return 刷新的列表数量
+     */
+    int refreshStale();
+
+    /**
+     * 从数据库全量重建索引并重新计算全部相邻列表
+     *
+     * @return 索引中的文章数量
+     */
+    int rebuild();
+}
@@ -0,0 +1,49 @@
+package com.example.blog.service;
+
+import com.example.blog.util.BoundedCache;
+
+import java.util.function.Supplier;
+
+/**
+ * 响应字节缓存服务
+ * 缓存匿名 GET 接口最终输出的 JSON 字节及其 gzip 压缩结果，命中时直接写入输出流，
+ * 不再经过 Jackson 序列化和逐请求压缩
+ */
+public interface ResponseCacheService {
+
+    /**
+     * 缓存区域，写操作按区域失效
+     */
+    enum Region {
+        /**
+         * 文章列表（含分类名、标签、作者等关联数据）
+         */
+        ARTICLE_LIST,
+        /**
+         * 热门文章
+         */
+        TRENDING
+    }
+
+    /**
+     * 读取缓存的响应，未命中时调用 loader 取得响应体（通常是 Result）并序列化
+     *
+     * @param key 区域内的缓存键，应包含影响响应内容的全部请求参数和数据版本号
+     */
+    CachedResponse get(Region region, String key, Supplier<?> loader);
+
+    /**
+     * 事务提交后失效指定区域的全部缓存，正在加载的结果不写入缓存
+     */
+    void invalidate(Region... regions);
+
+    BoundedCache.CacheStats getStats();
+
+    /**
+     * 缓存的响应
+     *
+     * @param gzip 响应较小、压缩收益不足时为 null
+     */
+    record CachedResponse(Region region, byte[] json, byte[] gzip) {
+    }
+}
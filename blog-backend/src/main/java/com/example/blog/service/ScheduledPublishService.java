@@ -0,0 +1,28 @@
+package com.example.blog.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定时发布服务
+ * 定时发布计划在内存时间轮中按到期时间精确触发，不轮询数据库；
+ * 集群中每个节点都持有全部计划，到期时通过文章行上的租约保证只有一个节点执行发布
+ */
+public interface ScheduledPublishService {
+
+    /**
+     * 设置或修改草稿的定时发布时间（精确到秒）
+     */
+    void schedule(Long articleId, LocalDateTime publishTime);
+
+    /**
+     * 取消定时发布
+     */
+    void cancel(Long articleId);
+
+    /**
+     * 按数据库中的计划校准时间轮：补充其他节点新增或修改的计划，移除已取消的计划，重新触发逾期未发布的文章
+     *
+     * @return 待执行的计划数量
+     */
+    int resync();
+}
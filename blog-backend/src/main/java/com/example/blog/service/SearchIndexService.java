@@ -0,0 +1,50 @@
+package com.example.blog.service;
+
+import com.example.blog.entity.Article;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * 全文检索服务
+ * 进程内倒排索引，只收录已发布的文章；中文按二元组、英文按单词分词，使用 BM25 打分并提升标题权重
+ */
+public interface SearchIndexService {
+
+    /**
+     * 按相关度检索一页文章ID
+     *
+     * @param filter 额外的文章过滤条件，为 null 时不过滤
+     */
+    SearchHits search(String keyword, LongPredicate filter, long offset, int size);
+
+    /**
+     * 索引或重新索引文章；未发布或已删除的文章会从索引中移除
+     */
+    void index(Article article, String content);
+
+    /**
+     * 从索引中移除文章
+     */
+    void remove(Long articleId);
+
+    /**
+     * 从数据库全量重建索引
+     *
+     * @return 索引中的文章数量
+     */
+    int rebuild();
+
+    /**
+     * 将索引快照写入磁盘，索引自上次快照后没有变化时跳过
+     *
+     * @return 是否写出了快照
+     */
+    boolean saveSnapshot();
+
+    /**
+     * 检索结果
+     */
+    record SearchHits(List<Long> articleIds, long total) {
+    }
+}
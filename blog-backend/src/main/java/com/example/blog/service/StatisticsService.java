@@ -0,0 +1,41 @@
+package com.example.blog.service;
+
+import com.example.blog.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 统计计数服务
+ * 文章、用户的汇总数据保存在内存计数器中，由写操作增量维护并定期与数据库对账，看板查询不再执行 COUNT
+ */
+public interface StatisticsService {
+
+    /**
+     * 文章统计：totalArticles、publishedCount、draftCount、recentArticleCount（最近7天创建）
+     */
+    Map<String, Object> getArticleStatistics();
+
+    long getTotalUserCount();
+
+    long getActiveUserCount();
+
+    long getUserCountByRole(String role);
+
+    void onArticleCreated(String status, LocalDateTime createTime);
+
+    void onArticleStatusChanged(String oldStatus, String newStatus);
+
+    void onArticleDeleted(String status, LocalDateTime createTime);
+
+    void onUserRegistered(User user);
+
+    void onUserDeleted(User user);
+
+    void onUserRoleChanged(User user, String oldRole);
+
+    /**
+     * 从数据库重新统计并替换内存计数
+     */
+    void reconcile();
+}
@@ -0,0 +1,82 @@
+package com.example.blog.service;
+
+import java.util.List;
+
+/**
+ * 热门文章趋势服务
+ * 浏览、点赞、评论事件按权重计入文章得分，得分随时间指数衰减；每个时间窗口使用不同的半衰期，
+ * 内存中为每个窗口维护得分最高的候选集合，查询时直接读取，不做排序
+ */
+public interface TrendingService {
+
+    void recordView(Long articleId);
+
+    /**
+     * 记录点赞，同一用户对同一文章只在首次点赞时计分，反复取消、点赞不会累加
+     */
+    void recordLike(Long articleId, Long userId);
+
+    void recordComment(Long articleId);
+
+    /**
+     * 将缓冲的事件批量计入得分
+     *
+     * @return 涉及的文章数
+     */
+    int applyPending();
+
+    /**
+     * 返回指定窗口中得分最高的已发布文章，按得分降序排列
+     */
+    List<TrendingArticle> getTrending(Window window, int limit);
+
+    /**
+     * 将得分换算到当前时间基准，清理已衰减到可以忽略的文章，并重建候选集合
+     */
+    void rebase();
+
+    /**
+     * 时间窗口：以半衰期近似"最近一段时间"的热度，窗口越长半衰期越长
+     */
+    enum Window {
+        NOW("now", 2L * 60 * 60 * 1000),
+        TODAY("today", 12L * 60 * 60 * 1000),
+        WEEK("week", 84L * 60 * 60 * 1000);
+
+        private final String code;
+        private final long halfLifeMillis;
+
+        Window(String code, long halfLifeMillis) {
+            this.code = code;
+            this.halfLifeMillis = halfLifeMillis;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public long getHalfLifeMillis() {
+            return halfLifeMillis;
+        }
+
+        /**
+         * 根据代码获取窗口，未知代码返回 null
+         */
+        public static Window fromCode(String code) {
+            for (Window window : values()) {
+                if (window.code.equalsIgnoreCase(code)) {
+                    return window;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 趋势结果
+     *
+     * @param score 当前时刻的衰减得分
+     */
+    record TrendingArticle(Long articleId, double score) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.blog.service;
+
+/**
+ * 文章浏览计数服务
+ * 浏览次数先累加在内存缓冲区，再由后台任务批量写回数据库
+ */
+public interface ViewCountService {
+
+    /**
+     * 记录一次文章浏览
+     */
+    void recordView(Long articleId);
+
+    /**
+     * 获取尚未写入数据库的浏览增量
+     */
+    long getPendingViews(Long articleId);
+
+    /**
+     * 将缓冲的浏览增量批量写入数据库
+     *
+     * @return 本次写入的文章数量
+     */
+    int flush();
+}
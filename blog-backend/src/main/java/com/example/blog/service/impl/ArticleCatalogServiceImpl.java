@@ -0,0 +1,696 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.blog.dto.request.ArticleQueryRequest;
+import com.example.blog.entity.Article;
+import com.example.blog.entity.ArticleTag;
+import com.example.blog.enums.ArticleStatus;
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.mapper.ArticleTagMapper;
+import com.example.blog.service.ArticleCatalogService;
+import com.example.blog.service.CategoryTreeService;
+import com.example.blog.util.CompactBitmap;
+import com.example.blog.util.LongHashSet;
+import com.example.blog.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 文章目录服务实现
+ * 每篇文章占用一行，各字段存放在按行下标寻址的基本类型数组中；状态、分类、作者、标签各自维护
+ * 值 -> 行号集合的压缩位图，过滤条件按位图求交/并，排序分页对匹配行做 Top-K 选择。
+ * 写操作在事务提交后增量应用，后台定期全量重建以纠正偏差并回收已删除行占用的槽位
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleCatalogServiceImpl implements ArticleCatalogService {
+
+    private static final String TAG_MATCH_ALL = "all";
+
+    private final ArticleMapper articleMapper;
+    private final ArticleTagMapper articleTagMapper;
+    private final CategoryTreeService categoryTreeService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 当前目录，首次加载前为 null
+     */
+    private Catalog catalog;
+
+    /**
+     * 全量重建期间发生的结构变更和计数增量，重建完成后重放到新目录上
+     */
+    private List<Consumer<Catalog>> rebuildJournal;
+
+    /**
+     * 结构变更版本号，每次新增、更新、删除或重建后递增
+     */
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * 计数版本号，每次应用浏览/点赞增量后递增
+     */
+    private final AtomicLong countVersion = new AtomicLong(System.currentTimeMillis());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 启动时加载失败不影响应用启动，首次查询时会再次尝试
+            log.error("文章目录加载失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public CatalogPage query(ArticleQueryRequest request) {
+        ensureLoaded();
+        int page = Math.max(1, request.getPage() == null ? 1 : request.getPage());
+        int size = Math.max(1, request.getSize() == null ? 10 : request.getSize());
+
+        lock.readLock().lock();
+        try {
+            BitSet matched = catalog.match(filterOf(request));
+            return catalog.page(matched, request.getSort(), (long) (page - 1) * size, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findArticleIdsByTags(ArticleQueryRequest request) {
+        Filter filter = filterOf(request);
+        if (filter.allTags().isEmpty() && filter.anyTags().isEmpty()) {
+            return null;
+        }
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            BitSet matched = catalog.match(new Filter(null, null, null, filter.allTags(), filter.anyTags()));
+            List<Long> articleIds = new ArrayList<>(matched.cardinality());
+            for (int row = matched.nextSetBit(0); row >= 0; row = matched.nextSetBit(row + 1)) {
+                articleIds.add(catalog.ids[row]);
+            }
+            return articleIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public LongHashSet findArticleIds(ArticleQueryRequest request) {
+        Filter filter = filterOf(request);
+        if (filter.isEmpty()) {
+            return null;
+        }
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            BitSet matched = catalog.match(filter);
+            LongHashSet articleIds = new LongHashSet(matched.cardinality());
+            for (int row = matched.nextSetBit(0); row >= 0; row = matched.nextSetBit(row + 1)) {
+                articleIds.add(catalog.ids[row]);
+            }
+            return articleIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Long getUpdateTime(Long articleId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Integer row = catalog.rowById.get(articleId);
+            return row == null ? null : catalog.updateTimes[row];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Long getViewCount(Long articleId) {
+        return getCount(articleId, true);
+    }
+
+    @Override
+    public Long getLikeCount(Long articleId) {
+        return getCount(articleId, false);
+    }
+
+    private Long getCount(Long articleId, boolean views) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Integer row = catalog.rowById.get(articleId);
+            if (row == null) {
+                return null;
+            }
+            return views ? catalog.viewCounts[row] : catalog.likeCounts[row];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isPublished(Long articleId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Integer row = catalog.rowById.get(articleId);
+            Byte published = catalog.statusDictionary.get(ArticleStatus.PUBLISHED.getCode());
+            return row != null && published != null && catalog.statusCodes[row] == published;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public long getCountVersion() {
+        return countVersion.get();
+    }
+
+    @Override
+    public void upsert(Article article, Collection<Long> tagIds) {
+        CatalogEntry entry = CatalogEntry.of(article, tagIds);
+        mutate(current -> current.upsert(entry), true);
+    }
+
+    @Override
+    public void remove(Long articleId) {
+        mutate(current -> current.remove(articleId), true);
+    }
+
+    @Override
+    public void addViewCounts(Map<Long, Long> deltas) {
+        mutate(current -> current.addCounts(current.viewCounts, deltas), false);
+    }
+
+    @Override
+    public void addLikeCounts(Map<Long, Long> deltas) {
+        mutate(current -> current.addCounts(current.likeCounts, deltas), false);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.article.catalog.rebuild-interval:600000}",
+            initialDelayString = "${blog.article.catalog.rebuild-interval:600000}")
+    public synchronized int rebuild() {
+        long startTime = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Catalog rebuilt;
+        try {
+            rebuilt = load();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuildJournal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rebuildJournal.forEach(change -> change.accept(rebuilt));
+            rebuildJournal = null;
+            catalog = rebuilt;
+            version.incrementAndGet();
+            countVersion.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("文章目录重建完成 - 文章数: {}, 耗时: {}ms", rebuilt.rowById.size(), System.currentTimeMillis() - startTime);
+        return rebuilt.rowById.size();
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (catalog != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        synchronized (this) {
+            if (catalog == null) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * 在事务提交后应用变更，避免回滚的写操作进入目录
+     *
+     * @param structural 是否为结构变更，决定递增哪个版本号。两类变更都记入重建日志：
+     *                   计数增量在落库提交之后才应用，重建读取的计数不含这部分，丢弃会让计数倒退到下一次重建
+     */
+    private void mutate(Consumer<Catalog> change, boolean structural) {
+        Runnable apply = () -> {
+            lock.writeLock().lock();
+            try {
+                if (catalog != null) {
+                    change.accept(catalog);
+                }
+                if (rebuildJournal != null) {
+                    rebuildJournal.add(change);
+                }
+                (structural ? version : countVersion).incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+
+        TransactionUtils.runAfterCommit(apply);
+    }
+
+    private Catalog load() {
+        QueryWrapper<Article> articleWrapper = new QueryWrapper<>();
+        articleWrapper.select("id", "status", "category_id", "author_id", "view_count", "like_count", "create_time", "update_time")
+                .eq("deleted", 0);
+        List<Article> articles = articleMapper.selectList(articleWrapper);
+
+        QueryWrapper<ArticleTag> tagWrapper = new QueryWrapper<>();
+        tagWrapper.select("article_id", "tag_id");
+        Map<Long, List<Long>> tagsByArticle = new HashMap<>();
+        for (ArticleTag articleTag : articleTagMapper.selectList(tagWrapper)) {
+            tagsByArticle.computeIfAbsent(articleTag.getArticleId(), k -> new ArrayList<>()).add(articleTag.getTagId());
+        }
+
+        Catalog loaded = new Catalog(articles.size());
+        for (Article article : articles) {
+            loaded.upsert(CatalogEntry.of(article, tagsByArticle.getOrDefault(article.getId(), List.of())));
+        }
+        return loaded;
+    }
+
+    /**
+     * 解析过滤条件，包含子分类时由分类树快照展开为整棵子树的分类ID
+     */
+    private Filter filterOf(ArticleQueryRequest request) {
+        long[] categoryIds = null;
+        if (request.getCategoryId() != null) {
+            categoryIds = Boolean.TRUE.equals(request.getIncludeSubCategories())
+                    ? categoryTreeService.expandCategory(request.getCategoryId())
+                    : new long[]{request.getCategoryId()};
+        }
+        return Filter.of(request, categoryIds);
+    }
+
+    /**
+     * 过滤条件：categoryIds 中的分类命中任意一个即可，allTags 中的标签必须全部命中，anyTags 中的标签命中任意一个即可
+     */
+    private record Filter(String status, long[] categoryIds, Long authorId, Set<Long> allTags, Set<Long> anyTags) {
+
+        static Filter of(ArticleQueryRequest request, long[] categoryIds) {
+            Set<Long> allTags = new LinkedHashSet<>();
+            Set<Long> anyTags = new LinkedHashSet<>();
+            if (request.getTagId() != null) {
+                allTags.add(request.getTagId());
+            }
+            if (request.getTagIds() != null) {
+                Set<Long> target = TAG_MATCH_ALL.equalsIgnoreCase(request.getTagMatch()) ? allTags : anyTags;
+                request.getTagIds().stream().filter(Objects::nonNull).forEach(target::add);
+            }
+            String status = request.getStatus() == null || request.getStatus().isEmpty() ? null : request.getStatus();
+            return new Filter(status, categoryIds, request.getAuthorId(), allTags, anyTags);
+        }
+
+        boolean isEmpty() {
+            return status == null && categoryIds == null && authorId == null && allTags.isEmpty() && anyTags.isEmpty();
+        }
+    }
+
+    /**
+     * 文章元数据快照，在调用方线程中从实体复制，避免事务提交后实体已被修改
+     */
+    private record CatalogEntry(long id, String status, long categoryId, long authorId,
+                                long viewCount, long likeCount, long createTime, long updateTime,
+                                long[] tagIds) {
+
+        static CatalogEntry of(Article article, Collection<Long> tagIds) {
+            long[] tags = tagIds == null ? null : tagIds.stream()
+                    .filter(Objects::nonNull)
+                    .mapToLong(Long::longValue)
+                    .distinct()
+                    .toArray();
+            LocalDateTime createTime = article.getCreateTime();
+            LocalDateTime updateTime = article.getUpdateTime() != null ? article.getUpdateTime() : createTime;
+            return new CatalogEntry(
+                    article.getId(),
+                    article.getStatus(),
+                    article.getCategoryId() == null ? 0L : article.getCategoryId(),
+                    article.getAuthorId() == null ? 0L : article.getAuthorId(),
+                    article.getViewCount() == null ? 0L : article.getViewCount(),
+                    article.getLikeCount() == null ? 0L : article.getLikeCount(),
+                    createTime == null ? 0L : toEpochMilli(createTime),
+                    updateTime == null ? 0L : toEpochMilli(updateTime),
+                    tags);
+        }
+
+        /**
+         * 创建时间和更新时间统一按系统时区换算，与数据库写入 LocalDateTime 时使用的时区一致
+         */
+        private static long toEpochMilli(LocalDateTime time) {
+            return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * 列式目录，非线程安全，由外层读写锁保护
+     * 分类、作者为 0 表示未设置；删除的行只从索引中移除，槽位在下一次重建时回收
+     */
+    private static final class Catalog {
+
+        private int rowCount;
+        private long[] ids;
+        private byte[] statusCodes;
+        private long[] categoryIds;
+        private long[] authorIds;
+        private long[] viewCounts;
+        private long[] likeCounts;
+        private long[] createTimes;
+        private long[] updateTimes;
+        private long[][] tagIds;
+
+        private final Map<Long, Integer> rowById = new HashMap<>();
+        private final CompactBitmap liveRows = new CompactBitmap();
+
+        private final Map<String, Byte> statusDictionary = new HashMap<>();
+        private final Map<Byte, CompactBitmap> statusIndex = new HashMap<>();
+        private final Map<Long, CompactBitmap> categoryIndex = new HashMap<>();
+        private final Map<Long, CompactBitmap> authorIndex = new HashMap<>();
+        private final Map<Long, CompactBitmap> tagIndex = new HashMap<>();
+
+        Catalog(int expectedRows) {
+            int capacity = Math.max(16, expectedRows + expectedRows / 4);
+            ids = new long[capacity];
+            statusCodes = new byte[capacity];
+            categoryIds = new long[capacity];
+            authorIds = new long[capacity];
+            viewCounts = new long[capacity];
+            likeCounts = new long[capacity];
+            createTimes = new long[capacity];
+            updateTimes = new long[capacity];
+            tagIds = new long[capacity][];
+        }
+
+        void upsert(CatalogEntry entry) {
+            Integer existing = rowById.get(entry.id());
+            int row;
+            if (existing == null) {
+                row = appendRow(entry.id());
+                viewCounts[row] = entry.viewCount();
+                likeCounts[row] = entry.likeCount();
+                createTimes[row] = entry.createTime();
+                tagIds[row] = new long[0];
+            } else {
+                // 已有行保留目录中的计数，计数只通过落库增量维护
+                row = existing;
+                unindex(statusIndex, statusCodes[row], row);
+                unindex(categoryIndex, categoryIds[row], row);
+                unindex(authorIndex, authorIds[row], row);
+            }
+
+            // 实体未携带更新时间时（如只更新了部分字段）保留原值
+            if (entry.updateTime() != 0L || existing == null) {
+                updateTimes[row] = entry.updateTime();
+            }
+            statusCodes[row] = statusCode(entry.status());
+            categoryIds[row] = entry.categoryId();
+            authorIds[row] = entry.authorId();
+            index(statusIndex, statusCodes[row], row);
+            index(categoryIndex, categoryIds[row], row);
+            index(authorIndex, authorIds[row], row);
+
+            if (entry.tagIds() != null) {
+                for (long tagId : tagIds[row]) {
+                    unindex(tagIndex, tagId, row);
+                }
+                tagIds[row] = entry.tagIds();
+                for (long tagId : tagIds[row]) {
+                    index(tagIndex, tagId, row);
+                }
+            }
+        }
+
+        void remove(Long articleId) {
+            Integer row = rowById.remove(articleId);
+            if (row == null) {
+                return;
+            }
+            unindex(statusIndex, statusCodes[row], row);
+            unindex(categoryIndex, categoryIds[row], row);
+            unindex(authorIndex, authorIds[row], row);
+            for (long tagId : tagIds[row]) {
+                unindex(tagIndex, tagId, row);
+            }
+            tagIds[row] = null;
+            liveRows.remove(row);
+        }
+
+        void addCounts(long[] counts, Map<Long, Long> deltas) {
+            deltas.forEach((articleId, delta) -> {
+                Integer row = rowById.get(articleId);
+                if (row != null) {
+                    counts[row] = Math.max(0L, counts[row] + delta);
+                }
+            });
+        }
+
+        /**
+         * 按过滤条件求匹配行：必选位图按基数从小到大依次求交，任选标签和子树内的各分类先求并再求交
+         */
+        BitSet match(Filter filter) {
+            List<CompactBitmap> required = new ArrayList<>();
+            if (filter.status() != null) {
+                Byte code = statusDictionary.get(filter.status());
+                required.add(code == null ? null : statusIndex.get(code));
+            }
+            BitSet anyCategories = null;
+            if (filter.categoryIds() != null && filter.categoryIds().length == 1) {
+                required.add(categoryIndex.get(filter.categoryIds()[0]));
+            } else if (filter.categoryIds() != null) {
+                anyCategories = new BitSet();
+                for (long categoryId : filter.categoryIds()) {
+                    CompactBitmap bitmap = categoryIndex.get(categoryId);
+                    if (bitmap != null) {
+                        bitmap.orInto(anyCategories);
+                    }
+                }
+            }
+            if (filter.authorId() != null) {
+                required.add(authorIndex.get(filter.authorId()));
+            }
+            for (Long tagId : filter.allTags()) {
+                required.add(tagIndex.get(tagId));
+            }
+            if (required.contains(null)) {
+                return new BitSet();
+            }
+
+            BitSet anyTags = null;
+            if (!filter.anyTags().isEmpty()) {
+                anyTags = new BitSet();
+                for (Long tagId : filter.anyTags()) {
+                    CompactBitmap bitmap = tagIndex.get(tagId);
+                    if (bitmap != null) {
+                        bitmap.orInto(anyTags);
+                    }
+                }
+            }
+
+            if (required.isEmpty()) {
+                BitSet matched = anyTags != null ? anyTags : anyCategories != null ? anyCategories : liveRows.toBitSet();
+                if (anyTags != null && anyCategories != null) {
+                    matched.and(anyCategories);
+                }
+                return matched;
+            }
+
+            required.sort(Comparator.comparingInt(CompactBitmap::cardinality));
+            BitSet matched = required.get(0).toBitSet();
+            for (int i = 1; i < required.size() && !matched.isEmpty(); i++) {
+                CompactBitmap bitmap = required.get(i);
+                for (int row = matched.nextSetBit(0); row >= 0; row = matched.nextSetBit(row + 1)) {
+                    if (!bitmap.contains(row)) {
+                        matched.clear(row);
+                    }
+                }
+            }
+            if (anyTags != null) {
+                matched.and(anyTags);
+            }
+            if (anyCategories != null) {
+                matched.and(anyCategories);
+            }
+            return matched;
+        }
+
+        /**
+         * 按排序键降序、ID 降序取出一页，与 SQL 中 ORDER BY 排序列 DESC, id DESC 的顺序一致；
+         * 只在堆中保留 offset + size 行，不对全部匹配行排序
+         */
+        CatalogPage page(BitSet matched, String sort, long offset, int size) {
+            int total = matched.cardinality();
+            if (offset >= total) {
+                return new CatalogPage(List.of(), total);
+            }
+
+            long[] keys = sortKeys(sort);
+            int limit = (int) Math.min(total, offset + size);
+            int[] heap = new int[limit];
+            int heapSize = 0;
+            for (int row = matched.nextSetBit(0); row >= 0; row = matched.nextSetBit(row + 1)) {
+                if (heapSize < limit) {
+                    heap[heapSize] = row;
+                    siftUp(heap, heapSize++, keys);
+                } else if (compare(row, heap[0], keys) > 0) {
+                    heap[0] = row;
+                    siftDown(heap, heapSize, keys);
+                }
+            }
+
+            // 堆顶始终是当前最靠后的一行，依次弹出并从后往前填充
+            int[] sorted = new int[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                sorted[i] = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, keys);
+            }
+
+            List<Long> articleIds = new ArrayList<>(sorted.length - (int) offset);
+            for (int i = (int) offset; i < sorted.length; i++) {
+                articleIds.add(ids[sorted[i]]);
+            }
+            return new CatalogPage(articleIds, total);
+        }
+
+        private long[] sortKeys(String sort) {
+            if ("views".equals(sort)) {
+                return viewCounts;
+            }
+            if ("likes".equals(sort)) {
+                return likeCounts;
+            }
+            return createTimes;
+        }
+
+        /**
+         * 比较两行的先后：返回正数表示 a 排在 b 前面
+         */
+        private int compare(int a, int b, long[] keys) {
+            int result = Long.compare(keys[a], keys[b]);
+            return result != 0 ? result : Long.compare(ids[a], ids[b]);
+        }
+
+        private void siftUp(int[] heap, int index, long[] keys) {
+            int row = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (compare(row, heap[parent], keys) >= 0) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = row;
+        }
+
+        private void siftDown(int[] heap, int size, long[] keys) {
+            if (size == 0) {
+                return;
+            }
+            int index = 0;
+            int row = heap[0];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && compare(heap[child + 1], heap[child], keys) < 0) {
+                    child++;
+                }
+                if (compare(row, heap[child], keys) <= 0) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = row;
+        }
+
+        private int appendRow(long articleId) {
+            if (rowCount == ids.length) {
+                int capacity = rowCount * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                statusCodes = Arrays.copyOf(statusCodes, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+                authorIds = Arrays.copyOf(authorIds, capacity);
+                viewCounts = Arrays.copyOf(viewCounts, capacity);
+                likeCounts = Arrays.copyOf(likeCounts, capacity);
+                createTimes = Arrays.copyOf(createTimes, capacity);
+                updateTimes = Arrays.copyOf(updateTimes, capacity);
+                tagIds = Arrays.copyOf(tagIds, capacity);
+            }
+            int row = rowCount++;
+            ids[row] = articleId;
+            rowById.put(articleId, row);
+            liveRows.add(row);
+            return row;
+        }
+
+        private byte statusCode(String status) {
+            String name = status == null ? "" : status;
+            Byte code = statusDictionary.get(name);
+            if (code == null) {
+                code = (byte) statusDictionary.size();
+                statusDictionary.put(name, code);
+            }
+            return code;
+        }
+
+        private static <K> void index(Map<K, CompactBitmap> index, K key, int row) {
+            if (key instanceof Long id && id == 0L) {
+                return;
+            }
+            index.computeIfAbsent(key, k -> new CompactBitmap()).add(row);
+        }
+
+        private static <K> void unindex(Map<K, CompactBitmap> index, K key, int row) {
+            CompactBitmap bitmap = index.get(key);
+            if (bitmap != null && bitmap.remove(row) && bitmap.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.blog.entity.Article;
+import com.example.blog.entity.ArticleContent;
+import com.example.blog.mapper.ArticleContentMapper;
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.service.ArticleContentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 文章正文存储服务实现
+ * 正文只写入当前模式对应的存储；切换模式后，尚未迁移的文章仍从另一种存储读取：
+ * split 模式下主表正文非空说明尚未迁移，以主表为准；inline 模式下主表正文为空时读取分表
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleContentServiceImpl implements ArticleContentService {
+
+    private static final String SPLIT_STORAGE = "split";
+
+    private static final int MIGRATION_BATCH_SIZE = 200;
+
+    private final ArticleContentMapper articleContentMapper;
+    private final ArticleMapper articleMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${blog.article.content-storage:inline}")
+    private String contentStorage;
+
+    @Override
+    public boolean isSplitStorage() {
+        return SPLIT_STORAGE.equalsIgnoreCase(contentStorage);
+    }
+
+    @Override
+    public String loadContent(Article article) {
+        if (article.getContent() != null) {
+            return article.getContent();
+        }
+
+        ArticleContent articleContent = articleContentMapper.selectById(article.getId());
+        return articleContent != null ? articleContent.getContent() : null;
+    }
+
+    @Override
+    public Map<Long, String> loadContents(Collection<Article> articles) {
+        Map<Long, String> contents = new HashMap<>();
+        if (articles.isEmpty()) {
+            return contents;
+        }
+        articles.forEach(article -> {
+            if (article.getContent() != null) {
+                contents.put(article.getId(), article.getContent());
+            }
+        });
+
+        // 列表查询出的实体不含正文，缺失的部分先从主表只查询 id 和 content 两列，仍缺失的再查分表
+        List<Long> missingIds = missingIds(articles, contents);
+        if (!missingIds.isEmpty()) {
+            QueryWrapper<Article> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("id", "content").in("id", missingIds).isNotNull("content");
+            articleMapper.selectList(queryWrapper)
+                    .forEach(article -> contents.put(article.getId(), article.getContent()));
+        }
+        missingIds = missingIds(articles, contents);
+        if (!missingIds.isEmpty()) {
+            articleContentMapper.selectBatchIds(missingIds)
+                    .forEach(articleContent -> contents.put(articleContent.getArticleId(), articleContent.getContent()));
+        }
+        return contents;
+    }
+
+    @Override
+    public void saveContent(Long articleId, String content) {
+        if (!isSplitStorage() || content == null) {
+            return;
+        }
+
+        // 先清空主表中尚未迁移的正文，再写分表；与迁移任务按同样的顺序加锁，迁移不会用旧正文覆盖本次修改
+        articleMapper.clearInlineContent(articleId);
+        ArticleContent articleContent = new ArticleContent(articleId, content);
+        if (articleContentMapper.updateById(articleContent) == 0) {
+            articleContentMapper.insert(articleContent);
+        }
+    }
+
+    @Override
+    public int migrateStorage() {
+        int migrated = isSplitStorage() ? migrateToSplit() : migrateToInline();
+        log.info("文章正文存储迁移完成 - 模式: {}, 文章数: {}", contentStorage, migrated);
+        return migrated;
+    }
+
+    /**
+     * 主表正文逐批移入分表，每批一个事务；主表正文已被清空的文章说明期间已在分表中保存过，跳过
+     */
+    private int migrateToSplit() {
+        int migrated = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Article> batch = articleMapper.selectInlineContents(afterId, MIGRATION_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return migrated;
+            }
+            Integer count = transactionTemplate.execute(status -> {
+                int moved = 0;
+                for (Article article : batch) {
+                    if (articleMapper.clearInlineContent(article.getId()) == 0) {
+                        continue;
+                    }
+                    ArticleContent articleContent = new ArticleContent(article.getId(), article.getContent());
+                    if (articleContentMapper.updateById(articleContent) == 0) {
+                        articleContentMapper.insert(articleContent);
+                    }
+                    moved++;
+                }
+                return moved;
+            });
+            migrated += count == null ? 0 : count;
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 分表正文逐批写回主表后删除，每批一个事务；主表已有正文的文章说明切换后已在主表中修改过，只删除分表中的旧正文
+     */
+    private int migrateToInline() {
+        int migrated = 0;
+        long afterId = 0L;
+        while (true) {
+            QueryWrapper<ArticleContent> queryWrapper = new QueryWrapper<>();
+            queryWrapper.gt("article_id", afterId).orderByAsc("article_id").last("LIMIT " + MIGRATION_BATCH_SIZE);
+            List<ArticleContent> batch = articleContentMapper.selectList(queryWrapper);
+            if (batch.isEmpty()) {
+                return migrated;
+            }
+            Integer count = transactionTemplate.execute(status -> {
+                int moved = 0;
+                for (ArticleContent articleContent : batch) {
+                    if (articleContent.getContent() != null
+                            && articleMapper.restoreInlineContent(articleContent.getArticleId(), articleContent.getContent()) > 0) {
+                        moved++;
+                    }
+                    articleContentMapper.deleteById(articleContent.getArticleId());
+                }
+                return moved;
+            });
+            migrated += count == null ? 0 : count;
+            afterId = batch.get(batch.size() - 1).getArticleId();
+        }
+    }
+
+    private static List<Long> missingIds(Collection<Article> articles, Map<Long, String> contents) {
+        return articles.stream()
+                .map(Article::getId)
+                .filter(id -> !contents.containsKey(id))
+                .collect(Collectors.toList());
+    }
+}
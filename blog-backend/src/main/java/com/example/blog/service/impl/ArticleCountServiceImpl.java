@@ -0,0 +1,230 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.blog.entity.Article;
+import com.example.blog.entity.ArticleTag;
+import com.example.blog.entity.Category;
+import com.example.blog.entity.Tag;
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.mapper.ArticleTagMapper;
+import com.example.blog.mapper.CategoryMapper;
+import com.example.blog.mapper.TagMapper;
+import com.example.blog.service.ArticleCountService;
+import com.example.blog.service.CategoryTreeService;
+import com.example.blog.util.BatchSqlExecutor;
+import com.example.blog.util.DeltaCounterBuffer;
+import com.example.blog.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 分类、标签文章数计数服务实现
+ * 每个分类、标签一个 LongAdder，批量导入时热点分类的并发累加不再争抢行锁；
+ * 回写时相同增量的行合并为一条 UPDATE ... WHERE id IN (...)，同一 JDBC batch 提交。
+ * 对账时先写回缓冲区，再用 GROUP BY 统计结果直接覆盖不一致的行，仍有未写回增量的行留到下一轮。
+ * 回写和对账都在事务中批量执行，失败时整体回滚，放回缓冲区的增量不会被重复累加
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleCountServiceImpl implements ArticleCountService {
+
+    private final BatchSqlExecutor batchSqlExecutor;
+    private final ArticleMapper articleMapper;
+    private final ArticleTagMapper articleTagMapper;
+    private final CategoryMapper categoryMapper;
+    private final TagMapper tagMapper;
+    private final CategoryTreeService categoryTreeService;
+
+    private final DeltaCounterBuffer<Long> pendingCategoryCounts = new DeltaCounterBuffer<>();
+    private final DeltaCounterBuffer<Long> pendingTagCounts = new DeltaCounterBuffer<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            // 启动时对账失败不影响应用启动，定时任务会再次尝试
+            log.error("文章数对账失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void addCategoryCount(Long categoryId, int delta) {
+        if (categoryId == null || delta == 0) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> pendingCategoryCounts.add(categoryId, delta));
+    }
+
+    @Override
+    public void addTagCounts(Collection<Long> tagIds, int delta) {
+        if (tagIds == null || tagIds.isEmpty() || delta == 0) {
+            return;
+        }
+        List<Long> snapshot = List.copyOf(tagIds);
+        TransactionUtils.runAfterCommit(() -> snapshot.forEach(tagId -> pendingTagCounts.add(tagId, delta)));
+    }
+
+    @Override
+    public long getPendingCategoryCount(Long categoryId) {
+        return pendingCategoryCounts.get(categoryId);
+    }
+
+    @Override
+    public long getPendingTagCount(Long tagId) {
+        return pendingTagCounts.get(tagId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.article-count.flush-interval:5000}")
+    public synchronized int flush() {
+        Map<Long, Long> categoryDeltas = pendingCategoryCounts.drain();
+        Map<Long, Long> tagDeltas = pendingTagCounts.drain();
+        if (categoryDeltas.isEmpty() && tagDeltas.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            batchSqlExecutor.execute(session -> {
+                CategoryMapper batchCategoryMapper = session.getMapper(CategoryMapper.class);
+                groupByDelta(categoryDeltas).forEach((delta, ids) -> batchCategoryMapper.addArticleCount(ids, delta));
+                TagMapper batchTagMapper = session.getMapper(TagMapper.class);
+                groupByDelta(tagDeltas).forEach((delta, ids) -> batchTagMapper.addArticleCount(ids, delta));
+            });
+        } catch (Exception e) {
+            // 写入失败时把增量放回缓冲区，等待下一轮重试
+            pendingCategoryCounts.restore(categoryDeltas);
+            pendingTagCounts.restore(tagDeltas);
+            log.error("文章数批量落库失败: {}", e.getMessage());
+            return 0;
+        }
+
+        if (!categoryDeltas.isEmpty()) {
+            // 分类树快照中带有文章数
+            categoryTreeService.invalidate();
+        }
+        log.debug("文章数批量落库 - 分类数: {}, 标签数: {}", categoryDeltas.size(), tagDeltas.size());
+        return categoryDeltas.size() + tagDeltas.size();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.article-count.reconcile-interval:600000}",
+            initialDelayString = "${blog.article-count.reconcile-interval:600000}")
+    public synchronized int reconcile() {
+        flush();
+
+        QueryWrapper<Article> categoryWrapper = new QueryWrapper<>();
+        categoryWrapper.select("category_id", "COUNT(*) AS total").isNotNull("category_id").groupBy("category_id");
+        Map<Long, Long> categoryTotals = totals(articleMapper.selectMaps(categoryWrapper), "category_id");
+
+        QueryWrapper<ArticleTag> tagWrapper = new QueryWrapper<>();
+        tagWrapper.select("tag_id", "COUNT(*) AS total")
+                .inSql("article_id", "SELECT id FROM t_article WHERE deleted = 0")
+                .groupBy("tag_id");
+        Map<Long, Long> tagTotals = totals(articleTagMapper.selectMaps(tagWrapper), "tag_id");
+
+        List<Category> categories = categoryMapper.selectList(
+                new QueryWrapper<Category>().select("id", "article_count"));
+        List<Tag> tags = tagMapper.selectList(new QueryWrapper<Tag>().select("id", "article_count"));
+
+        Map<Long, Integer> categoryFixes = mismatches(categories, Category::getId, Category::getArticleCount,
+                categoryTotals, pendingCategoryCounts);
+        Map<Long, Integer> tagFixes = mismatches(tags, Tag::getId, Tag::getArticleCount, tagTotals, pendingTagCounts);
+        if (categoryFixes.isEmpty() && tagFixes.isEmpty()) {
+            return 0;
+        }
+
+        // 统计期间可能有新的增量进入缓冲区，写入时再检查一次，只覆盖仍没有未写回增量的行
+        List<Long> fixedCategories = new ArrayList<>();
+        List<Long> fixedTags = new ArrayList<>();
+        batchSqlExecutor.execute(session -> {
+            fixedCategories.clear();
+            fixedTags.clear();
+            CategoryMapper batchCategoryMapper = session.getMapper(CategoryMapper.class);
+            categoryFixes.forEach((id, count) -> {
+                if (pendingCategoryCounts.get(id) == 0) {
+                    batchCategoryMapper.updateArticleCount(id, count);
+                    fixedCategories.add(id);
+                }
+            });
+            TagMapper batchTagMapper = session.getMapper(TagMapper.class);
+            tagFixes.forEach((id, count) -> {
+                if (pendingTagCounts.get(id) == 0) {
+                    batchTagMapper.updateArticleCount(id, count);
+                    fixedTags.add(id);
+                }
+            });
+        });
+        if (!fixedCategories.isEmpty()) {
+            categoryTreeService.invalidate();
+        }
+        if (!fixedCategories.isEmpty() || !fixedTags.isEmpty()) {
+            log.warn("文章数对账修正 - 分类: {}, 标签: {}", fixedCategories, fixedTags);
+        }
+        return fixedCategories.size() + fixedTags.size();
+    }
+
+    @PreDestroy
+    public void drain() {
+        int flushed = flush();
+        log.info("应用关闭，文章数缓冲区已排空 - 分类和标签数: {}", flushed);
+    }
+
+    /**
+     * 按增量分组，每种增量一条 UPDATE
+     */
+    private static Map<Integer, List<Long>> groupByDelta(Map<Long, Long> deltas) {
+        return deltas.entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> Math.toIntExact(entry.getValue()),
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+    }
+
+    /**
+     * 统计结果与当前值不一致、且没有未写回增量的行；未写回的增量可能已包含在统计结果中，留到下一轮再比较
+     */
+    private static <T> Map<Long, Integer> mismatches(List<T> rows, Function<T, Long> idGetter,
+                                                     Function<T, Integer> countGetter, Map<Long, Long> totals,
+                                                     DeltaCounterBuffer<Long> pending) {
+        Map<Long, Integer> fixes = new HashMap<>();
+        for (T row : rows) {
+            Long id = idGetter.apply(row);
+            int expected = Math.toIntExact(totals.getOrDefault(id, 0L));
+            Integer current = countGetter.apply(row);
+            if ((current == null || current != expected) && pending.get(id) == 0) {
+                fixes.put(id, expected);
+            }
+        }
+        return fixes;
+    }
+
+    private static Map<Long, Long> totals(List<Map<String, Object>> rows, String idColumn) {
+        Map<Long, Long> totals = new HashMap<>(rows.size() * 2);
+        for (Map<String, Object> row : rows) {
+            totals.put(((Number) value(row, idColumn)).longValue(), ((Number) value(row, "total")).longValue());
+        }
+        return totals;
+    }
+
+    /**
+     * 兼容不同数据库返回的列名大小写（H2 默认大写）
+     */
+    private static Object value(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value != null ? value : row.get(column.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.blog.service.impl;
+
+import com.example.blog.dto.response.ArticleDetailResponse;
+import com.example.blog.service.ArticleDetailCacheService;
+import com.example.blog.util.BoundedCache;
+import com.example.blog.util.TransactionUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 文章详情缓存服务实现
+ * 缓存中只保存详情模板，读取时返回副本；浏览数和点赞数由调用方在响应时从文章目录读取，
+ * 计数落库既不修改也不失效缓存，加载与落库并发时也不会重复计入增量
+ */
+@Service
+public class ArticleDetailCacheServiceImpl implements ArticleDetailCacheService {
+
+    private final BoundedCache<Long, ArticleDetailResponse> cache;
+
+    /**
+     * 最近一次关联数据（作者、分类、标签）变更的时间戳
+     */
+    private final AtomicLong relatedDataVersion = new AtomicLong(System.currentTimeMillis());
+
+    public ArticleDetailCacheServiceImpl(@Value("${blog.article.detail-cache.maximum-size:10000}") int maximumSize,
+                                         @Value("${blog.article.detail-cache.ttl:600000}") long ttlMillis) {
+        this.cache = new BoundedCache<>(maximumSize, ttlMillis);
+    }
+
+    @Override
+    public ArticleDetailResponse get(Long articleId, Function<Long, ArticleDetailResponse> loader) {
+        ArticleDetailResponse cached = cache.get(articleId, loader);
+        ArticleDetailResponse response = new ArticleDetailResponse();
+        BeanUtils.copyProperties(cached, response);
+        return response;
+    }
+
+    @Override
+    public void invalidate(Long articleId) {
+        TransactionUtils.runAfterCommit(() -> cache.invalidate(articleId));
+    }
+
+    @Override
+    public void invalidateByAuthor(Long authorId) {
+        invalidateIf(detail -> Objects.equals(authorId, detail.getAuthorId()));
+    }
+
+    @Override
+    public void invalidateByCategory(Long categoryId) {
+        invalidateIf(detail -> Objects.equals(categoryId, detail.getCategoryId()));
+    }
+
+    @Override
+    public void invalidateByTag(Long tagId) {
+        invalidateIf(detail -> detail.getTags() != null
+                && detail.getTags().stream().anyMatch(tag -> Objects.equals(tagId, tag.getId())));
+    }
+
+    @Override
+    public BoundedCache.CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public long getRelatedDataVersion() {
+        return relatedDataVersion.get();
+    }
+
+    private void invalidateIf(Predicate<ArticleDetailResponse> predicate) {
+        TransactionUtils.runAfterCommit(() -> {
+            cache.invalidateIf(predicate);
+            relatedDataVersion.accumulateAndGet(System.currentTimeMillis(), (prev, now) -> Math.max(prev + 1, now));
+        });
+    }
+}
@@ -0,0 +1,371 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.blog.dto.ArticleImportRecord;
+import com.example.blog.entity.Article;
+import com.example.blog.entity.ArticleContent;
+import com.example.blog.entity.Category;
+import com.example.blog.entity.Tag;
+import com.example.blog.enums.ArticleStatus;
+import com.example.blog.exception.BusinessException;
+import com.example.blog.mapper.ArticleContentMapper;
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.mapper.ArticleTagMapper;
+import com.example.blog.mapper.CategoryMapper;
+import com.example.blog.mapper.TagMapper;
+import com.example.blog.service.ArticleCatalogService;
+import com.example.blog.service.ArticleContentService;
+import com.example.blog.service.ArticleCountService;
+import com.example.blog.service.ArticleVersionService;
+import com.example.blog.service.ArticleImportService;
+import com.example.blog.service.RelatedArticleService;
+import com.example.blog.service.ResponseCacheService;
+import com.example.blog.service.SearchIndexService;
+import com.example.blog.service.StatisticsService;
+import com.example.blog.util.BatchSqlExecutor;
+import com.example.blog.util.LongHashSet;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 文章批量导入服务实现
+ * 分类、标签、用户ID在导入开始时一次性加载到内存中校验，不再逐行查询；
+ * 每批文章在一个事务内用 BATCH 执行器写入：文章主表一次 JDBC batch，标签关联使用多行 INSERT。
+ * 某一批写入失败时整批回滚，再逐条重试以定位出错的行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleImportServiceImpl implements ArticleImportService {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchSqlExecutor batchSqlExecutor;
+    private final CategoryMapper categoryMapper;
+    private final TagMapper tagMapper;
+    private final ArticleVersionService articleVersionService;
+    private final ArticleContentService articleContentService;
+    private final ArticleCatalogService articleCatalogService;
+    private final SearchIndexService searchIndexService;
+    private final RelatedArticleService relatedArticleService;
+    private final StatisticsService statisticsService;
+    private final ResponseCacheService responseCacheService;
+    private final ArticleCountService articleCountService;
+
+    @Value("${blog.article.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${blog.article.import.max-line-length:4194304}")
+    private int maxLineLength;
+
+    @Override
+    public ImportProgress importArticles(Reader reader, Long authorId, ImportListener listener) {
+        long startTime = System.currentTimeMillis();
+        ReferenceIds referenceIds = loadReferenceIds();
+        ImportState state = new ImportState(listener);
+        List<PendingArticle> batch = new ArrayList<>(batchSize);
+
+        LineReader lineReader = new LineReader(reader, maxLineLength);
+        try {
+            String line;
+            while ((line = lineReader.next()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                state.lines++;
+                if (lineReader.isTruncated()) {
+                    state.fail(lineReader.getLineNumber(), "行长度超过上限 " + maxLineLength + " 个字符");
+                    continue;
+                }
+
+                try {
+                    batch.add(parse(line, lineReader.getLineNumber(), authorId, referenceIds));
+                } catch (BusinessException e) {
+                    state.fail(lineReader.getLineNumber(), e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, state);
+                }
+            }
+        } catch (IOException e) {
+            throw new BusinessException("读取导入数据失败: " + e.getMessage());
+        } finally {
+            // 读取中断时已校验通过的文章仍然写入
+            if (!batch.isEmpty()) {
+                writeBatch(batch, state);
+            }
+        }
+
+        ImportProgress progress = state.progress();
+        log.info("文章导入完成 - 行数: {}, 成功: {}, 失败: {}, 耗时: {}ms",
+                progress.lines(), progress.imported(), progress.failed(), System.currentTimeMillis() - startTime);
+        return progress;
+    }
+
+    private ReferenceIds loadReferenceIds() {
+        return new ReferenceIds(
+                loadIds(categoryMapper, Category::getId),
+                loadIds(tagMapper, Tag::getId));
+    }
+
+    /**
+     * 只查询 id 列，逻辑删除的记录由全局配置自动排除
+     */
+    private static <T> LongHashSet loadIds(BaseMapper<T> mapper, Function<T, Long> idGetter) {
+        QueryWrapper<T> wrapper = new QueryWrapper<>();
+        wrapper.select("id");
+        List<T> rows = mapper.selectList(wrapper);
+        LongHashSet ids = new LongHashSet(rows.size());
+        rows.forEach(row -> ids.add(idGetter.apply(row)));
+        return ids;
+    }
+
+    private PendingArticle parse(String line, long lineNumber, Long authorId, ReferenceIds referenceIds) {
+        ArticleImportRecord record;
+        try {
+            record = objectMapper.readValue(line, ArticleImportRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("JSON 格式错误: " + e.getOriginalMessage());
+        }
+        if (record == null) {
+            throw new BusinessException("JSON 格式错误: 不是对象");
+        }
+
+        Set<ConstraintViolation<ArticleImportRecord>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            throw new BusinessException(violations.iterator().next().getMessage());
+        }
+
+        String status = record.getStatus() == null
+                ? ArticleStatus.DRAFT.getCode()
+                : record.getStatus().trim().toUpperCase(Locale.ROOT);
+        if (!ArticleStatus.DRAFT.getCode().equals(status) && !ArticleStatus.PUBLISHED.getCode().equals(status)) {
+            throw new BusinessException("不支持的文章状态: " + record.getStatus());
+        }
+        if (record.getCategoryId() != null && !referenceIds.categoryIds().contains(record.getCategoryId())) {
+            throw new BusinessException("分类不存在: " + record.getCategoryId());
+        }
+
+        List<Long> tagIds = record.getTagIds() == null ? List.of() : record.getTagIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        for (Long tagId : tagIds) {
+            if (!referenceIds.tagIds().contains(tagId)) {
+                throw new BusinessException("标签不存在: " + tagId);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime createTime = record.getCreateTime() != null ? record.getCreateTime() : now;
+        Article article = new Article();
+        article.setTitle(record.getTitle());
+        article.setContent(articleContentService.isSplitStorage() ? null : record.getContent());
+        article.setSummary(record.getSummary());
+        article.setCoverImage(record.getCoverImage());
+        article.setAuthorId(authorId);
+        article.setCategoryId(record.getCategoryId());
+        article.setStatus(status);
+        article.setViewCount(0L);
+        article.setLikeCount(0L);
+        article.setCommentCount(0L);
+        article.setCreateTime(createTime);
+        article.setUpdateTime(now);
+        if (ArticleStatus.PUBLISHED.getCode().equals(status)) {
+            article.setPublishTime(record.getPublishTime() != null ? record.getPublishTime() : createTime);
+        }
+        article.setDeleted(0);
+        return new PendingArticle(lineNumber, article, record.getContent(), tagIds);
+    }
+
+    private void writeBatch(List<PendingArticle> batch, ImportState state) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(batch));
+            state.imported += batch.size();
+        } catch (RuntimeException e) {
+            log.warn("批量写入失败，逐条重试 - 行 {} ~ {}: {}",
+                    batch.get(0).line(), batch.get(batch.size() - 1).line(), e.getMessage());
+            for (PendingArticle pending : batch) {
+                // 回滚前 BATCH 执行器可能已回填自增ID
+                pending.article().setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(pending)));
+                    state.imported++;
+                } catch (RuntimeException ex) {
+                    state.fail(pending.line(), "写入失败: " + rootMessage(ex));
+                }
+            }
+        }
+        batch.clear();
+        state.listener.onProgress(state.progress());
+    }
+
+    /**
+     * 在当前事务中写入一批文章；目录、检索索引、统计计数在事务提交后更新
+     */
+    private void insertBatch(List<PendingArticle> batch) {
+        batchSqlExecutor.execute(session -> {
+            ArticleMapper articleMapper = session.getMapper(ArticleMapper.class);
+            for (PendingArticle pending : batch) {
+                articleMapper.insert(pending.article());
+            }
+            // 先执行文章插入以回填自增ID
+            session.flushStatements();
+
+            if (articleContentService.isSplitStorage()) {
+                ArticleContentMapper articleContentMapper = session.getMapper(ArticleContentMapper.class);
+                for (PendingArticle pending : batch) {
+                    articleContentMapper.insert(new ArticleContent(pending.article().getId(), pending.content()));
+                }
+            }
+
+            ArticleTagMapper articleTagMapper = session.getMapper(ArticleTagMapper.class);
+            for (PendingArticle pending : batch) {
+                if (!pending.tagIds().isEmpty()) {
+                    articleTagMapper.insertArticleTags(pending.article().getId(), pending.tagIds());
+                }
+            }
+        });
+
+        // 与单篇创建一致，每篇文章记录第一个版本
+        for (PendingArticle pending : batch) {
+            articleVersionService.recordVersion(pending.article(), pending.content(), "导入文章");
+        }
+
+        for (PendingArticle pending : batch) {
+            Article article = pending.article();
+            // 分类和标签的文章数在内存中合并，由计数服务批量写回，不再在导入事务中更新热点行
+            articleCountService.addCategoryCount(article.getCategoryId(), 1);
+            articleCountService.addTagCounts(pending.tagIds(), 1);
+            articleCatalogService.upsert(article, pending.tagIds());
+            searchIndexService.index(article, pending.content());
+            relatedArticleService.upsert(article, pending.tagIds());
+            statisticsService.onArticleCreated(article.getStatus(), article.getCreateTime());
+        }
+        responseCacheService.invalidate(ResponseCacheService.Region.ARTICLE_LIST);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private record ReferenceIds(LongHashSet categoryIds, LongHashSet tagIds) {
+    }
+
+    private record PendingArticle(long line, Article article, String content, List<Long> tagIds) {
+    }
+
+    private static final class ImportState {
+
+        private final ImportListener listener;
+        private long lines;
+        private long imported;
+        private long failed;
+
+        ImportState(ImportListener listener) {
+            this.listener = listener;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            listener.onError(new ImportError(line, message));
+        }
+
+        ImportProgress progress() {
+            return new ImportProgress(lines, imported, failed);
+        }
+    }
+
+    /**
+     * 按行读取输入，单行超过上限时丢弃超出部分并标记截断，避免超长行占满内存
+     */
+    private static final class LineReader {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private long lineNumber;
+        private boolean truncated;
+        private boolean eof;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        String next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            line.setLength(0);
+            truncated = false;
+            boolean started = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        eof = true;
+                        if (!started) {
+                            return null;
+                        }
+                        lineNumber++;
+                        return line.toString();
+                    }
+                }
+                char c = buffer[position++];
+                started = true;
+                if (c == '\n') {
+                    lineNumber++;
+                    if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+                        line.setLength(line.length() - 1);
+                    }
+                    return line.toString();
+                }
+                if (c == '\uFEFF' && lineNumber == 0 && line.isEmpty()) {
+                    continue;
+                }
+                if (line.length() < maxLength) {
+                    line.append(c);
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+
+        long getLineNumber() {
+            return lineNumber;
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.blog.service.impl;
+
+import com.example.blog.entity.ArticleLike;
+import com.example.blog.mapper.ArticleLikeMapper;
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.service.ArticleCatalogService;
+import com.example.blog.service.ArticleLikeService;
+import com.example.blog.service.TrendingService;
+import com.example.blog.util.BatchSqlExecutor;
+import com.example.blog.util.BoundedCache;
+import com.example.blog.util.DeltaCounterBuffer;
+import com.example.blog.util.LongHashSet;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文章点赞服务实现
+ * 每篇文章的点赞用户保存在 LongHashSet 中，首次访问时从数据库加载，之后点赞/取消/查询都是 O(1) 内存操作；
+ * 同一用户对同一文章的多次切换在缓冲区内合并为最终状态，定期与 like_count 增量一起批量落库。
+ * 点赞用户集合放在有界缓存中，被淘汰的集合重新加载时叠加尚未落库的变更，内存只保留较热的文章
+ */
+@Slf4j
+@Service
+public class ArticleLikeServiceImpl implements ArticleLikeService {
+
+    private final ArticleLikeMapper articleLikeMapper;
+    private final BatchSqlExecutor batchSqlExecutor;
+    private final ArticleCatalogService articleCatalogService;
+    private final TrendingService trendingService;
+
+    /**
+     * 文章ID -> 点赞用户集合（已包含尚未落库的变更）
+     */
+    private final BoundedCache<Long, LongHashSet> likedUsers;
+
+    /**
+     * 正在落库的点赞状态，落库完成前重新加载的集合需要叠加这部分变更
+     */
+    private volatile Map<LikeKey, Boolean> flushingLikes = Map.of();
+
+    /**
+     * 落库阶段计数：开始和结束时各加一。从数据库加载前后读到的值不同，说明加载与落库重叠，需要重新加载
+     */
+    private final AtomicLong flushEpoch = new AtomicLong();
+
+    /**
+     * 待落库的点赞状态，value 为最终是否点赞
+     */
+    private final ConcurrentHashMap<LikeKey, Boolean> pendingLikes = new ConcurrentHashMap<>();
+
+    /**
+     * 待落库的点赞数增量
+     */
+    private final DeltaCounterBuffer<Long> pendingLikeCounts = new DeltaCounterBuffer<>();
+
+    public ArticleLikeServiceImpl(ArticleLikeMapper articleLikeMapper,
+                                  BatchSqlExecutor batchSqlExecutor,
+                                  ArticleCatalogService articleCatalogService,
+                                  TrendingService trendingService,
+                                  @Value("${blog.like.cache-size:10000}") int cacheSize,
+                                  @Value("${blog.like.cache-ttl:3600000}") long cacheTtl) {
+        this.articleLikeMapper = articleLikeMapper;
+        this.batchSqlExecutor = batchSqlExecutor;
+        this.articleCatalogService = articleCatalogService;
+        this.trendingService = trendingService;
+        this.likedUsers = new BoundedCache<>(cacheSize, cacheTtl);
+    }
+
+    @Override
+    public boolean toggleLike(Long articleId, Long userId) {
+        LongHashSet users = getLikedUsers(articleId);
+        boolean liked;
+        synchronized (users) {
+            liked = !users.remove(userId);
+            if (liked) {
+                users.add(userId);
+            }
+            pendingLikes.put(new LikeKey(articleId, userId), liked);
+            pendingLikeCounts.add(articleId, liked ? 1L : -1L);
+        }
+        // 取消点赞不扣减趋势得分，得分只随时间衰减；同一用户重复点赞只在首次计分
+        if (liked) {
+            trendingService.recordLike(articleId, userId);
+        }
+        return liked;
+    }
+
+    @Override
+    public boolean hasLiked(Long articleId, Long userId) {
+        LongHashSet users = getLikedUsers(articleId);
+        synchronized (users) {
+            return users.contains(userId);
+        }
+    }
+
+    @Override
+    public Set<Long> getLikedArticleIds(Long userId, Collection<Long> articleIds) {
+        Set<Long> result = new HashSet<>();
+        List<Long> unloaded = new ArrayList<>();
+        for (Long articleId : articleIds) {
+            LongHashSet users = likedUsers.peek(articleId);
+            if (users == null) {
+                unloaded.add(articleId);
+                continue;
+            }
+            synchronized (users) {
+                if (users.contains(userId)) {
+                    result.add(articleId);
+                }
+            }
+        }
+
+        // 未加载到内存的文章一次查询完成，再叠加尚未落库的变更；查询期间有落库开始或结束时重新查询
+        if (!unloaded.isEmpty()) {
+            Set<Long> liked;
+            long epoch;
+            do {
+                epoch = flushEpoch.get();
+                liked = new HashSet<>(articleLikeMapper.selectLikedArticleIds(userId, unloaded));
+                for (Long articleId : unloaded) {
+                    Boolean state = unflushedState(new LikeKey(articleId, userId));
+                    if (state != null) {
+                        if (state) {
+                            liked.add(articleId);
+                        } else {
+                            liked.remove(articleId);
+                        }
+                    }
+                }
+            } while (epoch != flushEpoch.get());
+            result.addAll(liked);
+        }
+        return result;
+    }
+
+    @Override
+    public long getPendingLikeDelta(Long articleId) {
+        return pendingLikeCounts.get(articleId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.like.flush-interval:5000}")
+    public synchronized int flush() {
+        Map<Long, Long> likeCounts = pendingLikeCounts.drain();
+        Map<LikeKey, Boolean> snapshot = new HashMap<>(pendingLikes);
+        if (snapshot.isEmpty() && likeCounts.isEmpty()) {
+            return 0;
+        }
+
+        // 先发布快照再从待落库状态中移除，任何时刻未落库的变更都至少出现在其中一处
+        flushingLikes = snapshot;
+        flushEpoch.incrementAndGet();
+
+        // 取出后又被切换的记录留在待落库状态中，以新状态为准，留到下一轮
+        Map<LikeKey, Boolean> likes = new HashMap<>();
+        snapshot.forEach((key, liked) -> {
+            if (pendingLikes.remove(key, liked)) {
+                likes.put(key, liked);
+            }
+        });
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            // 删除、插入和点赞数在同一事务中写入，失败时整体回滚
+            batchSqlExecutor.execute(session -> {
+                // 先删后插保证幂等：同一对记录无论数据库中原状态如何，写入后都与内存一致
+                ArticleLikeMapper likeMapper = session.getMapper(ArticleLikeMapper.class);
+                likes.keySet().forEach(key -> likeMapper.deleteByArticleIdAndUserId(key.articleId(), key.userId()));
+                likes.forEach((key, liked) -> {
+                    if (liked) {
+                        ArticleLike articleLike = new ArticleLike();
+                        articleLike.setArticleId(key.articleId());
+                        articleLike.setUserId(key.userId());
+                        articleLike.setCreatedAt(now);
+                        likeMapper.insert(articleLike);
+                    }
+                });
+
+                ArticleMapper articleMapper = session.getMapper(ArticleMapper.class);
+                likeCounts.forEach(articleMapper::addLikeCount);
+            });
+        } catch (Exception e) {
+            // 事务已回滚，放回缓冲区；已被新操作覆盖的记录以新状态为准
+            likes.forEach(pendingLikes::putIfAbsent);
+            pendingLikeCounts.restore(likeCounts);
+            log.error("点赞记录批量落库失败: {}", e.getMessage());
+            return 0;
+        } finally {
+            // 事务已提交或回滚后才撤下快照，先推进阶段计数，撤下之后读取的加载都会被判定为重叠
+            flushEpoch.incrementAndGet();
+            flushingLikes = Map.of();
+        }
+
+        articleCatalogService.addLikeCounts(likeCounts);
+        log.debug("点赞记录批量落库 - 记录数: {}, 文章数: {}", likes.size(), likeCounts.size());
+        return likes.size();
+    }
+
+    @PreDestroy
+    public void drain() {
+        int flushed = flush();
+        log.info("应用关闭，点赞缓冲区已排空 - 记录数: {}", flushed);
+    }
+
+    /**
+     * 获取文章的点赞用户集合，不存在时从数据库加载并叠加尚未落库的变更
+     */
+    private LongHashSet getLikedUsers(Long articleId) {
+        return likedUsers.get(articleId, this::loadLikedUsers);
+    }
+
+    /**
+     * 加载期间有落库开始或结束时，读到的数据库状态可能与叠加的变更错位，重新加载
+     */
+    private LongHashSet loadLikedUsers(Long articleId) {
+        while (true) {
+            long epoch = flushEpoch.get();
+            List<Long> userIds = articleLikeMapper.selectUserIdsByArticleId(articleId);
+            LongHashSet loaded = new LongHashSet(userIds.size());
+            for (Long userId : userIds) {
+                loaded.add(userId);
+            }
+            // 先叠加正在落库的，再叠加更新的待落库状态
+            applyUnflushed(loaded, articleId, flushingLikes);
+            applyUnflushed(loaded, articleId, pendingLikes);
+            if (epoch == flushEpoch.get()) {
+                return loaded;
+            }
+        }
+    }
+
+    private static void applyUnflushed(LongHashSet users, long articleId, Map<LikeKey, Boolean> likes) {
+        likes.forEach((key, liked) -> {
+            if (key.articleId() == articleId) {
+                if (liked) {
+                    users.add(key.userId());
+                } else {
+                    users.remove(key.userId());
+                }
+            }
+        });
+    }
+
+    /**
+     * 尚未落库的点赞状态，没有未落库变更时返回 null
+     */
+    private Boolean unflushedState(LikeKey key) {
+        Boolean liked = pendingLikes.get(key);
+        return liked != null ? liked : flushingLikes.get(key);
+    }
+
+    private record LikeKey(long articleId, long userId) {
+    }
+}
@@ -3,26 +3,45 @@ package com.example.blog.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.example.blog.config.QueryCountInterceptor;
 import com.example.blog.dto.request.ArticleQueryRequest;
 import com.example.blog.dto.response.ArticleListResponse;
 import com.example.blog.dto.response.ArticleDetailResponse;
+import com.example.blog.dto.response.ArticleVersionResponse;
 import com.example.blog.dto.CreateArticleRequest;
 import com.example.blog.dto.UpdateArticleRequest;
 import com.example.blog.entity.Article;
-import com.example.blog.entity.ArticleLike;
 import com.example.blog.entity.ArticleTag;
 import com.example.blog.entity.Category;
 import com.example.blog.entity.Tag;
 import com.example.blog.entity.User;
 import com.example.blog.enums.ArticleStatus;
 import com.example.blog.exception.BusinessException;
-import com.example.blog.mapper.ArticleLikeMapper;
 import com.example.blog.mapper.ArticleMapper;
 import com.example.blog.mapper.ArticleTagMapper;
 import com.example.blog.mapper.CategoryMapper;
 import com.example.blog.mapper.TagMapper;
 import com.example.blog.mapper.UserMapper;
+import com.example.blog.service.ArticleCatalogService;
+import com.example.blog.service.ArticleCountService;
+import com.example.blog.service.ArticleContentService;
+import com.example.blog.service.ArticleDetailCacheService;
+import com.example.blog.service.ArticleLikeService;
 import com.example.blog.service.ArticleService;
+import com.example.blog.service.ArticleVersionService;
+import com.example.blog.service.CategoryTreeService;
+import com.example.blog.service.MarkdownRenderService;
+import com.example.blog.service.RelatedArticleService;
+import com.example.blog.service.ResponseCacheService;
+import com.example.blog.service.SearchIndexService;
+import com.example.blog.service.StatisticsService;
+import com.example.blog.service.TrendingService;
+import com.example.blog.service.ViewCountService;
+import com.example.blog.util.KeysetCursor;
+import com.example.blog.util.LongHashSet;
+import com.example.blog.util.MarkdownRenderer;
+import com.example.blog.util.SearchTokenizer;
+import com.example.blog.util.SnippetExtractor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -37,12 +56,36 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ArticleServiceImpl implements ArticleService {
 
+    /**
+     * 列表批量装配的SQL预算：作者、分类、文章标签关联、标签各一次
+     */
+    private static final int LIST_HYDRATION_QUERY_BUDGET = 4;
+
+    /**
+     * 检索结果正文片段的最大字符数
+     */
+    private static final int SEARCH_SNIPPET_LENGTH = 120;
+
     private final ArticleMapper articleMapper;
     private final ArticleTagMapper articleTagMapper;
-    private final ArticleLikeMapper articleLikeMapper;
     private final UserMapper userMapper;
     private final CategoryMapper categoryMapper;
     private final TagMapper tagMapper;
+    private final QueryCountInterceptor queryCountInterceptor;
+    private final ViewCountService viewCountService;
+    private final ArticleLikeService articleLikeService;
+    private final ArticleContentService articleContentService;
+    private final ArticleCatalogService articleCatalogService;
+    private final SearchIndexService searchIndexService;
+    private final StatisticsService statisticsService;
+    private final ArticleDetailCacheService articleDetailCacheService;
+    private final MarkdownRenderService markdownRenderService;
+    private final TrendingService trendingService;
+    private final RelatedArticleService relatedArticleService;
+    private final ArticleVersionService articleVersionService;
+    private final ResponseCacheService responseCacheService;
+    private final CategoryTreeService categoryTreeService;
+    private final ArticleCountService articleCountService;
 
     @Override
     public Article getArticleById(Long id) {
@@ -55,8 +98,20 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     public ArticleListResponse getArticleList(ArticleQueryRequest request) {
-        // 构建查询条件
+        // 没有关键词的页码分页直接由内存目录完成过滤、排序和分页
+        boolean hasKeyword = request.getKeyword() != null && !request.getKeyword().trim().isEmpty();
+        if (!hasKeyword && request.getAfter() == null) {
+            return getArticleListFromCatalog(request);
+        }
+
+        // 已发布文章的关键词检索走全文索引，按相关度排序；其余状态仍使用 LIKE 查询
+        if (hasKeyword && request.getAfter() == null && Article.Status.PUBLISHED.getValue().equals(request.getStatus())) {
+            return getArticleListFromSearchIndex(request);
+        }
+
+        // 构建查询条件：列表只需标题和摘要，不查询正文
         QueryWrapper<Article> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(Article.class, field -> !"content".equals(field.getColumn()));
         queryWrapper.eq("deleted", 0);
 
         // 状态过滤
@@ -64,8 +119,11 @@ public class ArticleServiceImpl implements ArticleService {
             queryWrapper.eq("status", request.getStatus());
         }
 
-        // 分类过滤
-        if (request.getCategoryId() != null) {
+        // 分类过滤，包含子分类时按分类树快照展开为整棵子树
+        if (request.getCategoryId() != null && Boolean.TRUE.equals(request.getIncludeSubCategories())) {
+            queryWrapper.in("category_id", Arrays.stream(categoryTreeService.expandCategory(request.getCategoryId()))
+                    .boxed().toList());
+        } else if (request.getCategoryId() != null) {
             queryWrapper.eq("category_id", request.getCategoryId());
         }
 
@@ -77,19 +135,29 @@ public class ArticleServiceImpl implements ArticleService {
         // 关键词搜索
         if (request.getKeyword() != null && !request.getKeyword().trim().isEmpty()) {
             String keyword = request.getKeyword().trim();
-            queryWrapper.and(wrapper -> wrapper
-                .like("title", keyword)
-                .or()
-                .like("content", keyword)
-                .or()
-                .like("summary", keyword)
-            );
+            if (articleContentService.isSplitStorage()) {
+                queryWrapper.and(wrapper -> wrapper
+                    .like("title", keyword)
+                    .or()
+                    .like("summary", keyword)
+                    .or()
+                    .apply("EXISTS (SELECT 1 FROM t_article_content ac WHERE ac.article_id = t_article.id"
+                            + " AND ac.content LIKE CONCAT('%', {0}, '%'))", keyword)
+                );
+            } else {
+                queryWrapper.and(wrapper -> wrapper
+                    .like("title", keyword)
+                    .or()
+                    .like("content", keyword)
+                    .or()
+                    .like("summary", keyword)
+                );
+            }
         }
 
-        // 标签过滤
-        if (request.getTagId() != null) {
-            // 需要通过 article_tag 表关联查询
-            List<Long> articleIds = getArticleIdsByTagId(request.getTagId());
+        // 标签过滤：由内存目录按位图求出匹配的文章ID
+        List<Long> articleIds = articleCatalogService.findArticleIdsByTags(request);
+        if (articleIds != null) {
             if (articleIds.isEmpty()) {
                 // 没有匹配的文章
                 ArticleListResponse response = new ArticleListResponse();
@@ -103,23 +171,22 @@ public class ArticleServiceImpl implements ArticleService {
             queryWrapper.in("id", articleIds);
         }
 
-        // 排序
-        if ("views".equals(request.getSort())) {
-            queryWrapper.orderByDesc("view_count");
-        } else if ("likes".equals(request.getSort())) {
-            queryWrapper.orderByDesc("like_count");
-        } else {
-            queryWrapper.orderByDesc("create_time");
+        // 游标分页：按 (排序列, id) 定位下一页，不执行 COUNT 查询
+        if (request.getAfter() != null) {
+            return getArticleListByCursor(request, queryWrapper);
         }
 
+        // 排序
+        queryWrapper.orderByDesc(resolveSortColumn(request.getSort())).orderByDesc("id");
+
         // 分页查询
         Page<Article> pageParam = new Page<>(request.getPage(), request.getSize());
         IPage<Article> pageResult = articleMapper.selectPage(pageParam, queryWrapper);
 
-        // 转换为响应对象
-        List<ArticleDetailResponse> articleResponses = pageResult.getRecords().stream()
-            .map(this::convertToDetailResponse)
-            .collect(Collectors.toList());
+        // 批量装配作者、分类和标签信息
+        long queryCountBefore = queryCountInterceptor.currentCount();
+        List<ArticleDetailResponse> articleResponses = convertToDetailResponses(pageResult.getRecords());
+        queryCountInterceptor.assertWithinBudget(queryCountBefore, LIST_HYDRATION_QUERY_BUDGET, "文章列表装配");
 
         // 构建响应
         ArticleListResponse response = new ArticleListResponse();
@@ -132,6 +199,75 @@ public class ArticleServiceImpl implements ArticleService {
         return response;
     }
 
+    private ArticleListResponse getArticleListFromCatalog(ArticleQueryRequest request) {
+        ArticleCatalogService.CatalogPage page = articleCatalogService.query(request);
+        List<Article> articles = getArticlesInOrder(page.articleIds());
+
+        long queryCountBefore = queryCountInterceptor.currentCount();
+        List<ArticleDetailResponse> articleResponses = convertToDetailResponses(articles);
+        queryCountInterceptor.assertWithinBudget(queryCountBefore, LIST_HYDRATION_QUERY_BUDGET, "文章列表装配");
+
+        long size = request.getSize();
+        ArticleListResponse response = new ArticleListResponse();
+        response.setArticles(articleResponses);
+        response.setTotal(page.total());
+        response.setCurrent((long) request.getPage());
+        response.setSize(size);
+        response.setPages((page.total() + size - 1) / size);
+        return response;
+    }
+
+    private ArticleListResponse getArticleListFromSearchIndex(ArticleQueryRequest request) {
+        // 索引中只有已发布文章，状态条件无需再过滤，其余条件由内存目录求出候选集合
+        ArticleQueryRequest filterRequest = new ArticleQueryRequest();
+        filterRequest.setCategoryId(request.getCategoryId());
+        filterRequest.setIncludeSubCategories(request.getIncludeSubCategories());
+        filterRequest.setAuthorId(request.getAuthorId());
+        filterRequest.setTagId(request.getTagId());
+        filterRequest.setTagIds(request.getTagIds());
+        filterRequest.setTagMatch(request.getTagMatch());
+        LongHashSet candidates = articleCatalogService.findArticleIds(filterRequest);
+
+        long size = request.getSize();
+        SearchIndexService.SearchHits hits = searchIndexService.search(request.getKeyword().trim(),
+                candidates == null ? null : candidates::contains, (request.getPage() - 1) * size, (int) size);
+        List<Article> articles = getArticlesInOrder(hits.articleIds());
+
+        long queryCountBefore = queryCountInterceptor.currentCount();
+        List<ArticleDetailResponse> articleResponses = convertToDetailResponses(articles);
+        queryCountInterceptor.assertWithinBudget(queryCountBefore, LIST_HYDRATION_QUERY_BUDGET, "文章检索装配");
+        fillSearchSnippets(articleResponses, articles, request.getKeyword());
+
+        ArticleListResponse response = new ArticleListResponse();
+        response.setArticles(articleResponses);
+        response.setTotal(hits.total());
+        response.setCurrent((long) request.getPage());
+        response.setSize(size);
+        response.setPages((hits.total() + size - 1) / size);
+        return response;
+    }
+
+    /**
+     * 为检索结果生成高亮标题和正文片段：整页正文一次查询取回，逐篇单遍扫描后即丢弃，响应中只保留片段
+     */
+    private void fillSearchSnippets(List<ArticleDetailResponse> responses, List<Article> articles, String keyword) {
+        if (responses.isEmpty()) {
+            return;
+        }
+
+        Set<String> terms = SearchTokenizer.queryTerms(keyword);
+        Map<Long, String> contents = articleContentService.loadContents(articles);
+        for (ArticleDetailResponse response : responses) {
+            response.setHighlightedTitle(SnippetExtractor.highlight(response.getTitle(), terms));
+            String snippet = SnippetExtractor.extract(contents.get(response.getId()), terms, SEARCH_SNIPPET_LENGTH);
+            if (snippet == null) {
+                snippet = SnippetExtractor.extract(response.getSummary(), terms, SEARCH_SNIPPET_LENGTH);
+            }
+            response.setSnippet(snippet);
+            response.setContent(null);
+        }
+    }
+
     @Override
     @Transactional
     public Article createArticle(CreateArticleRequest request) {
@@ -144,9 +280,10 @@ public class ArticleServiceImpl implements ArticleService {
         }
 
         // 验证标签是否存在
-        if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
-            List<Tag> tags = tagMapper.selectBatchIds(request.getTagIds());
-            if (tags.size() != request.getTagIds().size()) {
+        List<Long> tagIds = request.getTagIds() == null ? List.of() : distinctTagIds(request.getTagIds());
+        if (!tagIds.isEmpty()) {
+            List<Tag> tags = tagMapper.selectBatchIds(tagIds);
+            if (tags.size() != tagIds.size()) {
                 throw new BusinessException("部分标签不存在");
             }
         }
@@ -165,19 +302,28 @@ public class ArticleServiceImpl implements ArticleService {
         article.setCreateTime(LocalDateTime.now());
         article.setUpdateTime(LocalDateTime.now());
 
-        // 插入文章
+        // 插入文章，分离存储模式下正文写入 t_article_content
+        if (articleContentService.isSplitStorage()) {
+            article.setContent(null);
+        }
         articleMapper.insert(article);
+        articleContentService.saveContent(article.getId(), request.getContent());
+        article.setContent(request.getContent());
+        articleVersionService.recordVersion(article, request.getContent(), "创建文章");
 
-        // 关联标签
-        if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
-            for (Long tagId : request.getTagIds()) {
-                ArticleTag articleTag = new ArticleTag();
-                articleTag.setArticleId(article.getId());
-                articleTag.setTagId(tagId);
-                articleTag.setCreateTime(LocalDateTime.now());
-                articleTagMapper.insert(articleTag);
-            }
+        // 关联标签，分类和标签的文章数在事务提交后累加
+        if (!tagIds.isEmpty()) {
+            articleTagMapper.insertArticleTags(article.getId(), tagIds);
+            articleCountService.addTagCounts(tagIds, 1);
         }
+        articleCountService.addCategoryCount(article.getCategoryId(), 1);
+
+        articleCatalogService.upsert(article, tagIds);
+        searchIndexService.index(article, request.getContent());
+        relatedArticleService.upsert(article, tagIds);
+        responseCacheService.invalidate(ResponseCacheService.Region.ARTICLE_LIST);
+        markdownRenderService.prerender(request.getContent());
+        statisticsService.onArticleCreated(article.getStatus(), article.getCreateTime());
 
         log.info("创建文章成功 - id: {}, title: {}", article.getId(), article.getTitle());
         return article;
@@ -186,80 +332,147 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     @Transactional
     public Article updateArticle(Long id, UpdateArticleRequest request) {
+        return updateArticle(id, request, "更新文章");
+    }
+
+    @Override
+    @Transactional
+    public Article restoreArticleVersion(Long id, int versionNumber) {
+        // 恢复即以历史版本的内容做一次更新，产生新版本而不改写历史
+        ArticleVersionResponse version = articleVersionService.getVersion(id, versionNumber);
+        UpdateArticleRequest request = new UpdateArticleRequest();
+        request.setTitle(version.getTitle());
+        request.setSummary(version.getSummary());
+        request.setContent(version.getContent());
+        return updateArticle(id, request, "恢复到版本 " + versionNumber);
+    }
+
+    private Article updateArticle(Long id, UpdateArticleRequest request, String changeReason) {
         Article article = getArticleById(id);
+        // 只记录与现有值不同的字段，更新语句只写入这些列
+        Article changes = new Article();
+        changes.setId(id);
 
         // 验证分类是否存在
         if (request.getCategoryId() != null && !request.getCategoryId().equals(article.getCategoryId())) {
-            if (request.getCategoryId() != null) {
-                Category category = categoryMapper.selectById(request.getCategoryId());
-                if (category == null || category.getDeleted() == 1) {
-                    throw new BusinessException("分类不存在");
-                }
+            Category category = categoryMapper.selectById(request.getCategoryId());
+            if (category == null || category.getDeleted() == 1) {
+                throw new BusinessException("分类不存在");
             }
+            articleCountService.addCategoryCount(article.getCategoryId(), -1);
+            articleCountService.addCategoryCount(request.getCategoryId(), 1);
             article.setCategoryId(request.getCategoryId());
+            changes.setCategoryId(request.getCategoryId());
         }
 
         // 更新基本信息
-        if (request.getTitle() != null) {
+        if (request.getTitle() != null && !request.getTitle().equals(article.getTitle())) {
             article.setTitle(request.getTitle());
+            changes.setTitle(request.getTitle());
         }
-        if (request.getContent() != null) {
-            article.setContent(request.getContent());
-        }
-        if (request.getSummary() != null) {
+        if (request.getSummary() != null && !request.getSummary().equals(article.getSummary())) {
             article.setSummary(request.getSummary());
+            changes.setSummary(request.getSummary());
+        }
+
+        // 与当前存储中的正文比较（分离存储模式下读取 t_article_content），正文未变时不重写长文本
+        String currentContent = articleContentService.loadContent(article);
+        boolean contentChanged = request.getContent() != null && !request.getContent().equals(currentContent);
+        if (articleContentService.isSplitStorage()) {
+            article.setContent(null);
+        } else if (contentChanged) {
+            article.setContent(request.getContent());
+            changes.setContent(request.getContent());
         }
 
         article.setUpdateTime(LocalDateTime.now());
+        changes.setUpdateTime(article.getUpdateTime());
 
         // 更新文章
-        articleMapper.updateById(article);
-
-        // 更新标签关联
-        if (request.getTagIds() != null) {
-            // 删除原有标签关联
-            QueryWrapper<ArticleTag> deleteWrapper = new QueryWrapper<>();
-            deleteWrapper.eq("article_id", id);
-            articleTagMapper.delete(deleteWrapper);
-
-            // 添加新的标签关联
-            if (!request.getTagIds().isEmpty()) {
-                // 验证标签是否存在
-                List<Tag> tags = tagMapper.selectBatchIds(request.getTagIds());
-                if (tags.size() != request.getTagIds().size()) {
-                    throw new BusinessException("部分标签不存在");
-                }
+        articleMapper.updateArticleFields(changes);
+        if (contentChanged) {
+            articleContentService.saveContent(id, request.getContent());
+            markdownRenderService.prerender(request.getContent());
+        }
+        article.setContent(contentChanged ? request.getContent() : currentContent);
 
-                for (Long tagId : request.getTagIds()) {
-                    ArticleTag articleTag = new ArticleTag();
-                    articleTag.setArticleId(article.getId());
-                    articleTag.setTagId(tagId);
-                    articleTag.setCreateTime(LocalDateTime.now());
-                    articleTagMapper.insert(articleTag);
-                }
-            }
+        // 更新标签关联：只写入与现有关联的差异
+        List<Long> tagIds = request.getTagIds() == null ? null : distinctTagIds(request.getTagIds());
+        if (tagIds != null) {
+            updateArticleTags(id, tagIds);
+        }
+
+        articleVersionService.recordVersion(article, article.getContent(), changeReason);
+
+        articleCatalogService.upsert(article, tagIds);
+        relatedArticleService.upsert(article, tagIds);
+        articleDetailCacheService.invalidate(id);
+        responseCacheService.invalidate();
+        if (article.isPublished()) {
+            searchIndexService.index(article, article.getContent());
         }
 
         log.info("更新文章成功 - id: {}, title: {}", article.getId(), article.getTitle());
         return article;
     }
 
+    /**
+     * 对比现有标签关联，只插入新增、删除移除的关联，并按差异调整标签的文章数
+     */
+    private void updateArticleTags(Long articleId, List<Long> tagIds) {
+        Set<Long> currentTagIds = new HashSet<>(articleTagMapper.selectTagIdsByArticleId(articleId));
+        List<Long> addedTagIds = tagIds.stream()
+                .filter(tagId -> !currentTagIds.contains(tagId))
+                .collect(Collectors.toList());
+        Set<Long> targetTagIds = new HashSet<>(tagIds);
+        List<Long> removedTagIds = currentTagIds.stream()
+                .filter(tagId -> !targetTagIds.contains(tagId))
+                .collect(Collectors.toList());
+
+        if (!addedTagIds.isEmpty()) {
+            // 已关联的标签无需重复校验
+            if (tagMapper.selectBatchIds(addedTagIds).size() != addedTagIds.size()) {
+                throw new BusinessException("部分标签不存在");
+            }
+            articleTagMapper.insertArticleTags(articleId, addedTagIds);
+            articleCountService.addTagCounts(addedTagIds, 1);
+        }
+        if (!removedTagIds.isEmpty()) {
+            articleTagMapper.deleteArticleTags(articleId, removedTagIds);
+            articleCountService.addTagCounts(removedTagIds, -1);
+        }
+    }
+
+    private static List<Long> distinctTagIds(List<Long> tagIds) {
+        return tagIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public boolean deleteArticle(Long id) {
         Article article = getArticleById(id);
 
-        // 软删除：设置为已删除状态
+        // 软删除：只改写删除标记和时间
+        LocalDateTime now = LocalDateTime.now();
         article.setDeleted(1);
-        article.setUpdateTime(LocalDateTime.now());
+        article.setUpdateTime(now);
 
-        int result = articleMapper.updateById(article);
+        int result = articleMapper.markArticleDeleted(id, now);
 
         if (result > 0) {
-            // 删除标签关联
-            QueryWrapper<ArticleTag> deleteWrapper = new QueryWrapper<>();
-            deleteWrapper.eq("article_id", id);
-            articleTagMapper.delete(deleteWrapper);
+            // 删除标签关联，并扣减标签和分类的文章数
+            List<Long> tagIds = articleTagMapper.selectTagIdsByArticleId(id);
+            if (!tagIds.isEmpty()) {
+                articleTagMapper.deleteArticleTagsByArticleId(id);
+                articleCountService.addTagCounts(tagIds, -1);
+            }
+            articleCountService.addCategoryCount(article.getCategoryId(), -1);
+            articleCatalogService.remove(id);
+            searchIndexService.remove(id);
+            relatedArticleService.remove(id);
+            articleDetailCacheService.invalidate(id);
+            responseCacheService.invalidate();
+            statisticsService.onArticleDeleted(article.getStatus(), article.getCreateTime());
 
             log.info("删除文章成功 - id: {}, title: {}", article.getId(), article.getTitle());
         }
@@ -270,13 +483,24 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     public boolean publishArticle(Long id) {
         Article article = getArticleById(id);
+        String oldStatus = article.getStatus();
 
         article.setStatus(ArticleStatus.PUBLISHED.toString());
         article.setUpdateTime(LocalDateTime.now());
 
-        int result = articleMapper.updateById(article);
+        int result = articleMapper.updateArticleStatus(id, article.getStatus(), article.getUpdateTime());
 
         if (result > 0) {
+            // 手动发布或定时发布完成后清除计划，避免取消发布后被逾期计划再次发布
+            if (article.getScheduledPublishTime() != null) {
+                articleMapper.updateScheduledPublishTime(id, null);
+            }
+            articleCatalogService.upsert(article, null);
+            searchIndexService.index(article, articleContentService.loadContent(article));
+            relatedArticleService.upsert(article, null);
+            statisticsService.onArticleStatusChanged(oldStatus, article.getStatus());
+            articleDetailCacheService.invalidate(id);
+            responseCacheService.invalidate();
             log.info("发布文章成功 - id: {}, title: {}", article.getId(), article.getTitle());
         }
 
@@ -286,13 +510,20 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     public boolean unpublishArticle(Long id) {
         Article article = getArticleById(id);
+        String oldStatus = article.getStatus();
 
         article.setStatus(ArticleStatus.DRAFT.toString());
         article.setUpdateTime(LocalDateTime.now());
 
-        int result = articleMapper.updateById(article);
+        int result = articleMapper.updateArticleStatus(id, article.getStatus(), article.getUpdateTime());
 
         if (result > 0) {
+            articleCatalogService.upsert(article, null);
+            searchIndexService.remove(id);
+            relatedArticleService.remove(id);
+            statisticsService.onArticleStatusChanged(oldStatus, article.getStatus());
+            articleDetailCacheService.invalidate(id);
+            responseCacheService.invalidate();
             log.info("取消发布文章成功 - id: {}, title: {}", article.getId(), article.getTitle());
         }
 
@@ -301,138 +532,287 @@ public class ArticleServiceImpl implements ArticleService {
 
     @Override
     public ArticleDetailResponse getArticleDetail(Long id) {
-        Article article = getArticleById(id);
-
-        // 增加浏览次数
-        article.setViewCount(article.getViewCount() + 1);
-        articleMapper.updateById(article);
+        ArticleDetailResponse response = articleDetailCacheService.get(id, this::loadArticleDetail);
+
+        // 增加浏览次数：先计入内存缓冲区，由后台任务批量落库
+        viewCountService.recordView(id);
+
+        // 缓存中的计数只是加载时的快照，响应时从文章目录读取已落库的计数，再叠加尚未落库的增量
+        Long persistedViews = articleCatalogService.getViewCount(id);
+        Long persistedLikes = articleCatalogService.getLikeCount(id);
+        long views = persistedViews != null ? persistedViews : response.getViewCount();
+        long likes = persistedLikes != null ? persistedLikes : response.getLikeCount();
+        response.setViewCount(views + viewCountService.getPendingViews(id));
+        response.setLikeCount(Math.max(0L, likes + articleLikeService.getPendingLikeDelta(id)));
+
+        // 渲染结果按正文哈希缓存在堆外，不随详情缓存占用堆内存
+        MarkdownRenderer.Rendered rendered = markdownRenderService.render(response.getContent());
+        response.setRenderedHtml(rendered.html());
+        response.setToc(rendered.toc());
+        return response;
+    }
 
-        return convertToDetailResponse(article);
+    /**
+     * 从数据库装配文章详情，计数只保留已落库的部分
+     */
+    private ArticleDetailResponse loadArticleDetail(Long id) {
+        Article article = getArticleById(id);
+        ArticleDetailResponse response = convertToDetailResponse(article);
+        response.setContent(articleContentService.loadContent(article));
+        response.setViewCount(article.getViewCount() == null ? 0L : article.getViewCount());
+        response.setLikeCount(article.getLikeCount() == null ? 0L : article.getLikeCount());
+        return response;
     }
 
     @Override
-    @Transactional
     public boolean likeArticle(Long articleId, Long userId) {
-        Article article = getArticleById(articleId);
-
-        // 检查是否已点赞
-        QueryWrapper<ArticleLike> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("article_id", articleId).eq("user_id", userId);
-        ArticleLike existingLike = articleLikeMapper.selectOne(queryWrapper);
-
-        if (existingLike != null) {
-            // 取消点赞
-            articleLikeMapper.deleteById(existingLike.getId());
-            article.setLikeCount(Math.max(0, article.getLikeCount() - 1));
-        } else {
-            // 点赞
-            ArticleLike articleLike = new ArticleLike();
-            articleLike.setArticleId(articleId);
-            articleLike.setUserId(userId);
-            articleLike.setCreatedAt(LocalDateTime.now());
-            articleLikeMapper.insert(articleLike);
-            article.setLikeCount(article.getLikeCount() + 1);
-        }
+        getArticleById(articleId);
 
-        article.setUpdateTime(LocalDateTime.now());
-        articleMapper.updateById(article);
-
-        return existingLike == null; // 返回是否是点赞操作
+        // 点赞状态在内存中切换，点赞记录和点赞数由后台批量落库
+        return articleLikeService.toggleLike(articleId, userId);
     }
 
     @Override
     public Map<String, Object> getArticleStatistics() {
-        Map<String, Object> statistics = new HashMap<>();
+        // 由内存计数器直接返回，计数在写操作时增量维护并定期与数据库对账
+        return statisticsService.getArticleStatistics();
+    }
 
-        QueryWrapper<Article> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("deleted", 0);
+    @Override
+    public List<ArticleDetailResponse> getTrendingArticles(TrendingService.Window window, int limit) {
+        // 排名直接从内存候选集合读取，只有当前页文章回表装配
+        List<TrendingService.TrendingArticle> trending = trendingService.getTrending(window, limit);
+        List<Article> articles = getArticlesInOrder(trending.stream()
+                .map(TrendingService.TrendingArticle::articleId)
+                .collect(Collectors.toList()));
+
+        long queryCountBefore = queryCountInterceptor.currentCount();
+        List<ArticleDetailResponse> responses = convertToDetailResponses(articles);
+        queryCountInterceptor.assertWithinBudget(queryCountBefore, LIST_HYDRATION_QUERY_BUDGET, "热门文章装配");
+
+        Map<Long, Double> scores = trending.stream().collect(Collectors.toMap(
+                TrendingService.TrendingArticle::articleId, TrendingService.TrendingArticle::score));
+        responses.forEach(response -> response.setTrendingScore(scores.get(response.getId())));
+        return responses;
+    }
 
-        Long totalArticles = articleMapper.selectCount(queryWrapper);
-        statistics.put("totalArticles", totalArticles);
-
-        // 按状态统计
-        QueryWrapper<Article> publishedWrapper = new QueryWrapper<>();
-        publishedWrapper.eq("deleted", 0).eq("status", "PUBLISHED");
-        Long publishedCount = articleMapper.selectCount(publishedWrapper);
-        statistics.put("publishedCount", publishedCount);
-
-        QueryWrapper<Article> draftWrapper = new QueryWrapper<>();
-        draftWrapper.eq("deleted", 0).eq("status", "DRAFT");
-        Long draftCount = articleMapper.selectCount(draftWrapper);
-        statistics.put("draftCount", draftCount);
-
-        // 最近创建文章数量（最近7天）
-        LocalDateTime sevenDaysAgo = LocalDateTime.now().minusDays(7);
-        QueryWrapper<Article> recentWrapper = new QueryWrapper<>();
-        recentWrapper.eq("deleted", 0)
-                    .ge("create_time", sevenDaysAgo);
-        Long recentArticleCount = articleMapper.selectCount(recentWrapper);
-        statistics.put("recentArticleCount", recentArticleCount);
-
-        return statistics;
+    @Override
+    public List<ArticleDetailResponse> getRelatedArticles(Long id, int limit) {
+        // 相邻列表由后台预先计算，这里只按ID回表装配
+        List<Article> articles = getArticlesInOrder(relatedArticleService.getRelatedArticleIds(id, limit));
+
+        long queryCountBefore = queryCountInterceptor.currentCount();
+        List<ArticleDetailResponse> responses = convertToDetailResponses(articles);
+        queryCountInterceptor.assertWithinBudget(queryCountBefore, LIST_HYDRATION_QUERY_BUDGET, "相关文章装配");
+        return responses;
     }
 
     private ArticleDetailResponse convertToDetailResponse(Article article) {
-        ArticleDetailResponse response = new ArticleDetailResponse();
-        response.setId(article.getId());
-        response.setTitle(article.getTitle());
-        response.setContent(article.getContent());
-        response.setSummary(article.getSummary());
-        response.setAuthorId(article.getAuthorId());
-        response.setCategoryId(article.getCategoryId());
-        response.setStatus(article.getStatus());
-        response.setViewCount(article.getViewCount());
-        response.setLikeCount(article.getLikeCount());
-        response.setCommentCount(article.getCommentCount());
-        response.setCreatedAt(article.getCreatedAt());
-        response.setUpdatedAt(article.getUpdatedAt());
+        return convertToDetailResponses(Collections.singletonList(article)).get(0);
+    }
+
+    /**
+     * 批量转换为响应对象
+     * 先收集整页文章的作者、分类、标签ID并去重，每类实体只查询一次，再在内存中拼装
+     */
+    private List<ArticleDetailResponse> convertToDetailResponses(List<Article> articles) {
+        if (articles.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> articleIds = new LinkedHashSet<>();
+        Set<Long> authorIds = new LinkedHashSet<>();
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        for (Article article : articles) {
+            articleIds.add(article.getId());
+            if (article.getAuthorId() != null) {
+                authorIds.add(article.getAuthorId());
+            }
+            if (article.getCategoryId() != null) {
+                categoryIds.add(article.getCategoryId());
+            }
+        }
 
         // 获取作者信息
-        if (article.getAuthorId() != null) {
-            User author = userMapper.selectById(article.getAuthorId());
-            if (author != null && author.getDeleted() == 0) {
-                response.setAuthorName(author.getUsername());
-                response.setAuthorAvatar(author.getAvatar());
+        Map<Long, User> authorMap = new HashMap<>();
+        if (!authorIds.isEmpty()) {
+            for (User author : userMapper.selectBatchIds(authorIds)) {
+                if (author.getDeleted() == null || author.getDeleted() == 0) {
+                    authorMap.put(author.getId(), author);
+                }
             }
         }
 
         // 获取分类信息
-        if (article.getCategoryId() != null) {
-            Category category = categoryMapper.selectById(article.getCategoryId());
-            if (category != null && category.getDeleted() == 0) {
-                response.setCategoryName(category.getName());
+        Map<Long, Category> categoryMap = new HashMap<>();
+        if (!categoryIds.isEmpty()) {
+            for (Category category : categoryMapper.selectBatchIds(categoryIds)) {
+                if (category.getDeleted() == null || category.getDeleted() == 0) {
+                    categoryMap.put(category.getId(), category);
+                }
             }
         }
 
         // 获取标签信息
-        List<Tag> tags = getTagsByArticleId(article.getId());
-        response.setTags(tags);
+        Map<Long, List<Tag>> tagsByArticleId = getTagsByArticleIds(articleIds);
+
+        List<ArticleDetailResponse> responses = new ArrayList<>(articles.size());
+        for (Article article : articles) {
+            ArticleDetailResponse response = new ArticleDetailResponse();
+            response.setId(article.getId());
+            response.setTitle(article.getTitle());
+            response.setContent(article.getContent());
+            response.setSummary(article.getSummary());
+            response.setAuthorId(article.getAuthorId());
+            response.setCategoryId(article.getCategoryId());
+            response.setStatus(article.getStatus());
+            // 浏览次数 = 已落库的值 + 缓冲区中尚未落库的增量
+            long persistedViews = article.getViewCount() == null ? 0L : article.getViewCount();
+            response.setViewCount(persistedViews + viewCountService.getPendingViews(article.getId()));
+            long persistedLikes = article.getLikeCount() == null ? 0L : article.getLikeCount();
+            response.setLikeCount(Math.max(0L, persistedLikes + articleLikeService.getPendingLikeDelta(article.getId())));
+            response.setCommentCount(article.getCommentCount());
+            response.setCreatedAt(article.getCreatedAt());
+            response.setUpdatedAt(article.getUpdatedAt());
+
+            User author = authorMap.get(article.getAuthorId());
+            if (author != null) {
+                response.setAuthorName(author.getUsername());
+                response.setAuthorAvatar(author.getAvatar());
+            }
+
+            Category category = categoryMap.get(article.getCategoryId());
+            if (category != null) {
+                response.setCategoryName(category.getName());
+            }
 
+            response.setTags(tagsByArticleId.getOrDefault(article.getId(), new ArrayList<>()));
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    /**
+     * 游标分页查询
+     * 条件为 (排序列 < 上一页末尾值) 或 (排序列 = 末尾值 且 id < 末尾id)，配合 (status, 排序列, id) 组合索引，任意深度都是常数时间
+     */
+    private ArticleListResponse getArticleListByCursor(ArticleQueryRequest request, QueryWrapper<Article> queryWrapper) {
+        String sortColumn = resolveSortColumn(request.getSort());
+        int size = request.getSize() == null || request.getSize() <= 0 ? 10 : request.getSize();
+
+        if (!request.getAfter().isEmpty()) {
+            KeysetCursor cursor = KeysetCursor.decode(request.getAfter());
+            if (!sortColumn.equals(cursor.sort())) {
+                throw new BusinessException("分页游标与排序方式不匹配");
+            }
+            Object lastValue = parseCursorValue(sortColumn, cursor.value());
+            queryWrapper.and(wrapper -> wrapper
+                .lt(sortColumn, lastValue)
+                .or(inner -> inner.eq(sortColumn, lastValue).lt("id", cursor.id()))
+            );
+        }
+
+        // 多取一条用于判断是否还有下一页
+        queryWrapper.orderByDesc(sortColumn).orderByDesc("id");
+        queryWrapper.last("LIMIT " + (size + 1));
+        List<Article> articles = articleMapper.selectList(queryWrapper);
+
+        boolean hasMore = articles.size() > size;
+        if (hasMore) {
+            articles = articles.subList(0, size);
+        }
+
+        long queryCountBefore = queryCountInterceptor.currentCount();
+        List<ArticleDetailResponse> articleResponses = convertToDetailResponses(articles);
+        queryCountInterceptor.assertWithinBudget(queryCountBefore, LIST_HYDRATION_QUERY_BUDGET, "文章列表装配");
+
+        ArticleListResponse response = new ArticleListResponse();
+        response.setArticles(articleResponses);
+        response.setSize((long) size);
+        response.setHasMore(hasMore);
+        if (hasMore) {
+            Article last = articles.get(articles.size() - 1);
+            response.setNextCursor(new KeysetCursor(sortColumn, getSortValue(sortColumn, last), last.getId()).encode());
+        }
+        // 游标模式不统计总数
+        response.setTotal(null);
+        response.setCurrent(null);
+        response.setPages(null);
         return response;
     }
 
-    private List<Long> getArticleIdsByTagId(Long tagId) {
-        QueryWrapper<ArticleTag> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("tag_id", tagId);
-        List<ArticleTag> articleTags = articleTagMapper.selectList(queryWrapper);
-        return articleTags.stream()
-                .map(ArticleTag::getArticleId)
-                .collect(Collectors.toList());
+    private String resolveSortColumn(String sort) {
+        if ("views".equals(sort)) {
+            return "view_count";
+        } else if ("likes".equals(sort)) {
+            return "like_count";
+        }
+        return "create_time";
     }
 
-    private List<Tag> getTagsByArticleId(Long articleId) {
-        QueryWrapper<ArticleTag> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("article_id", articleId);
-        List<ArticleTag> articleTags = articleTagMapper.selectList(queryWrapper);
+    private String getSortValue(String sortColumn, Article article) {
+        // 计数列在表中为 NOT NULL DEFAULT 0，实体中为空时按 0 处理，避免游标中出现 "null"
+        switch (sortColumn) {
+            case "view_count":
+                return String.valueOf(article.getViewCount() == null ? 0L : article.getViewCount());
+            case "like_count":
+                return String.valueOf(article.getLikeCount() == null ? 0L : article.getLikeCount());
+            default:
+                return article.getCreateTime().toString();
+        }
+    }
 
-        if (articleTags.isEmpty()) {
+    private Object parseCursorValue(String sortColumn, String value) {
+        try {
+            return "create_time".equals(sortColumn) ? LocalDateTime.parse(value) : Long.valueOf(value);
+        } catch (RuntimeException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+
+    /**
+     * 按目录给出的ID顺序加载文章（不含正文），期间被删除的文章直接跳过
+     */
+    private List<Article> getArticlesInOrder(List<Long> articleIds) {
+        if (articleIds.isEmpty()) {
             return new ArrayList<>();
         }
 
-        List<Long> tagIds = articleTags.stream()
-                .map(ArticleTag::getTagId)
-                .collect(Collectors.toList());
+        QueryWrapper<Article> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(Article.class, field -> !"content".equals(field.getColumn()));
+        queryWrapper.eq("deleted", 0).in("id", articleIds);
+        Map<Long, Article> articleMap = articleMapper.selectList(queryWrapper).stream()
+                .collect(Collectors.toMap(Article::getId, article -> article));
+
+        List<Article> articles = new ArrayList<>(articleIds.size());
+        for (Long articleId : articleIds) {
+            Article article = articleMap.get(articleId);
+            if (article != null) {
+                articles.add(article);
+            }
+        }
+        return articles;
+    }
+
+    private Map<Long, List<Tag>> getTagsByArticleIds(Collection<Long> articleIds) {
+        List<ArticleTag> articleTags = articleTagMapper.selectArticleTagsByArticleIds(articleIds);
+        if (articleTags.isEmpty()) {
+            return new HashMap<>();
+        }
 
-        return tagMapper.selectBatchIds(tagIds);
+        Set<Long> tagIds = articleTags.stream()
+                .map(ArticleTag::getTagId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Tag> tagMap = tagMapper.selectBatchIds(tagIds).stream()
+                .collect(Collectors.toMap(Tag::getId, tag -> tag, (a, b) -> a));
+
+        Map<Long, List<Tag>> result = new HashMap<>();
+        for (ArticleTag articleTag : articleTags) {
+            Tag tag = tagMap.get(articleTag.getTagId());
+            if (tag != null) {
+                result.computeIfAbsent(articleTag.getArticleId(), k -> new ArrayList<>()).add(tag);
+            }
+        }
+        return result;
     }
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.blog.dto.response.ArticleVersionDiffResponse;
+import com.example.blog.dto.response.ArticleVersionResponse;
+import com.example.blog.entity.Article;
+import com.example.blog.entity.ArticleVersion;
+import com.example.blog.exception.BusinessException;
+import com.example.blog.mapper.ArticleVersionMapper;
+import com.example.blog.service.ArticleVersionService;
+import com.example.blog.util.LineDelta;
+import com.example.blog.util.LineDiff;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 文章版本历史服务实现
+ * 新版本与上一版本做行级差异：距离最近关键帧的增量数达到上限，或增量超过正文一半大小时改存关键帧。
+ * 还原时一次查询读取目标版本之前最近的关键帧窗口，从关键帧开始依次应用增量
+ */
+@Slf4j
+@Service
+public class ArticleVersionServiceImpl implements ArticleVersionService {
+
+    /**
+     * 差异片段保留的上下文行数
+     */
+    private static final int DIFF_CONTEXT_LINES = 3;
+
+    private static final String[] SUMMARY_COLUMNS = {"id", "article_id", "version_number", "title", "summary",
+            "cover_image", "change_reason", "editor_id", "storage_type", "content_length", "create_time"};
+
+    private final ArticleVersionMapper articleVersionMapper;
+    private final int keyframeInterval;
+
+    public ArticleVersionServiceImpl(ArticleVersionMapper articleVersionMapper,
+                                     @Value("${blog.article.version.keyframe-interval:10}") int keyframeInterval) {
+        this.articleVersionMapper = articleVersionMapper;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    @Override
+    public void recordVersion(Article article, String content, String changeReason) {
+        String currentContent = content == null ? "" : content;
+
+        QueryWrapper<ArticleVersion> latestWrapper = new QueryWrapper<>();
+        latestWrapper.select(SUMMARY_COLUMNS)
+                .eq("article_id", article.getId())
+                .orderByDesc("version_number")
+                .last("LIMIT 1");
+        ArticleVersion latest = articleVersionMapper.selectOne(latestWrapper);
+
+        ArticleVersion version = new ArticleVersion();
+        version.setArticleId(article.getId());
+        version.setTitle(article.getTitle());
+        version.setSummary(article.getSummary());
+        version.setCoverImage(article.getCoverImage());
+        version.setChangeReason(changeReason);
+        version.setEditorId(article.getAuthorId());
+        version.setContentLength(currentContent.length());
+
+        if (latest == null) {
+            version.setVersionNumber(1);
+            storeKeyframe(version, currentContent);
+        } else {
+            List<ArticleVersion> chain = loadChain(article.getId(), latest.getVersionNumber());
+            String previousContent = replay(chain);
+            if (previousContent.equals(currentContent)
+                    && Objects.equals(latest.getTitle(), article.getTitle())
+                    && Objects.equals(latest.getSummary(), article.getSummary())) {
+                return;
+            }
+
+            version.setVersionNumber(latest.getVersionNumber() + 1);
+            // 链上已有的增量数为 chain.size() - 1，再加一个达到上限时改存关键帧
+            if (chain.size() >= keyframeInterval) {
+                storeKeyframe(version, currentContent);
+            } else {
+                byte[] delta = LineDelta.encode(LineDiff.splitLines(previousContent), LineDiff.splitLines(currentContent));
+                if ((long) delta.length * 2 >= currentContent.getBytes(StandardCharsets.UTF_8).length) {
+                    // 改动接近全文重写，增量不比全文小多少，直接存关键帧以缩短后续的回放链
+                    storeKeyframe(version, currentContent);
+                } else {
+                    version.setStorageType(ArticleVersion.STORAGE_DELTA);
+                    version.setDelta(delta);
+                }
+            }
+        }
+
+        articleVersionMapper.insert(version);
+        log.debug("记录文章版本 - articleId: {}, version: {}, 存储方式: {}, 存储字节数: {}", article.getId(),
+                version.getVersionNumber(), version.getStorageType(), storedBytes(version));
+    }
+
+    @Override
+    public List<ArticleVersionResponse> listVersions(Long articleId) {
+        QueryWrapper<ArticleVersion> wrapper = new QueryWrapper<>();
+        wrapper.select(SUMMARY_COLUMNS)
+                .eq("article_id", articleId)
+                .orderByDesc("version_number");
+        return articleVersionMapper.selectList(wrapper).stream()
+                .map(version -> toResponse(version, null))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ArticleVersionResponse getVersion(Long articleId, int versionNumber) {
+        List<ArticleVersion> chain = loadChain(articleId, versionNumber);
+        ArticleVersion target = chain.get(chain.size() - 1);
+        ArticleVersionResponse response = toResponse(target, replay(chain));
+        response.setStoredBytes(storedBytes(target));
+        return response;
+    }
+
+    @Override
+    public ArticleVersionDiffResponse diff(Long articleId, int fromVersion, int toVersion) {
+        ArticleVersionResponse from = getVersion(articleId, fromVersion);
+        ArticleVersionResponse to = getVersion(articleId, toVersion);
+
+        List<LineDiff.Hunk> hunks = LineDiff.hunks(LineDiff.splitLines(from.getContent()),
+                LineDiff.splitLines(to.getContent()), DIFF_CONTEXT_LINES);
+        int added = 0;
+        int removed = 0;
+        for (LineDiff.Hunk hunk : hunks) {
+            for (String line : hunk.lines()) {
+                if (line.startsWith("+")) {
+                    added++;
+                } else if (line.startsWith("-")) {
+                    removed++;
+                }
+            }
+        }
+
+        ArticleVersionDiffResponse response = new ArticleVersionDiffResponse();
+        response.setArticleId(articleId);
+        response.setFromVersion(fromVersion);
+        response.setToVersion(toVersion);
+        response.setFromTitle(from.getTitle());
+        response.setToTitle(to.getTitle());
+        response.setAddedLines(added);
+        response.setRemovedLines(removed);
+        response.setHunks(hunks);
+        return response;
+    }
+
+    /**
+     * 读取从最近的关键帧到目标版本的版本链，按版本号升序排列，第一个元素为关键帧
+     */
+    private List<ArticleVersion> loadChain(Long articleId, int versionNumber) {
+        // 关键帧间隔不变时关键帧一定落在最近的 keyframeInterval 个版本内，一次查询即可
+        List<ArticleVersion> window = selectRange(articleId, Math.max(1, versionNumber - keyframeInterval + 1), versionNumber);
+        if (window.isEmpty() || !window.get(window.size() - 1).getVersionNumber().equals(versionNumber)) {
+            throw new BusinessException("版本不存在");
+        }
+        for (int i = window.size() - 1; i >= 0; i--) {
+            if (window.get(i).isKeyframe()) {
+                return window.subList(i, window.size());
+            }
+        }
+
+        // 关键帧间隔调大后旧数据的链可能更长，先定位关键帧再读取整条链
+        QueryWrapper<ArticleVersion> keyframeWrapper = new QueryWrapper<>();
+        keyframeWrapper.select("version_number")
+                .eq("article_id", articleId)
+                .eq("storage_type", ArticleVersion.STORAGE_FULL)
+                .le("version_number", versionNumber)
+                .orderByDesc("version_number")
+                .last("LIMIT 1");
+        ArticleVersion keyframe = articleVersionMapper.selectOne(keyframeWrapper);
+        if (keyframe == null) {
+            throw new IllegalStateException("版本链缺少关键帧 - articleId: " + articleId + ", version: " + versionNumber);
+        }
+        return selectRange(articleId, keyframe.getVersionNumber(), versionNumber);
+    }
+
+    private List<ArticleVersion> selectRange(Long articleId, int fromVersion, int toVersion) {
+        QueryWrapper<ArticleVersion> wrapper = new QueryWrapper<>();
+        wrapper.eq("article_id", articleId)
+                .between("version_number", fromVersion, toVersion)
+                .orderByAsc("version_number");
+        return articleVersionMapper.selectList(wrapper);
+    }
+
+    private static String replay(List<ArticleVersion> chain) {
+        String content = chain.get(0).getContent() == null ? "" : chain.get(0).getContent();
+        for (int i = 1; i < chain.size(); i++) {
+            ArticleVersion version = chain.get(i);
+            content = version.isKeyframe()
+                    ? (version.getContent() == null ? "" : version.getContent())
+                    : LineDelta.apply(LineDiff.splitLines(content), version.getDelta());
+        }
+        return content;
+    }
+
+    private static void storeKeyframe(ArticleVersion version, String content) {
+        version.setStorageType(ArticleVersion.STORAGE_FULL);
+        version.setContent(content);
+    }
+
+    private static int storedBytes(ArticleVersion version) {
+        if (version.isKeyframe()) {
+            return version.getContent() == null ? 0 : version.getContent().getBytes(StandardCharsets.UTF_8).length;
+        }
+        return version.getDelta() == null ? 0 : version.getDelta().length;
+    }
+
+    private static ArticleVersionResponse toResponse(ArticleVersion version, String content) {
+        ArticleVersionResponse response = new ArticleVersionResponse();
+        response.setId(version.getId());
+        response.setArticleId(version.getArticleId());
+        response.setVersionNumber(version.getVersionNumber());
+        response.setTitle(version.getTitle());
+        response.setContent(content);
+        response.setSummary(version.getSummary());
+        response.setCoverImage(version.getCoverImage());
+        response.setChangeReason(version.getChangeReason());
+        response.setEditorId(version.getEditorId());
+        response.setStorageType(version.getStorageType());
+        response.setContentLength(version.getContentLength());
+        response.setCreateTime(version.getCreateTime());
+        return response;
+    }
+}
@@ -2,25 +2,48 @@ package com.example.blog.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.example.blog.dto.CategoryDTO;
+import com.example.blog.dto.CategoryReorderRequest;
 import com.example.blog.entity.Category;
 import com.example.blog.mapper.CategoryMapper;
+import com.example.blog.service.ArticleCountService;
+import com.example.blog.service.ArticleDetailCacheService;
+import com.example.blog.service.CategoryTreeService;
+import com.example.blog.service.ResponseCacheService;
 import com.example.blog.service.CategoryService;
+import com.example.blog.util.CategoryTree;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * 分类服务实现类
+ * 列表和树形查询读取内存中的分类树快照，写操作在事务提交后使快照过期
  */
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
 
+    /**
+     * 批量更新排序时每条 CASE 语句包含的最大行数
+     */
+    private static final int POSITION_BATCH_SIZE = 500;
+
     private final CategoryMapper categoryMapper;
+    private final ArticleDetailCacheService articleDetailCacheService;
+    private final ResponseCacheService responseCacheService;
+    private final CategoryTreeService categoryTreeService;
+    private final ArticleCountService articleCountService;
 
     @Override
     @Transactional
@@ -30,15 +53,19 @@ public class CategoryServiceImpl implements CategoryService {
             throw new RuntimeException("分类名称已存在");
         }
 
+        // 检查父分类是否存在、层级是否超限
+        categoryTreeService.checkParent(null, category.getParentId());
+
         // 设置默认值
         if (category.getSortOrder() == null) {
-            category.setSortOrder(getMaxSortOrder(category.getParentId()) + 1);
+            category.setSortOrder(categoryTreeService.nextSortOrder(category.getParentId()));
         }
         if (category.getArticleCount() == null) {
             category.setArticleCount(0);
         }
 
         categoryMapper.insert(category);
+        categoryTreeService.invalidate();
         return category;
     }
 
@@ -55,20 +82,39 @@ public class CategoryServiceImpl implements CategoryService {
             throw new RuntimeException("分类名称已存在");
         }
 
-        // 防止将分类设置为自己的子分类
-        if (category.getParentId() != null && category.getParentId().equals(id)) {
-            throw new RuntimeException("不能将分类设置为自己的子分类");
-        }
-
-        // 检查是否会形成循环引用
-        if (category.getParentId() != null && wouldCreateCycle(id, category.getParentId())) {
-            throw new RuntimeException("不能设置该父分类，会形成循环引用");
+        // 检查父分类是否会形成循环引用或超出层级上限
+        if (category.getParentId() != null && !category.getParentId().equals(existingCategory.getParentId())) {
+            categoryTreeService.checkParent(id, category.getParentId());
         }
 
         // 更新分类信息
         category.setId(id);
         categoryMapper.updateById(category);
+        categoryTreeService.invalidate();
+        articleDetailCacheService.invalidateByCategory(id);
+        responseCacheService.invalidate();
+
+        return getCategoryById(id);
+    }
+
+    @Override
+    @Transactional
+    public Category moveCategory(Long id, Long parentId) {
+        Category category = getCategoryById(id);
+        if (category == null) {
+            throw new RuntimeException("分类不存在");
+        }
 
+        Long targetParentId = parentId == null || parentId == 0 ? null : parentId;
+        categoryTreeService.checkParent(id, targetParentId);
+        if (!Objects.equals(targetParentId, category.isRootCategory() ? null : category.getParentId())) {
+            // 排在新父分类下的最后
+            categoryMapper.moveCategory(id, targetParentId, categoryTreeService.nextSortOrder(targetParentId),
+                    LocalDateTime.now());
+            categoryTreeService.invalidate();
+            articleDetailCacheService.invalidateByCategory(id);
+            responseCacheService.invalidate();
+        }
         return getCategoryById(id);
     }
 
@@ -80,8 +126,8 @@ public class CategoryServiceImpl implements CategoryService {
             return false;
         }
 
-        // 检查是否有文章
-        if (category.getArticleCount() > 0) {
+        // 检查是否有文章，计入尚未写回的增量
+        if (category.getArticleCount() + articleCountService.getPendingCategoryCount(id) > 0) {
             throw new RuntimeException("该分类下还有文章，不能删除");
         }
 
@@ -92,6 +138,9 @@ public class CategoryServiceImpl implements CategoryService {
         categoryMapper.update(null, updateWrapper);
 
         // 删除分类
+        categoryTreeService.invalidate();
+        articleDetailCacheService.invalidateByCategory(id);
+        responseCacheService.invalidate();
         return categoryMapper.deleteById(id) > 0;
     }
 
@@ -102,48 +151,65 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public List<Category> getAllCategories() {
-        QueryWrapper<Category> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("deleted", 0).orderByAsc("sort_order").orderByAsc("id");
-        return categoryMapper.selectList(queryWrapper);
+        return categoryTreeService.getSnapshot().all();
     }
 
     @Override
-    public List<Category> getCategoryTree() {
-        List<Category> allCategories = getAllCategories();
-        return buildCategoryTree(allCategories);
+    public List<CategoryDTO> getCategoryTree() {
+        return buildCategoryTree(categoryTreeService.getSnapshot());
     }
 
     @Override
     public List<Category> getRootCategories() {
-        QueryWrapper<Category> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("deleted", 0)
-                   .and(wrapper -> wrapper.isNull("parent_id").or().eq("parent_id", 0))
-                   .orderByAsc("sort_order").orderByAsc("id");
-        return categoryMapper.selectList(queryWrapper);
+        return categoryTreeService.getSnapshot().roots();
     }
 
     @Override
     public List<Category> getChildCategories(Long parentId) {
-        QueryWrapper<Category> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("deleted", 0).eq("parent_id", parentId)
-                   .orderByAsc("sort_order").orderByAsc("id");
-        return categoryMapper.selectList(queryWrapper);
+        if (parentId != null && parentId == 0) {
+            return getRootCategories();
+        }
+        return categoryTreeService.getSnapshot().children(parentId);
     }
 
     @Override
     @Transactional
     public boolean updateCategorySort(List<Category> categories) {
+        List<Category> positions = new ArrayList<>(categories.size());
         for (int i = 0; i < categories.size(); i++) {
-            Category category = categories.get(i);
-            UpdateWrapper<Category> updateWrapper = new UpdateWrapper<>();
-            updateWrapper.eq("id", category.getId())
-                         .set("sort_order", i + 1)
-                         .set("parent_id", category.getParentId());
-            categoryMapper.update(null, updateWrapper);
+            positions.add(position(categories.get(i).getId(), categories.get(i).getParentId(), i + 1));
         }
+        applyPositions(positions);
         return true;
     }
 
+    @Override
+    @Transactional
+    public int reorderCategories(List<CategoryReorderRequest.Item> ordering) {
+        CategoryTree tree = categoryTreeService.getSnapshot();
+        Set<Long> ids = new HashSet<>(ordering.size() * 2);
+        for (CategoryReorderRequest.Item item : ordering) {
+            if (!tree.contains(item.getId())) {
+                throw new RuntimeException("分类不存在: " + item.getId());
+            }
+            if (!ids.add(item.getId())) {
+                throw new RuntimeException("分类重复: " + item.getId());
+            }
+        }
+        if (ids.size() != tree.size()) {
+            throw new RuntimeException("重排列表必须包含全部分类");
+        }
+
+        // 同一父分类下的排序值按出现顺序从 1 开始编号
+        Map<Long, Integer> nextSortOrder = new HashMap<>();
+        List<Category> positions = new ArrayList<>(ordering.size());
+        for (CategoryReorderRequest.Item item : ordering) {
+            Long parentId = item.getParentId() == null || item.getParentId() == 0 ? null : item.getParentId();
+            positions.add(position(item.getId(), parentId, nextSortOrder.merge(parentId, 1, Integer::sum)));
+        }
+        return applyPositions(positions);
+    }
+
     @Override
     public boolean existsByName(String name) {
         QueryWrapper<Category> queryWrapper = new QueryWrapper<>();
@@ -159,105 +225,76 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Transactional
     public void incrementArticleCount(Long categoryId) {
-        Category category = categoryMapper.selectById(categoryId);
-        if (category != null) {
-            category.setArticleCount((category.getArticleCount() == null ? 0 : category.getArticleCount()) + 1);
-            categoryMapper.updateById(category);
-        }
+        articleCountService.addCategoryCount(categoryId, 1);
     }
 
     @Override
-    @Transactional
     public void decrementArticleCount(Long categoryId) {
-        Category category = categoryMapper.selectById(categoryId);
-        if (category != null && category.getArticleCount() != null && category.getArticleCount() > 0) {
-            category.setArticleCount(category.getArticleCount() - 1);
-            categoryMapper.updateById(category);
-        }
+        articleCountService.addCategoryCount(categoryId, -1);
     }
 
     /**
-     * 构建分类树
+     * 把新的父分类和排序值叠加到当前快照上，校验整体层级后只写入有变化的行，
+     * 变化的行按 CASE 语句分批更新，最后统一失效一次快照和响应缓存
      */
-    private List<Category> buildCategoryTree(List<Category> categories) {
-        // 按parent_id分组
-        Map<Long, List<Category>> categoryMap = categories.stream()
-                .filter(c -> c.getParentId() != null)
-                .collect(Collectors.groupingBy(Category::getParentId));
-
-        // 设置子分类
-        categories.forEach(category -> {
-            List<Category> children = categoryMap.get(category.getId());
-            if (children != null) {
-                children.sort((c1, c2) -> {
-                    int sortCompare = Integer.compare(
-                        c1.getSortOrder() != null ? c1.getSortOrder() : 0,
-                        c2.getSortOrder() != null ? c2.getSortOrder() : 0
-                    );
-                    if (sortCompare != 0) return sortCompare;
-                    return Long.compare(c1.getId(), c2.getId());
-                });
-                // 注意：Category实体没有children字段，这里需要在DTO中处理
+    private int applyPositions(List<Category> positions) {
+        CategoryTree tree = categoryTreeService.getSnapshot();
+        Map<Long, Category> proposed = new LinkedHashMap<>(tree.size() * 2);
+        // 以快照中的实际父分类为准，父分类已不存在的分类视为顶级分类
+        tree.forEachInOrder((category, depth, parentId) ->
+                proposed.put(category.getId(), position(category.getId(), parentId, category.getSortOrder())));
+
+        List<Category> changes = new ArrayList<>();
+        for (Category position : positions) {
+            Category current = proposed.get(position.getId());
+            if (current == null) {
+                // 不存在或已删除的分类不做处理
+                continue;
             }
-        });
-
-        // 返回根分类
-        return categories.stream()
-                .filter(Category::isRootCategory)
-                .sorted((c1, c2) -> {
-                    int sortCompare = Integer.compare(
-                        c1.getSortOrder() != null ? c1.getSortOrder() : 0,
-                        c2.getSortOrder() != null ? c2.getSortOrder() : 0
-                    );
-                    if (sortCompare != 0) return sortCompare;
-                    return Long.compare(c1.getId(), c2.getId());
-                })
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * 获取指定父分类下的最大排序值
-     */
-    private Integer getMaxSortOrder(Long parentId) {
-        QueryWrapper<Category> queryWrapper = new QueryWrapper<>();
-        if (parentId == null) {
-            queryWrapper.isNull("parent_id");
-        } else {
-            queryWrapper.eq("parent_id", parentId);
+            if (!Objects.equals(current.getParentId(), position.getParentId())
+                    || !Objects.equals(current.getSortOrder(), position.getSortOrder())) {
+                changes.add(position);
+            }
+            proposed.put(position.getId(), position);
         }
-        queryWrapper.select("MAX(sort_order) as sort_order");
-
-        List<Category> categories = categoryMapper.selectList(queryWrapper);
-        if (categories.isEmpty()) {
+        if (changes.isEmpty()) {
             return 0;
         }
-        // 由于使用了MAX聚合，需要特殊处理
-        return 0; // 简化版本，直接返回0
+        categoryTreeService.checkHierarchy(proposed.values());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < changes.size(); from += POSITION_BATCH_SIZE) {
+            categoryMapper.batchUpdatePosition(changes.subList(from, Math.min(from + POSITION_BATCH_SIZE, changes.size())), now);
+        }
+        categoryTreeService.invalidate();
+        responseCacheService.invalidate();
+        return changes.size();
+    }
+
+    private static Category position(Long id, Long parentId, Integer sortOrder) {
+        Category category = new Category();
+        category.setId(id);
+        category.setParentId(parentId == null || parentId == 0 ? null : parentId);
+        category.setSortOrder(sortOrder);
+        return category;
     }
 
     /**
-     * 检查是否会形成循环引用
+     * 构建分类树：快照按先序排列，父分类总是先于子分类出现，一次遍历即可挂接所有子分类
      */
-    private boolean wouldCreateCycle(Long categoryId, Long parentId) {
-        Long currentId = parentId;
-        int depth = 0;
-        int maxDepth = 20; // 防止无限循环
-
-        while (currentId != null && depth < maxDepth) {
-            if (currentId.equals(categoryId)) {
-                return true;
-            }
-
-            Category parent = categoryMapper.selectById(currentId);
-            if (parent == null) {
-                break;
+    private List<CategoryDTO> buildCategoryTree(CategoryTree tree) {
+        List<CategoryDTO> roots = new ArrayList<>();
+        Map<Long, CategoryDTO> nodes = new HashMap<>(tree.size() * 2);
+        tree.forEachInOrder((category, depth, parentId) -> {
+            CategoryDTO node = CategoryDTO.fromEntity(category, new ArrayList<>());
+            nodes.put(category.getId(), node);
+            if (parentId == null) {
+                roots.add(node);
+            } else {
+                nodes.get(parentId).getChildren().add(node);
             }
-            currentId = parent.getParentId();
-            depth++;
-        }
-
-        return false;
+        });
+        return roots;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.blog.entity.Category;
+import com.example.blog.exception.BusinessException;
+import com.example.blog.mapper.CategoryMapper;
+import com.example.blog.service.CategoryTreeService;
+import com.example.blog.util.CategoryTree;
+import com.example.blog.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分类树快照服务实现
+ * 快照以写时复制方式整体替换：读取方拿到的快照引用在其生命周期内不会变化；
+ * 重建在锁内进行并二次检查版本号，同一时刻的多个过期读取只会加载一次。
+ * 层级校验直接使用快照中的先序区间、深度和子树高度，不需要逐级查询父分类。
+ * 本节点的变更通过 invalidate 递增版本号；其他节点的变更由 refresh 定时比对数据库发现
+ */
+@Slf4j
+@Service
+public class CategoryTreeServiceImpl implements CategoryTreeService {
+
+    private final CategoryMapper categoryMapper;
+
+    /**
+     * 分类树最大层数，顶级分类为第 1 层
+     */
+    private final int maxDepth;
+
+    /**
+     * 分类数据版本号，每次失效时递增
+     */
+    private final AtomicLong version = new AtomicLong(1);
+
+    private volatile CategoryTree snapshot;
+
+    public CategoryTreeServiceImpl(CategoryMapper categoryMapper,
+                                   @Value("${blog.category.max-depth:5}") int maxDepth) {
+        this.categoryMapper = categoryMapper;
+        this.maxDepth = Math.max(1, maxDepth);
+    }
+
+    @Override
+    public CategoryTree getSnapshot() {
+        CategoryTree current = snapshot;
+        if (current != null && current.getVersion() == version.get()) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    @Override
+    public void invalidate() {
+        TransactionUtils.runAfterCommit(version::incrementAndGet);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.category.refresh-interval:60000}",
+            initialDelayString = "${blog.category.refresh-interval:60000}")
+    public boolean refresh() {
+        CategoryTree current = snapshot;
+        if (current == null || current.getVersion() != version.get()) {
+            // 尚未加载或已过期，下次读取时本来就会重新加载
+            return false;
+        }
+
+        List<Category> categories = loadCategories();
+        if (sameCategories(current, categories)) {
+            return false;
+        }
+        // 只递增版本号，由下次读取按正常流程重建，避免与本节点的 invalidate 竞争写入快照
+        version.incrementAndGet();
+        log.info("分类数据已在其他节点变更，分类树快照已过期 - 分类数: {} -> {}", current.size(), categories.size());
+        return true;
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void checkParent(Long categoryId, Long parentId) {
+        if (parentId == null || parentId == 0) {
+            return;
+        }
+        if (parentId.equals(categoryId)) {
+            throw new BusinessException("不能将分类设置为自己的子分类");
+        }
+
+        CategoryTree tree = getSnapshot();
+        if (!tree.contains(parentId)) {
+            throw new BusinessException("父分类不存在");
+        }
+        if (categoryId != null && tree.isInSubtree(categoryId, parentId)) {
+            throw new BusinessException("不能设置该父分类，会形成循环引用");
+        }
+        // 移动后子树最深一层的层数 = 父分类层数 + 1 + 子树高度
+        int subtreeHeight = categoryId != null && tree.contains(categoryId) ? tree.height(categoryId) : 0;
+        if (tree.depth(parentId) + 2 + subtreeHeight > maxDepth) {
+            throw new BusinessException("分类层级不能超过" + maxDepth + "层");
+        }
+    }
+
+    @Override
+    public int nextSortOrder(Long parentId) {
+        CategoryTree tree = getSnapshot();
+        List<Category> siblings = parentId == null || parentId == 0 ? tree.roots() : tree.children(parentId);
+        return siblings.stream()
+                .mapToInt(category -> category.getSortOrder() == null ? 0 : category.getSortOrder())
+                .max()
+                .orElse(0) + 1;
+    }
+
+    @Override
+    public void checkHierarchy(Collection<Category> categories) {
+        Set<Long> ids = new HashSet<>(categories.size() * 2);
+        categories.forEach(category -> ids.add(category.getId()));
+        // 先序遍历中被当作根分类、但原本有父分类的，要么父分类不在集合中，要么处于环上
+        CategoryTree.build(0, categories).forEachInOrder((category, depth, parentId) -> {
+            if (parentId == null && !category.isRootCategory()) {
+                throw new BusinessException(ids.contains(category.getParentId())
+                        ? "分类 " + category.getId() + " 的父分类设置会形成循环引用"
+                        : "分类 " + category.getId() + " 的父分类不存在");
+            }
+            if (depth + 1 > maxDepth) {
+                throw new BusinessException("分类层级不能超过" + maxDepth + "层");
+            }
+        });
+    }
+
+    @Override
+    public long[] expandCategory(Long categoryId) {
+        CategoryTree tree = getSnapshot();
+        return tree.contains(categoryId) ? tree.subtreeIds(categoryId) : new long[]{categoryId};
+    }
+
+    private synchronized CategoryTree rebuild() {
+        // 先读版本号再加载数据，加载期间发生的变更会让版本号前进，下次读取时再次重建
+        long targetVersion = version.get();
+        CategoryTree current = snapshot;
+        if (current != null && current.getVersion() == targetVersion) {
+            return current;
+        }
+
+        List<Category> categories = loadCategories();
+        CategoryTree rebuilt = CategoryTree.build(targetVersion, categories);
+        snapshot = rebuilt;
+        log.debug("分类树快照已重建 - 版本: {}, 分类数: {}", targetVersion, rebuilt.size());
+        return rebuilt;
+    }
+
+    private List<Category> loadCategories() {
+        QueryWrapper<Category> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("deleted", 0);
+        return categoryMapper.selectList(queryWrapper);
+    }
+
+    /**
+     * 快照与数据库中的分类逐条比较全部字段（含父分类、排序值和文章数）
+     */
+    private static boolean sameCategories(CategoryTree tree, List<Category> categories) {
+        if (tree.size() != categories.size()) {
+            return false;
+        }
+        Map<Long, Category> byId = new HashMap<>(categories.size() * 2);
+        categories.forEach(category -> byId.put(category.getId(), category));
+        for (Category category : tree.all()) {
+            if (!category.equals(byId.get(category.getId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
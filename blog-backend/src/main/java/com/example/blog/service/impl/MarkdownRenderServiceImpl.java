@@ -0,0 +1,133 @@
+package com.example.blog.service.impl;
+
+import com.example.blog.service.MarkdownRenderService;
+import com.example.blog.util.MarkdownRenderer;
+import com.example.blog.util.OffHeapSlabCache;
+import com.example.blog.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Markdown 渲染服务实现
+ * 以正文的 SHA-256 作为缓存键，渲染结果编码为字节后存入堆外 Slab 缓存：
+ * [目录项数][级别, ID, 文字]...[HTML]，字符串均为长度前缀的 UTF-8
+ */
+@Slf4j
+@Service
+public class MarkdownRenderServiceImpl implements MarkdownRenderService {
+
+    private static final MarkdownRenderer.Rendered EMPTY = new MarkdownRenderer.Rendered("", List.of());
+
+    private final OffHeapSlabCache<String> cache;
+
+    public MarkdownRenderServiceImpl(@Value("${blog.markdown.render-cache.capacity:67108864}") long capacityBytes,
+                                     @Value("${blog.markdown.render-cache.slab-size:1048576}") int slabSize,
+                                     @Value("${blog.markdown.render-cache.page-size:4096}") int pageSize) {
+        this.cache = new OffHeapSlabCache<>(capacityBytes, slabSize, pageSize);
+    }
+
+    @Override
+    public MarkdownRenderer.Rendered render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return EMPTY;
+        }
+
+        String key = contentHash(markdown);
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            return decode(cached);
+        }
+
+        long startTime = System.currentTimeMillis();
+        MarkdownRenderer.Rendered rendered = MarkdownRenderer.render(markdown);
+        if (!cache.put(key, encode(rendered))) {
+            log.warn("渲染结果超过缓存容量，未缓存 - 正文长度: {}", markdown.length());
+        }
+        log.debug("Markdown 渲染完成 - 正文长度: {}, 耗时: {}ms", markdown.length(), System.currentTimeMillis() - startTime);
+        return rendered;
+    }
+
+    @Override
+    public void prerender(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> {
+            try {
+                render(markdown);
+            } catch (RuntimeException e) {
+                // 预渲染失败不影响写操作，首次读取时会再次渲染
+                log.error("Markdown 预渲染失败: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public OffHeapSlabCache.CacheStats getStats() {
+        return cache.stats();
+    }
+
+    private static String contentHash(String markdown) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(markdown.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static byte[] encode(MarkdownRenderer.Rendered rendered) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(rendered.html().length() + 256);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(rendered.toc().size());
+            for (MarkdownRenderer.Heading heading : rendered.toc()) {
+                out.writeByte(heading.level());
+                writeString(out, heading.id());
+                writeString(out, heading.text());
+            }
+            writeString(out, rendered.html());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static MarkdownRenderer.Rendered decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int tocSize = in.readInt();
+            List<MarkdownRenderer.Heading> toc = new ArrayList<>(tocSize);
+            for (int i = 0; i < tocSize; i++) {
+                toc.add(new MarkdownRenderer.Heading(in.readByte(), readString(in), readString(in)));
+            }
+            return new MarkdownRenderer.Rendered(readString(in), List.copyOf(toc));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,671 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.blog.entity.Article;
+import com.example.blog.entity.ArticleTag;
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.mapper.ArticleTagMapper;
+import com.example.blog.service.RelatedArticleService;
+import com.example.blog.util.LongHashSet;
+import com.example.blog.util.SearchTokenizer;
+import com.example.blog.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 相关文章服务实现
+ * 按标签和标题/摘要词项建立倒排表，为每篇文章从最短的倒排表开始收集候选（扫描条数有上限），
+ * 只对候选文章计算精确得分并保留前若干名，全量计算的代价与文章数近似线性而不是平方。
+ * 同时维护反向引用（哪些文章的相邻列表包含某篇文章），文章变化时只刷新受影响的列表：
+ * 新得分直接插入对方列表，得分下降或不再相似的列表标记为过期，由后台任务重新计算。
+ * 词项权重使用计算时的文档频率，随增量更新逐渐偏离，由定期全量重建校正
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RelatedArticleServiceImpl implements RelatedArticleService {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    /**
+     * 每篇文章保留的相邻文章数量，也是单次查询的上限
+     */
+    private static final int MAX_NEIGHBOURS = 20;
+
+    /**
+     * 每篇文章参与精确打分的候选数量上限
+     */
+    private static final int MAX_CANDIDATES = 200;
+
+    /**
+     * 收集候选时最多扫描的倒排表条目数；超过该长度的倒排表（如热门标签、常见词）区分度低，直接跳过
+     */
+    private static final int CANDIDATE_SCAN_BUDGET = 5000;
+
+    /**
+     * 每次持有写锁重新计算的过期列表数量
+     */
+    private static final int REFRESH_BATCH_SIZE = 200;
+
+    private static final double TAG_WEIGHT = 0.5;
+    private static final double TEXT_WEIGHT = 0.35;
+    private static final double CATEGORY_WEIGHT = 0.15;
+
+    /**
+     * 低于该得分的文章不进入相邻列表，避免只是同分类就被推荐
+     */
+    private static final float MIN_SCORE = 0.16f;
+
+    private static final int TITLE_BOOST = 2;
+
+    private final ArticleMapper articleMapper;
+    private final ArticleTagMapper articleTagMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 当前索引，首次构建前为 null
+     */
+    private RelatedIndex index;
+
+    /**
+     * 重建期间发生的变更，构建完成后重放到新索引上
+     */
+    private List<Consumer<RelatedIndex>> rebuildJournal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 启动时构建失败不影响应用启动，首次查询时会再次尝试
+            log.error("相关文章索引构建失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Long> getRelatedArticleIds(Long articleId, int limit) {
+        if (articleId == null) {
+            return List.of();
+        }
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            return index.related(articleId, Math.max(1, Math.min(limit, MAX_NEIGHBOURS)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Article article, Collection<Long> tagIds) {
+        if (!article.isPublished() || Integer.valueOf(1).equals(article.getDeleted())) {
+            remove(article.getId());
+            return;
+        }
+        Collection<Long> currentTagIds = tagIds != null ? tagIds : articleTagMapper.selectTagIdsByArticleId(article.getId());
+        Features features = Features.of(article, currentTagIds);
+        mutate(current -> current.upsert(features));
+    }
+
+    @Override
+    public void remove(Long articleId) {
+        mutate(current -> current.remove(articleId));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.related.refresh-interval:10000}",
+            initialDelayString = "${blog.related.refresh-interval:10000}")
+    public int refreshStale() {
+        int refreshed = 0;
+        while (true) {
+            int count;
+            // 分批持有写锁，避免大量列表过期时长时间阻塞查询
+            lock.writeLock().lock();
+            try {
+                if (index == null) {
+                    return refreshed;
+                }
+                count = index.refreshStale(REFRESH_BATCH_SIZE);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            refreshed += count;
+            if (count < REFRESH_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (refreshed > 0) {
+            log.debug("相关文章过期列表已刷新 - 数量: {}", refreshed);
+        }
+        return refreshed;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.related.rebuild-interval:3600000}",
+            initialDelayString = "${blog.related.rebuild-interval:3600000}")
+    public synchronized int rebuild() {
+        long startTime = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        RelatedIndex built;
+        try {
+            built = RelatedIndex.build(loadFromDatabase());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuildJournal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rebuildJournal.forEach(change -> change.accept(built));
+            rebuildJournal = null;
+            index = built;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("相关文章索引重建完成 - 文章数: {}, 词项数: {}, 耗时: {}ms",
+                built.docs.size(), built.termPostings.size(), System.currentTimeMillis() - startTime);
+        return built.docs.size();
+    }
+
+    /**
+     * 按ID分批读取已发布文章的标题、摘要、分类和标签，不读取正文
+     */
+    private List<Features> loadFromDatabase() {
+        List<Features> features = new ArrayList<>();
+        long lastId = 0L;
+        while (true) {
+            QueryWrapper<Article> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("id", "title", "summary", "category_id", "status")
+                    .eq("deleted", 0)
+                    .eq("status", Article.Status.PUBLISHED.getValue())
+                    .gt("id", lastId)
+                    .orderByAsc("id")
+                    .last("LIMIT " + REBUILD_BATCH_SIZE);
+            List<Article> batch = articleMapper.selectList(queryWrapper);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<Long, List<Long>> tagsByArticle = articleTagMapper.selectArticleTagsByArticleIds(
+                            batch.stream().map(Article::getId).collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.groupingBy(ArticleTag::getArticleId,
+                            Collectors.mapping(ArticleTag::getTagId, Collectors.toList())));
+            for (Article article : batch) {
+                features.add(Features.of(article, tagsByArticle.getOrDefault(article.getId(), List.of())));
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+        }
+        return features;
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        synchronized (this) {
+            if (index == null) {
+                rebuild();
+            }
+        }
+    }
+
+    private void mutate(Consumer<RelatedIndex> change) {
+        TransactionUtils.runAfterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (index != null) {
+                    change.accept(index);
+                }
+                if (rebuildJournal != null) {
+                    rebuildJournal.add(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 文章特征，在调用方线程中完成分词，写锁内只做倒排表维护和打分
+     *
+     * @param tagIds 升序排列、去重后的标签ID
+     * @param terms  升序排列的词项，与 freqs 一一对应（标题中的词按 TITLE_BOOST 倍计数）
+     */
+    private record Features(long articleId, long categoryId, long[] tagIds, String[] terms, int[] freqs) {
+
+        static Features of(Article article, Collection<Long> tagIds) {
+            long[] tags = tagIds.stream()
+                    .filter(Objects::nonNull)
+                    .mapToLong(Long::longValue)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+
+            TreeMap<String, Integer> counts = new TreeMap<>();
+            for (SearchTokenizer.Token token : SearchTokenizer.tokenizeForQuery(article.getTitle())) {
+                counts.merge(token.term(), TITLE_BOOST, Integer::sum);
+            }
+            for (SearchTokenizer.Token token : SearchTokenizer.tokenizeForQuery(article.getSummary())) {
+                counts.merge(token.term(), 1, Integer::sum);
+            }
+            String[] terms = counts.keySet().toArray(new String[0]);
+            int[] freqs = counts.values().stream().mapToInt(Integer::intValue).toArray();
+
+            long categoryId = article.getCategoryId() == null ? 0L : article.getCategoryId();
+            return new Features(article.getId(), categoryId, tags, terms, freqs);
+        }
+    }
+
+    /**
+     * 索引中的文章，weights 为 L2 归一化后的 TF-IDF 权重，与 terms 一一对应
+     */
+    private record Doc(long articleId, long categoryId, long[] tagIds, String[] terms, float[] weights) {
+    }
+
+    /**
+     * 相邻列表，按得分降序排列
+     */
+    private record Neighbours(long[] ids, float[] scores) {
+
+        static final Neighbours EMPTY = new Neighbours(new long[0], new float[0]);
+
+        int indexOf(long articleId) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == articleId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 候选文章及其得分（均不低于 MIN_SCORE），未排序
+     */
+    private record Scored(long[] ids, float[] scores) {
+    }
+
+    /**
+     * 相关文章索引，非线程安全，由外层读写锁保护
+     */
+    private static final class RelatedIndex {
+
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private final Map<Long, Neighbours> neighbours = new HashMap<>();
+
+        /**
+         * 文章ID -> 相邻列表中包含该文章的文章ID
+         */
+        private final Map<Long, LongHashSet> referrers = new HashMap<>();
+
+        private final Map<Long, LongHashSet> tagPostings = new HashMap<>();
+        private final Map<String, LongHashSet> termPostings = new HashMap<>();
+
+        /**
+         * 需要重新计算的相邻列表
+         */
+        private final LongHashSet stale = new LongHashSet();
+
+        /**
+         * 已写入倒排表的文章数，用于计算逆文档频率
+         */
+        private int postedCount;
+
+        /**
+         * 先写入全部倒排表，使每篇文章的词项权重和候选都基于完整的文档频率
+         */
+        static RelatedIndex build(List<Features> all) {
+            RelatedIndex built = new RelatedIndex();
+            all.forEach(built::addPostings);
+            for (Features features : all) {
+                built.docs.put(features.articleId(), built.weigh(features));
+            }
+            for (Doc doc : built.docs.values()) {
+                built.setNeighbours(doc.articleId(), built.top(built.score(doc)));
+            }
+            return built;
+        }
+
+        List<Long> related(long articleId, int limit) {
+            Neighbours list = neighbours.get(articleId);
+            if (list == null) {
+                return List.of();
+            }
+            List<Long> result = new ArrayList<>(Math.min(limit, list.ids().length));
+            for (long id : list.ids()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                // 过期列表中可能仍包含已移除的文章
+                if (docs.containsKey(id)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        void upsert(Features features) {
+            long articleId = features.articleId();
+            Doc old = docs.get(articleId);
+            if (old != null) {
+                removePostings(old);
+            }
+            addPostings(features);
+            Doc doc = weigh(features);
+            docs.put(articleId, doc);
+            stale.remove(articleId);
+
+            Scored scored = score(doc);
+            setNeighbours(articleId, top(scored));
+
+            LongHashSet previousReferrers = referrers.get(articleId);
+            long[] previous = previousReferrers == null ? new long[0] : previousReferrers.toArray();
+            LongHashSet offered = new LongHashSet(scored.ids().length);
+            for (int i = 0; i < scored.ids().length; i++) {
+                offer(scored.ids()[i], articleId, scored.scores()[i]);
+                offered.add(scored.ids()[i]);
+            }
+            // 原先包含该文章、但现在已不再相似的列表需要重新计算
+            for (long referrer : previous) {
+                if (!offered.contains(referrer)) {
+                    stale.add(referrer);
+                }
+            }
+        }
+
+        void remove(long articleId) {
+            Doc old = docs.remove(articleId);
+            if (old == null) {
+                return;
+            }
+            removePostings(old);
+            setNeighbours(articleId, null);
+            stale.remove(articleId);
+
+            LongHashSet previousReferrers = referrers.remove(articleId);
+            if (previousReferrers != null) {
+                previousReferrers.forEach(stale::add);
+            }
+        }
+
+        int refreshStale(int maxCount) {
+            long[] ids = stale.toArray();
+            int count = Math.min(ids.length, maxCount);
+            for (int i = 0; i < count; i++) {
+                stale.remove(ids[i]);
+                Doc doc = docs.get(ids[i]);
+                if (doc != null) {
+                    setNeighbours(ids[i], top(score(doc)));
+                }
+            }
+            return count;
+        }
+
+        /**
+         * 将文章以新得分放入 ownerId 的相邻列表：已在列表中的替换得分，不在列表中的只有超过列表最小值时才挤掉最小值
+         */
+        private void offer(long ownerId, long articleId, float score) {
+            Neighbours current = neighbours.getOrDefault(ownerId, Neighbours.EMPTY);
+            int existing = current.indexOf(articleId);
+            int size = current.ids().length;
+            if (existing < 0 && size >= MAX_NEIGHBOURS && score <= current.scores()[size - 1]) {
+                return;
+            }
+            if (existing >= 0 && score < current.scores()[existing]) {
+                // 得分下降后列表外可能有更合适的文章
+                stale.add(ownerId);
+            }
+
+            int newSize = Math.min(MAX_NEIGHBOURS, existing >= 0 ? size : size + 1);
+            long[] ids = new long[newSize];
+            float[] scores = new float[newSize];
+            int n = 0;
+            boolean inserted = false;
+            for (int i = 0; i < size && n < newSize; i++) {
+                if (i == existing) {
+                    continue;
+                }
+                if (!inserted && score > current.scores()[i]) {
+                    ids[n] = articleId;
+                    scores[n++] = score;
+                    inserted = true;
+                    if (n >= newSize) {
+                        break;
+                    }
+                }
+                ids[n] = current.ids()[i];
+                scores[n++] = current.scores()[i];
+            }
+            if (!inserted && n < newSize) {
+                ids[n] = articleId;
+                scores[n] = score;
+            }
+            setNeighbours(ownerId, new Neighbours(ids, scores));
+        }
+
+        /**
+         * 替换相邻列表并同步反向引用；list 为 null 时删除列表
+         */
+        private void setNeighbours(long articleId, Neighbours list) {
+            Neighbours old = list == null ? neighbours.remove(articleId) : neighbours.put(articleId, list);
+            if (old != null) {
+                for (long other : old.ids()) {
+                    LongHashSet refs = referrers.get(other);
+                    if (refs != null) {
+                        refs.remove(articleId);
+                        if (refs.isEmpty()) {
+                            referrers.remove(other);
+                        }
+                    }
+                }
+            }
+            if (list != null) {
+                for (long other : list.ids()) {
+                    referrers.computeIfAbsent(other, id -> new LongHashSet(4)).add(articleId);
+                }
+            }
+        }
+
+        /**
+         * 从最短的倒排表开始累计重叠次数，扫描条目数达到上限后停止，取重叠次数最多的候选精确打分
+         */
+        private Scored score(Doc doc) {
+            List<LongHashSet> lists = new ArrayList<>();
+            for (long tagId : doc.tagIds()) {
+                LongHashSet postings = tagPostings.get(tagId);
+                if (postings != null) {
+                    lists.add(postings);
+                }
+            }
+            for (String term : doc.terms()) {
+                LongHashSet postings = termPostings.get(term);
+                if (postings != null) {
+                    lists.add(postings);
+                }
+            }
+            lists.sort(Comparator.comparingInt(LongHashSet::size));
+
+            Map<Long, int[]> overlaps = new HashMap<>();
+            int budget = CANDIDATE_SCAN_BUDGET;
+            for (LongHashSet postings : lists) {
+                if (postings.size() > budget) {
+                    break;
+                }
+                budget -= postings.size();
+                postings.forEach(id -> {
+                    if (id != doc.articleId()) {
+                        overlaps.computeIfAbsent(id, key -> new int[1])[0]++;
+                    }
+                });
+            }
+
+            List<Long> candidates = new ArrayList<>(overlaps.keySet());
+            if (candidates.size() > MAX_CANDIDATES) {
+                candidates.sort(Comparator.comparingInt((Long id) -> overlaps.get(id)[0]).reversed());
+                candidates = candidates.subList(0, MAX_CANDIDATES);
+            }
+
+            long[] ids = new long[candidates.size()];
+            float[] scores = new float[candidates.size()];
+            int n = 0;
+            for (Long candidateId : candidates) {
+                Doc other = docs.get(candidateId);
+                if (other == null) {
+                    continue;
+                }
+                float similarity = similarity(doc, other);
+                if (similarity >= MIN_SCORE) {
+                    ids[n] = candidateId;
+                    scores[n++] = similarity;
+                }
+            }
+            return new Scored(Arrays.copyOf(ids, n), Arrays.copyOf(scores, n));
+        }
+
+        private static Neighbours top(Scored scored) {
+            Integer[] order = new Integer[scored.ids().length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> scored.scores()[a] != scored.scores()[b]
+                    ? Float.compare(scored.scores()[b], scored.scores()[a])
+                    : Long.compare(scored.ids()[b], scored.ids()[a]));
+
+            int size = Math.min(order.length, MAX_NEIGHBOURS);
+            long[] ids = new long[size];
+            float[] scores = new float[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = scored.ids()[order[i]];
+                scores[i] = scored.scores()[order[i]];
+            }
+            return new Neighbours(ids, scores);
+        }
+
+        private static float similarity(Doc a, Doc b) {
+            double score = TAG_WEIGHT * jaccard(a.tagIds(), b.tagIds()) + TEXT_WEIGHT * cosine(a, b);
+            if (a.categoryId() != 0L && a.categoryId() == b.categoryId()) {
+                score += CATEGORY_WEIGHT;
+            }
+            return (float) score;
+        }
+
+        private static double jaccard(long[] a, long[] b) {
+            if (a.length == 0 || b.length == 0) {
+                return 0.0;
+            }
+            int i = 0;
+            int j = 0;
+            int shared = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] == b[j]) {
+                    shared++;
+                    i++;
+                    j++;
+                } else if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return (double) shared / (a.length + b.length - shared);
+        }
+
+        private static double cosine(Doc a, Doc b) {
+            int i = 0;
+            int j = 0;
+            double dot = 0.0;
+            while (i < a.terms().length && j < b.terms().length) {
+                int cmp = a.terms()[i].compareTo(b.terms()[j]);
+                if (cmp == 0) {
+                    dot += a.weights()[i++] * b.weights()[j++];
+                } else if (cmp < 0) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return dot;
+        }
+
+        /**
+         * 按当前文档频率计算 TF-IDF 权重：(1 + ln tf) * ln(1 + N / df)，再做 L2 归一化
+         */
+        private Doc weigh(Features features) {
+            String[] terms = features.terms();
+            float[] weights = new float[terms.length];
+            double norm = 0.0;
+            for (int i = 0; i < terms.length; i++) {
+                LongHashSet postings = termPostings.get(terms[i]);
+                int df = postings == null ? 1 : Math.max(1, postings.size());
+                double weight = (1 + Math.log(features.freqs()[i])) * Math.log(1 + (double) postedCount / df);
+                weights[i] = (float) weight;
+                norm += weight * weight;
+            }
+            if (norm > 0) {
+                double length = Math.sqrt(norm);
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] = (float) (weights[i] / length);
+                }
+            }
+            return new Doc(features.articleId(), features.categoryId(), features.tagIds(), terms, weights);
+        }
+
+        private void addPostings(Features features) {
+            for (long tagId : features.tagIds()) {
+                tagPostings.computeIfAbsent(tagId, id -> new LongHashSet(4)).add(features.articleId());
+            }
+            for (String term : features.terms()) {
+                termPostings.computeIfAbsent(term, key -> new LongHashSet(4)).add(features.articleId());
+            }
+            postedCount++;
+        }
+
+        private void removePostings(Doc doc) {
+            for (long tagId : doc.tagIds()) {
+                LongHashSet postings = tagPostings.get(tagId);
+                if (postings != null && postings.remove(doc.articleId()) && postings.isEmpty()) {
+                    tagPostings.remove(tagId);
+                }
+            }
+            for (String term : doc.terms()) {
+                LongHashSet postings = termPostings.get(term);
+                if (postings != null && postings.remove(doc.articleId()) && postings.isEmpty()) {
+                    termPostings.remove(term);
+                }
+            }
+            postedCount--;
+        }
+    }
+}
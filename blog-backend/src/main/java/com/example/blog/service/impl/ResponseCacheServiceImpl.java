@@ -0,0 +1,79 @@
+package com.example.blog.service.impl;
+
+import com.example.blog.service.ResponseCacheService;
+import com.example.blog.util.BoundedCache;
+import com.example.blog.util.TransactionUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 响应字节缓存服务实现
+ * 每个响应只序列化一次，gzip 版本在写入缓存时预先压缩；条目带较短的过期时间，
+ * 使列表中的浏览数、点赞数等不触发失效的计数只在有限时间内滞后
+ */
+@Slf4j
+@Service
+public class ResponseCacheServiceImpl implements ResponseCacheService {
+
+    private final ObjectMapper objectMapper;
+    private final BoundedCache<String, CachedResponse> cache;
+    private final int gzipMinSize;
+
+    public ResponseCacheServiceImpl(ObjectMapper objectMapper,
+                                    @Value("${blog.response-cache.maximum-size:1000}") int maximumSize,
+                                    @Value("${blog.response-cache.ttl:30000}") long ttlMillis,
+                                    @Value("${blog.response-cache.gzip-min-size:1024}") int gzipMinSize) {
+        this.objectMapper = objectMapper;
+        this.cache = new BoundedCache<>(maximumSize, ttlMillis);
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    @Override
+    public CachedResponse get(Region region, String key, Supplier<?> loader) {
+        return cache.get(region.name() + '|' + key, cacheKey -> serialize(region, loader.get()));
+    }
+
+    @Override
+    public void invalidate(Region... regions) {
+        Set<Region> targets = regions.length == 0 ? EnumSet.allOf(Region.class) : EnumSet.of(regions[0], regions);
+        TransactionUtils.runAfterCommit(() -> cache.invalidateIf(response -> targets.contains(response.region())));
+    }
+
+    @Override
+    public BoundedCache.CacheStats getStats() {
+        return cache.stats();
+    }
+
+    private CachedResponse serialize(Region region, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("响应序列化失败", e);
+        }
+        return new CachedResponse(region, json, json.length >= gzipMinSize ? gzip(json) : null);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = buffer.toByteArray();
+        // 压缩后没有明显变小的响应只保留原文
+        return compressed.length < data.length - (data.length >> 3) ? compressed : null;
+    }
+}
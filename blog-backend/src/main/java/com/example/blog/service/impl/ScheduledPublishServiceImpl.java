@@ -0,0 +1,221 @@
+package com.example.blog.service.impl;
+
+import com.example.blog.entity.Article;
+import com.example.blog.exception.BusinessException;
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.service.ArticleService;
+import com.example.blog.service.ScheduledPublishService;
+import com.example.blog.util.TimingWheel;
+import com.example.blog.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 定时发布服务实现
+ * 启动时从 scheduled_publish_time 加载全部计划放入分层时间轮（1ms 精度），到期后在发布线程池中执行：
+ * 先以“计划时间未变 + 租约空闲或已过期”为条件更新文章行抢占租约，抢到的节点才调用发布，完成后释放租约。
+ * 其他节点上新增、改期或取消的计划由低频校准任务同步；发布失败或持有租约的节点宕机时，
+ * 计划仍留在数据库中，校准时作为逾期计划重新触发
+ */
+@Slf4j
+@Service
+public class ScheduledPublishServiceImpl implements ScheduledPublishService {
+
+    private static final long TICK_MILLIS = 1L;
+    private static final int WHEEL_SIZE = 512;
+    private static final int PUBLISH_THREADS = 2;
+
+    private final ArticleMapper articleMapper;
+    private final ArticleService articleService;
+    private final long leaseMillis;
+
+    /**
+     * 当前节点标识，写入租约持有者字段
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ExecutorService publishExecutor;
+    private final TimingWheel timingWheel;
+
+    /**
+     * 文章ID -> 时间轮中的计划
+     */
+    private final Map<Long, PendingPublish> pending = new ConcurrentHashMap<>();
+
+    public ScheduledPublishServiceImpl(ArticleMapper articleMapper,
+                                       ArticleService articleService,
+                                       @Value("${blog.scheduled-publish.lease-duration:60000}") long leaseMillis) {
+        this.articleMapper = articleMapper;
+        this.articleService = articleService;
+        this.leaseMillis = leaseMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.publishExecutor = Executors.newFixedThreadPool(PUBLISH_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-publish-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timingWheel = new TimingWheel("scheduled-publish-wheel", TICK_MILLIS, WHEEL_SIZE, publishExecutor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            resync();
+        } catch (Exception e) {
+            // 加载失败不影响应用启动，下次校准时重试
+            log.error("定时发布计划加载失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void schedule(Long articleId, LocalDateTime publishTime) {
+        Article article = articleMapper.selectById(articleId);
+        if (article == null || Integer.valueOf(1).equals(article.getDeleted())) {
+            throw new BusinessException("文章不存在");
+        }
+        if (!article.isDraft()) {
+            throw new BusinessException("只有草稿可以定时发布");
+        }
+        // 数据库列精确到秒，截断后才能与库中的值比较
+        LocalDateTime scheduledTime = publishTime.truncatedTo(ChronoUnit.SECONDS);
+        if (!scheduledTime.isAfter(LocalDateTime.now())) {
+            throw new BusinessException("发布时间必须是未来时间");
+        }
+
+        articleMapper.updateScheduledPublishTime(articleId, scheduledTime);
+        TransactionUtils.runAfterCommit(() -> register(articleId, scheduledTime, Long.MAX_VALUE));
+        log.info("设置定时发布 - id: {}, 发布时间: {}", articleId, scheduledTime);
+    }
+
+    @Override
+    @Transactional
+    public void cancel(Long articleId) {
+        Article article = articleMapper.selectById(articleId);
+        if (article == null || Integer.valueOf(1).equals(article.getDeleted())) {
+            throw new BusinessException("文章不存在");
+        }
+        if (article.getScheduledPublishTime() == null) {
+            throw new BusinessException("文章没有定时发布计划");
+        }
+
+        articleMapper.updateScheduledPublishTime(articleId, null);
+        TransactionUtils.runAfterCommit(() -> unregister(articleId, Long.MAX_VALUE));
+        log.info("取消定时发布 - id: {}", articleId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.scheduled-publish.resync-interval:300000}",
+            initialDelayString = "${blog.scheduled-publish.resync-interval:300000}")
+    public int resync() {
+        // 查询之后本节点新注册的计划比查询结果更新，校准时不覆盖
+        long snapshotTime = System.nanoTime();
+        List<Article> scheduled = articleMapper.selectPendingScheduledArticles();
+
+        Set<Long> scheduledIds = new HashSet<>();
+        for (Article article : scheduled) {
+            scheduledIds.add(article.getId());
+            register(article.getId(), article.getScheduledPublishTime(), snapshotTime);
+        }
+        for (Long articleId : List.copyOf(pending.keySet())) {
+            if (!scheduledIds.contains(articleId)) {
+                unregister(articleId, snapshotTime);
+            }
+        }
+
+        log.info("定时发布计划校准完成 - 待发布: {}, 时间轮任务: {}", scheduled.size(), timingWheel.pendingCount());
+        return scheduled.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timingWheel.shutdown();
+        publishExecutor.shutdown();
+    }
+
+    /**
+     * 注册计划，同一文章已有不同时间的计划时改期；snapshotTime 之后注册的计划保持不变
+     */
+    private void register(Long articleId, LocalDateTime scheduledTime, long snapshotTime) {
+        pending.compute(articleId, (id, existing) -> {
+            // 已触发的计划仍在库中说明发布失败，重新注册即重试
+            if (existing != null && !existing.timeout().isDone()) {
+                if (existing.scheduledTime().equals(scheduledTime) || existing.registeredAt() - snapshotTime > 0) {
+                    return existing;
+                }
+                existing.timeout().cancel();
+            }
+            long deadline = scheduledTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            TimingWheel.Timeout timeout = timingWheel.schedule(deadline, () -> fire(articleId, scheduledTime));
+            return new PendingPublish(scheduledTime, timeout, System.nanoTime());
+        });
+    }
+
+    private void unregister(Long articleId, long snapshotTime) {
+        pending.computeIfPresent(articleId, (id, existing) -> {
+            if (existing.registeredAt() - snapshotTime > 0) {
+                return existing;
+            }
+            existing.timeout().cancel();
+            return null;
+        });
+    }
+
+    /**
+     * 到期执行：抢占租约成功才发布；计划已改期、已取消、文章已发布或其他节点持有租约时直接跳过
+     */
+    private void fire(Long articleId, LocalDateTime scheduledTime) {
+        pending.computeIfPresent(articleId, (id, existing) ->
+                existing.scheduledTime().equals(scheduledTime) ? null : existing);
+
+        LocalDateTime now = LocalDateTime.now();
+        int claimed;
+        try {
+            claimed = articleMapper.claimScheduledPublish(articleId, scheduledTime, nodeId, now,
+                    now.plus(leaseMillis, ChronoUnit.MILLIS));
+        } catch (Exception e) {
+            log.error("定时发布抢占租约失败 - id: {}, 原因: {}", articleId, e.getMessage());
+            return;
+        }
+        if (claimed == 0) {
+            log.debug("定时发布跳过 - id: {}, 计划已变更或由其他节点处理", articleId);
+            return;
+        }
+
+        try {
+            articleService.publishArticle(articleId);
+            log.info("定时发布文章成功 - id: {}, 计划时间: {}, 延迟: {}ms", articleId, scheduledTime,
+                    ChronoUnit.MILLIS.between(scheduledTime, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.error("定时发布文章失败 - id: {}, 原因: {}", articleId, e.getMessage());
+        } finally {
+            articleMapper.releasePublishLease(articleId, nodeId);
+        }
+    }
+
+    /**
+     * @param registeredAt 注册时的 System.nanoTime()
+     */
+    private record PendingPublish(LocalDateTime scheduledTime, TimingWheel.Timeout timeout, long registeredAt) {
+    }
+}
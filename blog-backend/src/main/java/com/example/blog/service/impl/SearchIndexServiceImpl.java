@@ -0,0 +1,730 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.blog.entity.Article;
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.service.ArticleContentService;
+import com.example.blog.service.SearchIndexService;
+import com.example.blog.util.SearchTokenizer;
+import com.example.blog.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * 全文检索服务实现
+ * 词典中每个词对应一张按文档序号升序的倒排表（文档序号、标题词频、正文词频），检索时从最短的倒排表出发，
+ * 在其余倒排表中二分定位求交集，只对命中文档打分并用堆保留 Top-K，耗时取决于命中的倒排表长度而不是文章总数。
+ * 文章更新时旧文档只打删除标记，删除标记过多时整体压缩；索引定期写入磁盘快照，重启后加载快照并追赶增量
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private static final int SNAPSHOT_MAGIC = 0x424C5358;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    /**
+     * 从快照追赶增量时回看的时间余量，覆盖快照前已写入 update_time 但稍后才提交的事务
+     */
+    private static final long CATCH_UP_MARGIN_MINUTES = 5;
+
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+    private static final int TITLE_BOOST = 3;
+
+    private final ArticleMapper articleMapper;
+    private final ArticleContentService articleContentService;
+
+    @Value("${blog.search.snapshot-path:./data/search-index.bin}")
+    private String snapshotPath;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 当前索引，首次加载前为 null
+     */
+    private InvertedIndex index;
+
+    /**
+     * 重建或加载快照期间发生的变更，完成后重放到新索引上
+     */
+    private List<Consumer<InvertedIndex>> rebuildJournal;
+
+    /**
+     * 自上次快照以来索引是否有变化
+     */
+    private volatile boolean dirty;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            if (!loadSnapshot()) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            // 启动时加载失败不影响应用启动，首次检索时会再次尝试
+            log.error("搜索索引加载失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public SearchHits search(String keyword, LongPredicate filter, long offset, int size) {
+        Set<String> terms = SearchTokenizer.queryTerms(keyword);
+        if (terms.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            return index.search(terms, filter, offset, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Article article, String content) {
+        if (!article.isPublished() || Integer.valueOf(1).equals(article.getDeleted())) {
+            remove(article.getId());
+            return;
+        }
+        Document document = Document.of(article, content);
+        mutate(current -> current.add(document));
+    }
+
+    @Override
+    public void remove(Long articleId) {
+        mutate(current -> current.remove(articleId));
+    }
+
+    @Override
+    public int rebuild() {
+        return install(this::loadFromDatabase, "重建");
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.search.snapshot-interval:300000}",
+            initialDelayString = "${blog.search.snapshot-interval:300000}")
+    public boolean saveSnapshot() {
+        if (!dirty) {
+            return false;
+        }
+        dirty = false;
+
+        // 先记录快照时间再读取索引，之后提交的变更都会在下次启动时被追赶
+        LocalDateTime snapshotTime = LocalDateTime.now();
+        Path path = Paths.get(snapshotPath);
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return false;
+            }
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(snapshotTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                index.writeTo(out);
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("搜索索引快照已保存 - 文章数: {}, 路径: {}", index.liveCount(), path);
+            return true;
+        } catch (IOException e) {
+            dirty = true;
+            log.error("搜索索引快照保存失败: {}", e.getMessage());
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        saveSnapshot();
+    }
+
+    /**
+     * 从磁盘快照加载索引并追赶快照之后的变更
+     *
+     * @return 快照不存在或格式不兼容时返回 false
+     */
+    private boolean loadSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try {
+            install(() -> {
+                try {
+                    return loadFromSnapshot(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, "快照加载");
+            return true;
+        } catch (UncheckedIOException | IllegalStateException e) {
+            log.warn("搜索索引快照不可用，改为全量重建: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private InvertedIndex loadFromSnapshot(Path path) throws IOException {
+        InvertedIndex loaded;
+        LocalDateTime snapshotTime;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IllegalStateException("快照格式不兼容");
+            }
+            snapshotTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneId.systemDefault());
+            loaded = InvertedIndex.readFrom(in);
+        }
+
+        List<Article> changed = articleMapper.selectArticlesChangedSince(snapshotTime.minusMinutes(CATCH_UP_MARGIN_MINUTES));
+        List<Article> published = new ArrayList<>();
+        for (Article article : changed) {
+            if (article.isPublished() && !Integer.valueOf(1).equals(article.getDeleted())) {
+                published.add(article);
+            } else {
+                loaded.remove(article.getId());
+            }
+        }
+        Map<Long, String> contents = articleContentService.loadContents(published);
+        for (Article article : published) {
+            loaded.add(Document.of(article, contents.get(article.getId())));
+        }
+        log.info("搜索索引快照追赶完成 - 变更文章数: {}", changed.size());
+        return loaded;
+    }
+
+    /**
+     * 按ID分批读取已发布文章建立索引，避免一次性加载全部正文
+     */
+    private InvertedIndex loadFromDatabase() {
+        InvertedIndex built = new InvertedIndex();
+        long lastId = 0L;
+        while (true) {
+            QueryWrapper<Article> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("id", "title", "summary", "content", "status")
+                    .eq("deleted", 0)
+                    .eq("status", Article.Status.PUBLISHED.getValue())
+                    .gt("id", lastId)
+                    .orderByAsc("id")
+                    .last("LIMIT " + REBUILD_BATCH_SIZE);
+            List<Article> batch = articleMapper.selectList(queryWrapper);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Map<Long, String> contents = articleContentService.loadContents(batch);
+            for (Article article : batch) {
+                built.add(Document.of(article, contents.get(article.getId())));
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+        }
+        return built;
+    }
+
+    /**
+     * 在锁外构建新索引，期间的增量变更记录下来，构建完成后重放并切换
+     */
+    private synchronized int install(Supplier<InvertedIndex> loader, String scene) {
+        long startTime = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        InvertedIndex built;
+        try {
+            built = loader.get();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuildJournal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rebuildJournal.forEach(change -> change.accept(built));
+            rebuildJournal = null;
+            index = built;
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("搜索索引{}完成 - 文章数: {}, 词条数: {}, 耗时: {}ms",
+                scene, built.liveCount(), built.postings.size(), System.currentTimeMillis() - startTime);
+        return built.liveCount();
+    }
+
+    private void ensureLoaded() {
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        synchronized (this) {
+            if (index == null) {
+                rebuild();
+            }
+        }
+    }
+
+    private void mutate(Consumer<InvertedIndex> change) {
+        TransactionUtils.runAfterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (index != null) {
+                    change.accept(index);
+                    dirty = true;
+                }
+                if (rebuildJournal != null) {
+                    rebuildJournal.add(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * 分词后的文档，在调用方线程中完成分词，写锁内只做倒排表追加
+     */
+    private record Document(long articleId, int length, String[] terms, int[] titleFreqs, int[] bodyFreqs) {
+
+        static Document of(Article article, String content) {
+            Map<String, int[]> frequencies = new HashMap<>();
+            int length = 0;
+            for (SearchTokenizer.Token token : SearchTokenizer.tokenizeForIndex(article.getTitle())) {
+                frequencies.computeIfAbsent(token.term(), k -> new int[2])[0]++;
+                length++;
+            }
+            for (String body : new String[]{article.getSummary(), content}) {
+                for (SearchTokenizer.Token token : SearchTokenizer.tokenizeForIndex(body)) {
+                    frequencies.computeIfAbsent(token.term(), k -> new int[2])[1]++;
+                    length++;
+                }
+            }
+
+            String[] terms = new String[frequencies.size()];
+            int[] titleFreqs = new int[terms.length];
+            int[] bodyFreqs = new int[terms.length];
+            int i = 0;
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                terms[i] = entry.getKey();
+                titleFreqs[i] = entry.getValue()[0];
+                bodyFreqs[i] = entry.getValue()[1];
+                i++;
+            }
+            return new Document(article.getId(), length, terms, titleFreqs, bodyFreqs);
+        }
+    }
+
+    /**
+     * 单个词的倒排表，文档序号严格递增
+     */
+    private static final class Postings {
+
+        private int size;
+        private int[] docs = new int[2];
+        private int[] titleFreqs = new int[2];
+        private int[] bodyFreqs = new int[2];
+
+        void add(int doc, int titleFreq, int bodyFreq) {
+            if (size == docs.length) {
+                int capacity = size * 2;
+                docs = Arrays.copyOf(docs, capacity);
+                titleFreqs = Arrays.copyOf(titleFreqs, capacity);
+                bodyFreqs = Arrays.copyOf(bodyFreqs, capacity);
+            }
+            docs[size] = doc;
+            titleFreqs[size] = titleFreq;
+            bodyFreqs[size] = bodyFreq;
+            size++;
+        }
+
+        /**
+         * 从 from 开始查找 doc 的位置，不存在时返回负数
+         */
+        int seek(int from, int doc) {
+            return Arrays.binarySearch(docs, from, size, doc);
+        }
+    }
+
+    /**
+     * 倒排索引，非线程安全，由外层读写锁保护
+     */
+    private static final class InvertedIndex {
+
+        private int docCount;
+        private long[] articleIds = new long[64];
+        private int[] docLengths = new int[64];
+        private long totalLength;
+        private final BitSet liveDocs = new BitSet();
+        private final Map<Long, Integer> docByArticle = new HashMap<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+
+        int liveCount() {
+            return docByArticle.size();
+        }
+
+        void add(Document document) {
+            remove(document.articleId());
+            if (docCount == articleIds.length) {
+                articleIds = Arrays.copyOf(articleIds, docCount * 2);
+                docLengths = Arrays.copyOf(docLengths, docCount * 2);
+            }
+            int doc = docCount++;
+            articleIds[doc] = document.articleId();
+            docLengths[doc] = document.length();
+            liveDocs.set(doc);
+            docByArticle.put(document.articleId(), doc);
+            totalLength += document.length();
+
+            String[] terms = document.terms();
+            for (int i = 0; i < terms.length; i++) {
+                postings.computeIfAbsent(terms[i], k -> new Postings())
+                        .add(doc, document.titleFreqs()[i], document.bodyFreqs()[i]);
+            }
+
+            // 已删除文档超过存活文档时压缩，保证倒排表长度和文档频率不被删除标记拖累
+            if (docCount - liveCount() > Math.max(1024, liveCount())) {
+                compact();
+            }
+        }
+
+        void remove(long articleId) {
+            Integer doc = docByArticle.remove(articleId);
+            if (doc != null) {
+                liveDocs.clear(doc);
+                totalLength -= docLengths[doc];
+            }
+        }
+
+        SearchHits search(Set<String> terms, LongPredicate filter, long offset, int size) {
+            int liveCount = liveCount();
+            if (liveCount == 0) {
+                return new SearchHits(List.of(), 0);
+            }
+
+            // 所有查询词都必须命中；从最短的倒排表开始求交
+            Postings[] lists = new Postings[terms.size()];
+            int n = 0;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    return new SearchHits(List.of(), 0);
+                }
+                lists[n++] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            double[] idf = new double[n];
+            for (int j = 0; j < n; j++) {
+                int df = Math.min(lists[j].size, liveCount);
+                idf[j] = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / liveCount);
+
+            int limit = (int) Math.min(Integer.MAX_VALUE - 8, offset + size);
+            TopHits topHits = new TopHits(limit);
+            int[] cursors = new int[n];
+            int[] positions = new int[n];
+            long total = 0;
+
+            Postings shortest = lists[0];
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                int doc = shortest.docs[i];
+                if (!liveDocs.get(doc)) {
+                    continue;
+                }
+
+                positions[0] = i;
+                for (int j = 1; j < n; j++) {
+                    int position = lists[j].seek(cursors[j], doc);
+                    if (position < 0) {
+                        cursors[j] = -position - 1;
+                        continue candidates;
+                    }
+                    cursors[j] = position;
+                    positions[j] = position;
+                }
+                if (filter != null && !filter.test(articleIds[doc])) {
+                    continue;
+                }
+
+                total++;
+                double lengthNorm = BM25_K1 * (1 - BM25_B + BM25_B * docLengths[doc] / averageLength);
+                double score = 0;
+                for (int j = 0; j < n; j++) {
+                    int p = positions[j];
+                    double tf = TITLE_BOOST * lists[j].titleFreqs[p] + lists[j].bodyFreqs[p];
+                    score += idf[j] * tf * (BM25_K1 + 1) / (tf + lengthNorm);
+                }
+                topHits.offer(doc, score);
+            }
+
+            int[] ranked = topHits.drainSorted();
+            List<Long> articleIds = new ArrayList<>();
+            for (int i = (int) Math.min(offset, ranked.length); i < ranked.length; i++) {
+                articleIds.add(this.articleIds[ranked[i]]);
+            }
+            return new SearchHits(articleIds, total);
+        }
+
+        /**
+         * 回收已删除文档：重新编号存活文档并过滤所有倒排表
+         */
+        void compact() {
+            int[] remap = new int[docCount];
+            int live = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (liveDocs.get(doc)) {
+                    articleIds[live] = articleIds[doc];
+                    docLengths[live] = docLengths[doc];
+                    remap[doc] = live++;
+                } else {
+                    remap[doc] = -1;
+                }
+            }
+
+            Iterator<Postings> iterator = postings.values().iterator();
+            while (iterator.hasNext()) {
+                Postings list = iterator.next();
+                int kept = 0;
+                for (int i = 0; i < list.size; i++) {
+                    int doc = remap[list.docs[i]];
+                    if (doc >= 0) {
+                        list.docs[kept] = doc;
+                        list.titleFreqs[kept] = list.titleFreqs[i];
+                        list.bodyFreqs[kept] = list.bodyFreqs[i];
+                        kept++;
+                    }
+                }
+                list.size = kept;
+                if (kept == 0) {
+                    iterator.remove();
+                }
+            }
+
+            docCount = live;
+            liveDocs.clear();
+            liveDocs.set(0, live);
+            docByArticle.clear();
+            for (int doc = 0; doc < live; doc++) {
+                docByArticle.put(articleIds[doc], doc);
+            }
+        }
+
+        /**
+         * 写出快照：只写存活文档，文档序号按写出顺序重新编号
+         */
+        void writeTo(DataOutputStream out) throws IOException {
+            int[] remap = new int[docCount];
+            int live = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                remap[doc] = liveDocs.get(doc) ? live++ : -1;
+            }
+            out.writeInt(live);
+            for (int doc = liveDocs.nextSetBit(0); doc >= 0; doc = liveDocs.nextSetBit(doc + 1)) {
+                out.writeLong(articleIds[doc]);
+                out.writeInt(docLengths[doc]);
+            }
+
+            List<Map.Entry<String, Postings>> entries = new ArrayList<>();
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                Postings list = entry.getValue();
+                for (int i = 0; i < list.size; i++) {
+                    if (remap[list.docs[i]] >= 0) {
+                        entries.add(entry);
+                        break;
+                    }
+                }
+            }
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Postings> entry : entries) {
+                Postings list = entry.getValue();
+                int liveSize = 0;
+                for (int i = 0; i < list.size; i++) {
+                    if (remap[list.docs[i]] >= 0) {
+                        liveSize++;
+                    }
+                }
+                out.writeUTF(entry.getKey());
+                out.writeInt(liveSize);
+                for (int i = 0; i < list.size; i++) {
+                    int doc = remap[list.docs[i]];
+                    if (doc >= 0) {
+                        out.writeInt(doc);
+                        out.writeInt(list.titleFreqs[i]);
+                        out.writeInt(list.bodyFreqs[i]);
+                    }
+                }
+            }
+        }
+
+        static InvertedIndex readFrom(DataInputStream in) throws IOException {
+            InvertedIndex loaded = new InvertedIndex();
+            int docCount = in.readInt();
+            loaded.articleIds = new long[Math.max(64, docCount)];
+            loaded.docLengths = new int[Math.max(64, docCount)];
+            for (int doc = 0; doc < docCount; doc++) {
+                long articleId = in.readLong();
+                int length = in.readInt();
+                loaded.articleIds[doc] = articleId;
+                loaded.docLengths[doc] = length;
+                loaded.docByArticle.put(articleId, doc);
+                loaded.totalLength += length;
+            }
+            loaded.docCount = docCount;
+            loaded.liveDocs.set(0, docCount);
+
+            int termCount = in.readInt();
+            for (int t = 0; t < termCount; t++) {
+                String term = in.readUTF();
+                int size = in.readInt();
+                Postings list = new Postings();
+                list.docs = new int[Math.max(2, size)];
+                list.titleFreqs = new int[Math.max(2, size)];
+                list.bodyFreqs = new int[Math.max(2, size)];
+                for (int i = 0; i < size; i++) {
+                    list.add(in.readInt(), in.readInt(), in.readInt());
+                }
+                loaded.postings.put(term, list);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * 按分数保留前 K 个文档的小顶堆，堆顶是当前排名最靠后的文档；分数相同时较新的文档（序号较大）排在前面
+     */
+    private static final class TopHits {
+
+        private final int capacity;
+        private int[] docs;
+        private double[] scores;
+        private int size;
+
+        TopHits(int capacity) {
+            this.capacity = capacity;
+            int initial = Math.max(1, Math.min(capacity, 64));
+            docs = new int[initial];
+            scores = new double[initial];
+        }
+
+        void offer(int doc, double score) {
+            if (capacity == 0) {
+                return;
+            }
+            if (size < capacity) {
+                if (size == docs.length) {
+                    int grown = (int) Math.min(capacity, (long) size * 2);
+                    docs = Arrays.copyOf(docs, grown);
+                    scores = Arrays.copyOf(scores, grown);
+                }
+                siftUp(size++, doc, score);
+            } else if (compare(doc, score, docs[0], scores[0]) > 0) {
+                siftDown(doc, score);
+            }
+        }
+
+        /**
+         * 依次弹出堆顶，返回按排名从前到后排列的文档序号
+         */
+        int[] drainSorted() {
+            int[] ranked = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                ranked[i] = docs[0];
+                size--;
+                if (size > 0) {
+                    siftDown(docs[size], scores[size]);
+                }
+            }
+            return ranked;
+        }
+
+        /**
+         * 返回正数表示 a 排在 b 前面
+         */
+        private static int compare(int docA, double scoreA, int docB, double scoreB) {
+            int result = Double.compare(scoreA, scoreB);
+            return result != 0 ? result : Integer.compare(docA, docB);
+        }
+
+        private void siftUp(int index, int doc, double score) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (compare(doc, score, docs[parent], scores[parent]) >= 0) {
+                    break;
+                }
+                docs[index] = docs[parent];
+                scores[index] = scores[parent];
+                index = parent;
+            }
+            docs[index] = doc;
+            scores[index] = score;
+        }
+
+        private void siftDown(int doc, double score) {
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && compare(docs[child + 1], scores[child + 1], docs[child], scores[child]) < 0) {
+                    child++;
+                }
+                if (compare(doc, score, docs[child], scores[child]) <= 0) {
+                    break;
+                }
+                docs[index] = docs[child];
+                scores[index] = scores[child];
+                index = child;
+            }
+            docs[index] = doc;
+            scores[index] = score;
+        }
+    }
+}
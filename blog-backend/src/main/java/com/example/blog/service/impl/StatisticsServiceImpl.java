@@ -0,0 +1,331 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.blog.entity.Article;
+import com.example.blog.entity.User;
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.mapper.UserMapper;
+import com.example.blog.service.StatisticsService;
+import com.example.blog.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * 统计计数服务实现
+ * 文章按状态计数，最近7天的新增文章按小时分桶放在环形数组中，读取时只累加窗口内的桶（精度为1小时）；
+ * 用户按 (角色, 状态) 计数。所有变更在事务提交后应用，对账期间的变更记录下来并重放到对账结果上
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatisticsServiceImpl implements StatisticsService {
+
+    private static final int RECENT_DAYS = 7;
+
+    /**
+     * 7天共168小时，多留一个桶容纳窗口起点所在的不完整小时
+     */
+    private static final int RECENT_BUCKETS = RECENT_DAYS * 24 + 1;
+
+    private static final String PUBLISHED = Article.Status.PUBLISHED.getValue();
+    private static final String DRAFT = Article.Status.DRAFT.getValue();
+    private static final String ACTIVE = User.Status.ACTIVE.getValue();
+
+    private final ArticleMapper articleMapper;
+    private final UserMapper userMapper;
+
+    private final Object reconcileLock = new Object();
+
+    /**
+     * 当前计数，首次对账前为 null
+     */
+    private Counters counters;
+
+    /**
+     * 对账期间发生的变更
+     */
+    private List<Consumer<Counters>> reconcileJournal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("统计计数初始化失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getArticleStatistics() {
+        Counters current = ensureLoaded();
+        long sinceHour = hourOf(LocalDateTime.now().minusDays(RECENT_DAYS));
+        Map<String, Object> statistics = new HashMap<>();
+        synchronized (this) {
+            statistics.put("totalArticles", current.articleTotal());
+            statistics.put("publishedCount", current.articlesByStatus.getOrDefault(PUBLISHED, 0L));
+            statistics.put("draftCount", current.articlesByStatus.getOrDefault(DRAFT, 0L));
+            statistics.put("recentArticleCount", current.recentArticles(sinceHour));
+        }
+        return statistics;
+    }
+
+    @Override
+    public long getTotalUserCount() {
+        Counters current = ensureLoaded();
+        synchronized (this) {
+            return current.usersByRoleAndStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    @Override
+    public long getActiveUserCount() {
+        Counters current = ensureLoaded();
+        synchronized (this) {
+            return current.usersByRoleAndStatus.entrySet().stream()
+                    .filter(entry -> ACTIVE.equals(entry.getKey().status()))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+    }
+
+    @Override
+    public long getUserCountByRole(String role) {
+        Counters current = ensureLoaded();
+        synchronized (this) {
+            return current.usersByRoleAndStatus.entrySet().stream()
+                    .filter(entry -> Objects.equals(role, entry.getKey().role()))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+    }
+
+    @Override
+    public void onArticleCreated(String status, LocalDateTime createTime) {
+        mutate(current -> current.addArticle(status, createTime, 1));
+    }
+
+    @Override
+    public void onArticleStatusChanged(String oldStatus, String newStatus) {
+        if (Objects.equals(oldStatus, newStatus)) {
+            return;
+        }
+        mutate(current -> {
+            current.addArticleStatus(oldStatus, -1);
+            current.addArticleStatus(newStatus, 1);
+        });
+    }
+
+    @Override
+    public void onArticleDeleted(String status, LocalDateTime createTime) {
+        mutate(current -> current.addArticle(status, createTime, -1));
+    }
+
+    @Override
+    public void onUserRegistered(User user) {
+        UserKey key = UserKey.of(user.getRole(), user.getStatus());
+        mutate(current -> current.addUser(key, 1));
+    }
+
+    @Override
+    public void onUserDeleted(User user) {
+        UserKey key = UserKey.of(user.getRole(), user.getStatus());
+        mutate(current -> current.addUser(key, -1));
+    }
+
+    @Override
+    public void onUserRoleChanged(User user, String oldRole) {
+        UserKey from = UserKey.of(oldRole, user.getStatus());
+        UserKey to = UserKey.of(user.getRole(), user.getStatus());
+        if (from.equals(to)) {
+            return;
+        }
+        mutate(current -> {
+            current.addUser(from, -1);
+            current.addUser(to, 1);
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.statistics.reconcile-interval:600000}",
+            initialDelayString = "${blog.statistics.reconcile-interval:600000}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            doReconcile();
+        }
+    }
+
+    private void doReconcile() {
+        synchronized (this) {
+            reconcileJournal = new ArrayList<>();
+        }
+
+        Counters loaded;
+        try {
+            loaded = load();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                reconcileJournal = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            reconcileJournal.forEach(change -> change.accept(loaded));
+            reconcileJournal = null;
+            if (counters != null && !counters.sameTotals(loaded)) {
+                log.info("统计计数对账修正 - 文章: {} -> {}, 用户: {} -> {}",
+                        counters.articleTotal(), loaded.articleTotal(), counters.userTotal(), loaded.userTotal());
+            }
+            counters = loaded;
+        }
+    }
+
+    private Counters ensureLoaded() {
+        synchronized (this) {
+            if (counters != null) {
+                return counters;
+            }
+        }
+        reconcile();
+        synchronized (this) {
+            return counters;
+        }
+    }
+
+    private void mutate(Consumer<Counters> change) {
+        TransactionUtils.runAfterCommit(() -> {
+            synchronized (this) {
+                if (counters != null) {
+                    change.accept(counters);
+                }
+                if (reconcileJournal != null) {
+                    reconcileJournal.add(change);
+                }
+            }
+        });
+    }
+
+    private Counters load() {
+        Counters loaded = new Counters();
+
+        QueryWrapper<Article> statusWrapper = new QueryWrapper<>();
+        statusWrapper.select("status", "COUNT(*) AS total").eq("deleted", 0).groupBy("status");
+        for (Map<String, Object> row : articleMapper.selectMaps(statusWrapper)) {
+            loaded.addArticleStatus((String) value(row, "status"), ((Number) value(row, "total")).longValue());
+        }
+
+        // 最近7天的文章只取创建时间，数量与近期发文量相关
+        QueryWrapper<Article> recentWrapper = new QueryWrapper<>();
+        recentWrapper.select("create_time").eq("deleted", 0).ge("create_time", LocalDateTime.now().minusDays(RECENT_DAYS));
+        for (Article article : articleMapper.selectList(recentWrapper)) {
+            loaded.addRecent(article.getCreateTime(), 1);
+        }
+
+        QueryWrapper<User> userWrapper = new QueryWrapper<>();
+        userWrapper.select("role", "status", "COUNT(*) AS total").eq("deleted", 0).groupBy("role", "status");
+        for (Map<String, Object> row : userMapper.selectMaps(userWrapper)) {
+            UserKey key = UserKey.of((String) value(row, "role"), (String) value(row, "status"));
+            loaded.addUser(key, ((Number) value(row, "total")).longValue());
+        }
+        return loaded;
+    }
+
+    /**
+     * 兼容不同数据库返回的列名大小写（H2 默认大写）
+     */
+    private static Object value(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value != null ? value : row.get(column.toUpperCase(Locale.ROOT));
+    }
+
+    private static long hourOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    /**
+     * 用户计数维度；注册时未设置的角色和状态按数据库默认值 USER / ACTIVE 计
+     */
+    private record UserKey(String role, String status) {
+
+        static UserKey of(String role, String status) {
+            return new UserKey(role != null ? role : User.Role.USER.getValue(), status != null ? status : ACTIVE);
+        }
+    }
+
+    /**
+     * 计数器，非线程安全，由外层对象锁保护
+     */
+    private static final class Counters {
+
+        private final Map<String, Long> articlesByStatus = new HashMap<>();
+        private final long[] recentBuckets = new long[RECENT_BUCKETS];
+        private final long[] bucketHours = new long[RECENT_BUCKETS];
+        private final Map<UserKey, Long> usersByRoleAndStatus = new HashMap<>();
+
+        Counters() {
+            Arrays.fill(bucketHours, Long.MIN_VALUE);
+        }
+
+        void addArticle(String status, LocalDateTime createTime, long delta) {
+            addArticleStatus(status, delta);
+            addRecent(createTime, delta);
+        }
+
+        void addArticleStatus(String status, long delta) {
+            articlesByStatus.merge(status != null ? status : DRAFT, delta, Long::sum);
+        }
+
+        void addRecent(LocalDateTime createTime, long delta) {
+            if (createTime == null) {
+                return;
+            }
+            long hour = hourOf(createTime);
+            int index = (int) Math.floorMod(hour, (long) RECENT_BUCKETS);
+            if (bucketHours[index] != hour) {
+                // 桶中是窗口外的旧数据：新的小时直接覆盖，更早的小时已不在窗口内，忽略
+                if (bucketHours[index] > hour) {
+                    return;
+                }
+                bucketHours[index] = hour;
+                recentBuckets[index] = 0;
+            }
+            recentBuckets[index] += delta;
+        }
+
+        long recentArticles(long sinceHour) {
+            long total = 0;
+            for (int i = 0; i < RECENT_BUCKETS; i++) {
+                if (bucketHours[i] >= sinceHour) {
+                    total += recentBuckets[i];
+                }
+            }
+            return total;
+        }
+
+        void addUser(UserKey key, long delta) {
+            usersByRoleAndStatus.merge(key, delta, Long::sum);
+        }
+
+        long articleTotal() {
+            return articlesByStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        long userTotal() {
+            return usersByRoleAndStatus.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        boolean sameTotals(Counters other) {
+            return articlesByStatus.equals(other.articlesByStatus)
+                    && usersByRoleAndStatus.equals(other.usersByRoleAndStatus);
+        }
+    }
+}
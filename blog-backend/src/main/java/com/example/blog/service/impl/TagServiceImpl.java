@@ -3,6 +3,9 @@ package com.example.blog.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.example.blog.entity.Tag;
 import com.example.blog.mapper.TagMapper;
+import com.example.blog.service.ArticleCountService;
+import com.example.blog.service.ArticleDetailCacheService;
+import com.example.blog.service.ResponseCacheService;
 import com.example.blog.service.TagService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,6 +22,9 @@ import java.util.List;
 public class TagServiceImpl implements TagService {
 
     private final TagMapper tagMapper;
+    private final ArticleDetailCacheService articleDetailCacheService;
+    private final ResponseCacheService responseCacheService;
+    private final ArticleCountService articleCountService;
 
     @Override
     @Transactional
@@ -56,6 +62,8 @@ public class TagServiceImpl implements TagService {
         // 更新标签信息
         tag.setId(id);
         tagMapper.updateById(tag);
+        articleDetailCacheService.invalidateByTag(id);
+        responseCacheService.invalidate();
 
         return getTagById(id);
     }
@@ -69,6 +77,8 @@ public class TagServiceImpl implements TagService {
         }
 
         // 删除标签（由于有外键级联删除，会自动删除文章标签关联）
+        articleDetailCacheService.invalidateByTag(id);
+        responseCacheService.invalidate();
         return tagMapper.deleteById(id) > 0;
     }
 
@@ -117,23 +127,13 @@ public class TagServiceImpl implements TagService {
     }
 
     @Override
-    @Transactional
     public void incrementArticleCount(Long tagId) {
-        Tag tag = tagMapper.selectById(tagId);
-        if (tag != null) {
-            tag.setArticleCount((tag.getArticleCount() == null ? 0 : tag.getArticleCount()) + 1);
-            tagMapper.updateById(tag);
-        }
+        articleCountService.addTagCounts(List.of(tagId), 1);
     }
 
     @Override
-    @Transactional
     public void decrementArticleCount(Long tagId) {
-        Tag tag = tagMapper.selectById(tagId);
-        if (tag != null && tag.getArticleCount() != null && tag.getArticleCount() > 0) {
-            tag.setArticleCount(tag.getArticleCount() - 1);
-            tagMapper.updateById(tag);
-        }
+        articleCountService.addTagCounts(List.of(tagId), -1);
     }
 
     @Override
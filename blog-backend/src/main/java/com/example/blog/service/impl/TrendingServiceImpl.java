@@ -0,0 +1,301 @@
+package com.example.blog.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.blog.entity.ArticleLike;
+import com.example.blog.mapper.ArticleLikeMapper;
+import com.example.blog.service.ArticleCatalogService;
+import com.example.blog.service.TrendingService;
+import com.example.blog.util.BoundedCache;
+import com.example.blog.util.DeltaCounterBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 热门文章趋势服务实现
+ * 得分采用前向衰减：事件在时刻 t 以 weight * e^(λ(t - t0)) 计入，t0 为基准时间。
+ * 所有文章按同一因子衰减，相对顺序不随时间改变，因此无需定时衰减全部得分，候选集合也不必重排；
+ * 查询时乘以 e^(-λ(now - t0)) 即为当前得分。定期重设基准时间，避免指数因子溢出。
+ * 事件只会使得分增加，文章只有在自身得分上升时才可能进入候选集合，每次事件只需与候选集合中的最小值比较。
+ * 浏览等事件先按文章累加到增量缓冲区，由定时任务在一次写锁内批量计入，热点路径上不争抢全局锁
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrendingServiceImpl implements TrendingService {
+
+    private static final long VIEW_WEIGHT = 1L;
+    private static final long LIKE_WEIGHT = 5L;
+    private static final long COMMENT_WEIGHT = 8L;
+
+    /**
+     * 每个窗口保留的候选数量，大于单次查询上限，为草稿、已删除文章留出余量
+     */
+    private static final int CANDIDATE_CAPACITY = 200;
+
+    /**
+     * 单次查询的最大条数
+     */
+    private static final int MAX_LIMIT = 50;
+
+    /**
+     * 所有窗口的当前得分都低于该值时，文章从内存中移除
+     */
+    private static final double EVICTION_THRESHOLD = 0.01;
+
+    /**
+     * 距基准时间超过该时长时在写入路径上立即重设基准，防止定时任务停滞导致溢出
+     */
+    private static final long MAX_BASE_AGE_MILLIS = 24L * 60 * 60 * 1000;
+
+    /**
+     * 启动时回放点赞记录的时间范围
+     */
+    private static final long WARM_UP_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    /**
+     * 已计分的点赞记录上限，超过后按访问频率淘汰，被淘汰的记录再次点赞时会重新计分
+     */
+    private static final int CREDITED_LIKE_CAPACITY = 100_000;
+
+    private static final Window[] WINDOWS = Window.values();
+
+    private static final Comparator<Candidate> CANDIDATE_ORDER = Comparator
+            .comparingDouble(Candidate::score).reversed()
+            .thenComparing(Comparator.comparingLong(Candidate::articleId).reversed());
+
+    private final ArticleCatalogService articleCatalogService;
+    private final ArticleLikeMapper articleLikeMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 文章ID -> 尚未计入得分的事件权重之和
+     */
+    private final DeltaCounterBuffer<Long> pendingWeights = new DeltaCounterBuffer<>();
+
+    /**
+     * 已计分的 (文章, 用户) 点赞，保留时长与预热范围一致，更早的点赞对得分的贡献已可以忽略
+     */
+    private final BoundedCache<LikeKey, Boolean> creditedLikes = new BoundedCache<>(CREDITED_LIKE_CAPACITY, WARM_UP_MILLIS);
+
+    /**
+     * 文章ID -> 各窗口以 baseTime 为基准的得分
+     */
+    private final Map<Long, double[]> scores = new HashMap<>();
+
+    private final List<TreeSet<Candidate>> candidates = new ArrayList<>();
+    private final List<Map<Long, Candidate>> candidateIndex = new ArrayList<>();
+
+    private long baseTime = System.currentTimeMillis();
+
+    {
+        for (int w = 0; w < WINDOWS.length; w++) {
+            candidates.add(new TreeSet<>(CANDIDATE_ORDER));
+            candidateIndex.add(new HashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            warmUp();
+        } catch (Exception e) {
+            // 预热失败时从空状态开始累计
+            log.error("热门文章预热失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void recordView(Long articleId) {
+        buffer(articleId, VIEW_WEIGHT);
+    }
+
+    @Override
+    public void recordLike(Long articleId, Long userId) {
+        if (articleId == null || userId == null) {
+            return;
+        }
+        LikeKey key = new LikeKey(articleId, userId);
+        if (creditedLikes.getIfPresent(key) != null) {
+            return;
+        }
+        creditedLikes.get(key, k -> Boolean.TRUE);
+        buffer(articleId, LIKE_WEIGHT);
+    }
+
+    @Override
+    public void recordComment(Long articleId) {
+        buffer(articleId, COMMENT_WEIGHT);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.trending.apply-interval:1000}")
+    public int applyPending() {
+        Map<Long, Long> weights = pendingWeights.drain();
+        if (weights.isEmpty()) {
+            return 0;
+        }
+
+        // 一批事件按同一时刻计入，误差不超过调度间隔，相对于小时级的半衰期可以忽略
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            weights.forEach((articleId, weight) -> record(articleId, weight, now));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return weights.size();
+    }
+
+    @Override
+    public List<TrendingArticle> getTrending(Window window, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int w = window.ordinal();
+
+        lock.readLock().lock();
+        try {
+            double decay = Math.exp(-lambda(window) * (System.currentTimeMillis() - baseTime));
+            List<TrendingArticle> result = new ArrayList<>(size);
+            for (Candidate candidate : candidates.get(w)) {
+                if (result.size() >= size) {
+                    break;
+                }
+                if (articleCatalogService.isPublished(candidate.articleId())) {
+                    result.add(new TrendingArticle(candidate.articleId(), candidate.score() * decay));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.trending.rebase-interval:600000}",
+            initialDelayString = "${blog.trending.rebase-interval:600000}")
+    public void rebase() {
+        lock.writeLock().lock();
+        try {
+            int before = scores.size();
+            rebaseLocked(System.currentTimeMillis());
+            log.debug("热门文章得分重设基准 - 文章数: {} -> {}", before, scores.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 回放最近一段时间的点赞记录；浏览记录没有时间戳，不参与预热
+     */
+    private void warmUp() {
+        LocalDateTime since = LocalDateTime.now().minusNanos(WARM_UP_MILLIS * 1_000_000L);
+        QueryWrapper<ArticleLike> wrapper = new QueryWrapper<>();
+        wrapper.select("article_id", "user_id", "create_time").ge("create_time", since);
+        List<ArticleLike> likes = articleLikeMapper.selectList(wrapper);
+        lock.writeLock().lock();
+        try {
+            for (ArticleLike like : likes) {
+                if (like.getArticleId() != null && like.getCreateTime() != null) {
+                    record(like.getArticleId(), LIKE_WEIGHT,
+                            like.getCreateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                    if (like.getUserId() != null) {
+                        creditedLikes.get(new LikeKey(like.getArticleId(), like.getUserId()), k -> Boolean.TRUE);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("热门文章预热完成 - 点赞记录: {}", likes.size());
+    }
+
+    private void buffer(Long articleId, long weight) {
+        if (articleId != null) {
+            pendingWeights.add(articleId, weight);
+        }
+    }
+
+    /**
+     * 计入一次事件，调用方需持有写锁
+     */
+    private void record(long articleId, double weight, long eventTime) {
+        if (eventTime - baseTime > MAX_BASE_AGE_MILLIS) {
+            rebaseLocked(eventTime);
+        }
+        double[] articleScores = scores.computeIfAbsent(articleId, id -> new double[WINDOWS.length]);
+        for (int w = 0; w < WINDOWS.length; w++) {
+            articleScores[w] += weight * Math.exp(lambda(WINDOWS[w]) * (eventTime - baseTime));
+            offer(w, articleId, articleScores[w]);
+        }
+    }
+
+    /**
+     * 用新得分更新候选集合：已在集合中的直接替换；不在集合中的只有超过当前最小值时才挤掉最小值
+     */
+    private void offer(int w, long articleId, double score) {
+        TreeSet<Candidate> top = candidates.get(w);
+        Map<Long, Candidate> index = candidateIndex.get(w);
+        Candidate updated = new Candidate(articleId, score);
+
+        Candidate existing = index.get(articleId);
+        if (existing != null) {
+            top.remove(existing);
+        } else if (top.size() >= CANDIDATE_CAPACITY) {
+            Candidate last = top.last();
+            if (CANDIDATE_ORDER.compare(updated, last) >= 0) {
+                return;
+            }
+            top.pollLast();
+            index.remove(last.articleId());
+        }
+        top.add(updated);
+        index.put(articleId, updated);
+    }
+
+    private void rebaseLocked(long now) {
+        double[] factors = new double[WINDOWS.length];
+        for (int w = 0; w < WINDOWS.length; w++) {
+            factors[w] = Math.exp(-lambda(WINDOWS[w]) * (now - baseTime));
+            candidates.get(w).clear();
+            candidateIndex.get(w).clear();
+        }
+        baseTime = now;
+
+        Iterator<Map.Entry<Long, double[]>> iterator = scores.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, double[]> entry = iterator.next();
+            double[] articleScores = entry.getValue();
+            boolean alive = false;
+            for (int w = 0; w < WINDOWS.length; w++) {
+                articleScores[w] *= factors[w];
+                alive |= articleScores[w] >= EVICTION_THRESHOLD;
+            }
+            if (!alive) {
+                iterator.remove();
+                continue;
+            }
+            for (int w = 0; w < WINDOWS.length; w++) {
+                offer(w, entry.getKey(), articleScores[w]);
+            }
+        }
+    }
+
+    private static double lambda(Window window) {
+        return Math.log(2) / window.getHalfLifeMillis();
+    }
+
+    private record Candidate(long articleId, double score) {
+    }
+
+    private record LikeKey(long articleId, long userId) {
+    }
+}
@@ -10,6 +10,9 @@ import com.example.blog.entity.User;
 import com.example.blog.enums.UserRole;
 import com.example.blog.exception.BusinessException;
 import com.example.blog.mapper.UserMapper;
+import com.example.blog.service.ArticleDetailCacheService;
+import com.example.blog.service.ResponseCacheService;
+import com.example.blog.service.StatisticsService;
 import com.example.blog.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +28,9 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
+    private final StatisticsService statisticsService;
+    private final ArticleDetailCacheService articleDetailCacheService;
+    private final ResponseCacheService responseCacheService;
 
     @Override
     public User getUserById(Long id) {
@@ -103,6 +109,7 @@ public class UserServiceImpl implements UserService {
         user.setUpdateTime(LocalDateTime.now());
 
         userMapper.insert(user);
+        statisticsService.onUserRegistered(user);
         log.info("用户注册成功 - username: {}", user.getUsername());
 
         // 返回用户信息（不包含密码）
@@ -160,6 +167,11 @@ public class UserServiceImpl implements UserService {
         existingUser.setUpdatedAt(LocalDateTime.now());
 
         int result = userMapper.updateById(existingUser);
+        if (result > 0) {
+            // 文章详情中带有作者昵称和头像
+            articleDetailCacheService.invalidateByAuthor(userId);
+            responseCacheService.invalidate();
+        }
         return result > 0;
     }
 
@@ -225,6 +237,9 @@ public class UserServiceImpl implements UserService {
         int result = userMapper.update(null, updateWrapper);
 
         if (result > 0) {
+            statisticsService.onUserDeleted(user);
+            articleDetailCacheService.invalidateByAuthor(userId);
+            responseCacheService.invalidate();
             log.info("用户删除成功 - userId: {}, username: {}", userId, user.getUsername());
         }
 
@@ -235,9 +250,11 @@ public class UserServiceImpl implements UserService {
     @Override
     public User assignAdminRole(Long id) {
         User user = getUserById(id);
+        String oldRole = user.getRole();
         user.setRole(UserRole.ADMIN.toString());
         user.setUpdateTime(LocalDateTime.now());
         userMapper.updateById(user);
+        statisticsService.onUserRoleChanged(user, oldRole);
 
         log.info("分配管理员权限成功 - userId: {}", id);
         return user;
@@ -246,9 +263,11 @@ public class UserServiceImpl implements UserService {
     @Override
     public User removeAdminRole(Long id) {
         User user = getUserById(id);
+        String oldRole = user.getRole();
         user.setRole(UserRole.USER.toString());
         user.setUpdateTime(LocalDateTime.now());
         userMapper.updateById(user);
+        statisticsService.onUserRoleChanged(user, oldRole);
 
         log.info("移除管理员权限成功 - userId: {}", id);
         return user;
@@ -278,22 +297,16 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public int getTotalUserCount() {
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("deleted", 0);
-        return Math.toIntExact(userMapper.selectCount(queryWrapper));
+        return Math.toIntExact(statisticsService.getTotalUserCount());
     }
 
     @Override
     public int getActiveUserCount() {
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("deleted", 0).eq("status", "ACTIVE");
-        return Math.toIntExact(userMapper.selectCount(queryWrapper));
+        return Math.toIntExact(statisticsService.getActiveUserCount());
     }
 
     @Override
     public int getUserCountByRole(UserRole role) {
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("deleted", 0).eq("role", role.toString());
-        return Math.toIntExact(userMapper.selectCount(queryWrapper));
+        return Math.toIntExact(statisticsService.getUserCountByRole(role.toString()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.example.blog.service.impl;
+
+import com.example.blog.mapper.ArticleMapper;
+import com.example.blog.service.ArticleCatalogService;
+import com.example.blog.service.TrendingService;
+import com.example.blog.service.ViewCountService;
+import com.example.blog.util.BatchSqlExecutor;
+import com.example.blog.util.DeltaCounterBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * 文章浏览计数服务实现
+ * 每篇文章一个 LongAdder，热点文章的并发浏览分散到不同的 cell 上，不再争抢数据库行锁；
+ * 定期以 view_count = view_count + ? 的形式批量回写，应用关闭时排空缓冲区
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ViewCountServiceImpl implements ViewCountService {
+
+    private final BatchSqlExecutor batchSqlExecutor;
+    private final ArticleCatalogService articleCatalogService;
+    private final TrendingService trendingService;
+
+    private final DeltaCounterBuffer<Long> pendingViews = new DeltaCounterBuffer<>();
+
+    @Override
+    public void recordView(Long articleId) {
+        pendingViews.add(articleId, 1L);
+        trendingService.recordView(articleId);
+    }
+
+    @Override
+    public long getPendingViews(Long articleId) {
+        return pendingViews.get(articleId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.view-count.flush-interval:5000}")
+    public synchronized int flush() {
+        Map<Long, Long> deltas = pendingViews.drain();
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            batchSqlExecutor.execute(ArticleMapper.class, deltas.entrySet(),
+                    (mapper, delta) -> mapper.addViewCount(delta.getKey(), delta.getValue()));
+        } catch (Exception e) {
+            // 批量写入在同一事务中，失败时已整体回滚，把增量放回缓冲区等待下一轮重试
+            pendingViews.restore(deltas);
+            log.error("浏览次数批量落库失败: {}", e.getMessage());
+            return 0;
+        }
+
+        // 增量已经落库，之后的步骤失败也不能再放回缓冲区，否则下一轮会重复累加
+        articleCatalogService.addViewCounts(deltas);
+        log.debug("浏览次数批量落库 - 文章数: {}", deltas.size());
+        return deltas.size();
+    }
+
+    @PreDestroy
+    public void drain() {
+        int flushed = flush();
+        log.info("应用关闭，浏览次数缓冲区已排空 - 文章数: {}", flushed);
+    }
+}
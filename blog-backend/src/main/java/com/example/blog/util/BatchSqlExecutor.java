@@ -0,0 +1,61 @@
+package com.example.blog.util;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * MyBatis批量执行工具
+ * 使用 BATCH 执行器将同一 Mapper 语句合并为一次 JDBC batch 提交，用于计数器回写等高频写场景。
+ * 会话由 Spring 管理事务，脱离事务时每条语句各自提交、session.commit() 不起作用，
+ * 因此统一在事务中执行：要么全部写入，要么全部回滚，调用方可以安全地在失败时重试
+ */
+@Component
+@RequiredArgsConstructor
+public class BatchSqlExecutor {
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 在同一个事务、同一个 BATCH 会话中执行一组语句，结束时统一 flush 并提交；已处于事务中时加入当前事务
+     * 同一条 SQL 连续调用会被合并为一次 JDBC batch，不同 SQL 应分组连续调用；抛出异常时事务已回滚
+     */
+    public void execute(Consumer<SqlSession> work) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+                work.accept(session);
+                session.flushStatements();
+                session.commit();
+            }
+        });
+    }
+
+    /**
+     * 对每个元素调用一次 Mapper 语句，统一 flush 并提交
+     *
+     * @param mapperClass Mapper 接口
+     * @param items       待写入的数据
+     * @param statement   针对单个元素调用 Mapper 方法
+     * @return 提交的语句条数
+     */
+    public <M, E> int execute(Class<M> mapperClass, Collection<E> items, BiConsumer<M, E> statement) {
+        if (items == null || items.isEmpty()) {
+            return 0;
+        }
+        execute(session -> {
+            M mapper = session.getMapper(mapperClass);
+            for (E item : items) {
+                statement.accept(mapper, item);
+            }
+        });
+        return items.size();
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.blog.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 有界读穿缓存
+ * W-TinyLFU 思路：新条目先进入容量约 1% 的窗口 LRU，被挤出窗口时与主区 LRU 的淘汰候选比较访问频率
+ * （Count-Min Sketch 估算，定期减半衰减），频率更高者留下，防止一次性扫描冲掉热点数据。
+ * 按键的哈希分为若干段，每段各自持有窗口、主区和频率统计并独立加锁，不同段的读写互不阻塞。
+ * 条目带过期时间；同一个键的并发未命中只触发一次加载，加载期间被失效的结果不写入缓存
+ */
+public class BoundedCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * 每段至少容纳的条目数，容量较小时退化为单段
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 256;
+
+    private final long ttlNanos;
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+
+    private final ConcurrentHashMap<K, Loading<V>> loadings = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int maximumSize, long ttlMillis) {
+        int capacity = Math.max(2, maximumSize);
+        int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, capacity / MIN_SEGMENT_CAPACITY)));
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(Math.max(2, capacity / segmentCount));
+        }
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 加载；loader 抛出的异常原样传给所有等待者，不缓存
+     */
+    public V get(K key, Function<K, V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Loading<V> loading = new Loading<>();
+        Loading<V> existing = loadings.putIfAbsent(key, loading);
+        if (existing != null) {
+            return join(existing.future);
+        }
+
+        try {
+            V value = loader.apply(key);
+            Segment<K, V> segment = segmentFor(key);
+            synchronized (segment) {
+                if (!loading.invalidated && value != null && segment.put(key, value, System.nanoTime() + ttlNanos)) {
+                    evictions.increment();
+                }
+            }
+            loading.future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            loading.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadings.remove(key, loading);
+        }
+    }
+
+    public V getIfPresent(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 不更新访问顺序和统计地读取条目，用于就地调整缓存内容
+     */
+    public V peek(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.peek(key);
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+            Loading<V> loading = loadings.get(key);
+            if (loading != null) {
+                loading.invalidated = true;
+            }
+        }
+    }
+
+    /**
+     * 失效所有满足条件的条目，并放弃正在进行的加载结果（加载中的值无法判断条件）。
+     * 先标记加载再逐段清理：标记之前已写入的条目会被清理，标记之后完成的加载不会写入
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        loadings.values().forEach(loading -> loading.invalidated = true);
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.removeIf(predicate);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        invalidateIf(value -> true);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), loadFailures.sum(), size());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    /**
+     * 缓存分段，非线程安全，由调用方对段实例加锁
+     */
+    private static final class Segment<K, V> {
+
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<K, Entry<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+        private final FrequencySketch sketch;
+
+        Segment(int capacity) {
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = capacity - windowCapacity;
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        V get(K key) {
+            sketch.increment(key);
+            Entry<V> entry = window.get(key);
+            LinkedHashMap<K, Entry<V>> region = window;
+            if (entry == null) {
+                entry = main.get(key);
+                region = main;
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt - System.nanoTime() <= 0) {
+                region.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        V peek(K key) {
+            Entry<V> entry = window.get(key);
+            if (entry == null) {
+                entry = main.get(key);
+            }
+            return entry == null ? null : entry.value;
+        }
+
+        void remove(K key) {
+            window.remove(key);
+            main.remove(key);
+        }
+
+        void removeIf(Predicate<V> predicate) {
+            window.values().removeIf(entry -> predicate.test(entry.value));
+            main.values().removeIf(entry -> predicate.test(entry.value));
+        }
+
+        int size() {
+            return window.size() + main.size();
+        }
+
+        /**
+         * 写入条目，返回是否淘汰了一个条目
+         */
+        boolean put(K key, V value, long expiresAt) {
+            Entry<V> entry = new Entry<>(value, expiresAt);
+            if (main.containsKey(key)) {
+                main.put(key, entry);
+                return false;
+            }
+            window.put(key, entry);
+            if (window.size() <= windowCapacity) {
+                return false;
+            }
+
+            // 窗口溢出：最久未访问的条目作为候选者进入主区，主区已满时与主区的淘汰候选比较频率
+            Iterator<Map.Entry<K, Entry<V>>> iterator = window.entrySet().iterator();
+            Map.Entry<K, Entry<V>> candidate = iterator.next();
+            iterator.remove();
+            if (main.size() < mainCapacity) {
+                main.put(candidate.getKey(), candidate.getValue());
+                return false;
+            }
+
+            Iterator<Map.Entry<K, Entry<V>>> mainIterator = main.entrySet().iterator();
+            Map.Entry<K, Entry<V>> victim = mainIterator.next();
+            boolean victimExpired = victim.getValue().expiresAt - System.nanoTime() <= 0;
+            if (victimExpired || sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+                mainIterator.remove();
+                main.put(candidate.getKey(), candidate.getValue());
+            }
+            return true;
+        }
+    }
+
+    private static final class Loading<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile boolean invalidated;
+    }
+
+    /**
+     * 缓存统计
+     */
+    public record CacheStats(long hits, long misses, long evictions, long loadFailures, int size) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    /**
+     * 4 行的 Count-Min Sketch，计数上限 15；累计记录次数达到容量的 10 倍时所有计数减半，使频率随时间衰减
+     */
+    private static final class FrequencySketch {
+
+        private static final int DEPTH = 4;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[][] table;
+        private final int mask;
+        private final int resetThreshold;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, capacity * 4) - 1) << 1;
+            table = new byte[DEPTH][width];
+            mask = width - 1;
+            resetThreshold = capacity * 10;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (table[row][index] < 15) {
+                    table[row][index]++;
+                }
+            }
+            if (++additions >= resetThreshold) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, table[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+            additions /= 2;
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x45D9F3B;
+            return h ^ (h >>> 16);
+        }
+    }
+}
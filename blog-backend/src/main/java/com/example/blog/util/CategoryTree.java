@@ -0,0 +1,296 @@
+package com.example.blog.util;
+
+import com.example.blog.entity.Category;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 不可变的分类树快照
+ * 构建时按 sort_order、id 排序做一次先序遍历，每个分类的子树在先序序列中占据连续区间 [enter, exit)，
+ * 子树查询和祖先判断都只需比较区间端点。快照构建后不再修改，可以被任意线程无锁读取；
+ * 返回的分类实体均为副本
+ */
+public final class CategoryTree {
+
+    private static final Comparator<Category> ORDER = Comparator
+            .comparing((Category category) -> category.getSortOrder() == null ? 0 : category.getSortOrder())
+            .thenComparing(Category::getId);
+
+    private final long version;
+
+    /**
+     * 先序遍历序列中的分类ID
+     */
+    private final long[] preorder;
+
+    /**
+     * 以下数组按先序位置索引
+     */
+    private final Category[] categories;
+    private final int[] exit;
+    private final int[] depth;
+    private final int[] height;
+    private final int[] parentPosition;
+
+    private final Map<Long, Integer> positionById;
+    private final int[] rootPositions;
+
+    private CategoryTree(long version, List<Category> ordered, int[] exit, int[] depth, int[] parentPosition,
+                         int[] rootPositions) {
+        this.version = version;
+        this.categories = ordered.toArray(new Category[0]);
+        this.preorder = new long[categories.length];
+        this.positionById = new HashMap<>(categories.length * 2);
+        for (int i = 0; i < categories.length; i++) {
+            preorder[i] = categories[i].getId();
+            positionById.put(categories[i].getId(), i);
+        }
+        this.exit = exit;
+        this.depth = depth;
+        this.parentPosition = parentPosition;
+        this.rootPositions = rootPositions;
+        // 逆先序遍历时子分类总在父分类之前处理，一次扫描即可得到各子树高度
+        this.height = new int[categories.length];
+        for (int i = categories.length - 1; i >= 0; i--) {
+            int parent = parentPosition[i];
+            if (parent >= 0) {
+                height[parent] = Math.max(height[parent], height[i] + 1);
+            }
+        }
+    }
+
+    /**
+     * 由全部未删除的分类构建快照。父分类不存在的分类视为根分类；数据中存在环时，
+     * 环上 ID 最小的分类被当作根分类断开环，保证每个分类恰好出现一次
+     */
+    public static CategoryTree build(long version, Collection<Category> source) {
+        Map<Long, Category> byId = new HashMap<>(source.size() * 2);
+        source.forEach(category -> byId.put(category.getId(), category));
+
+        Map<Long, List<Category>> children = new HashMap<>();
+        List<Category> roots = new ArrayList<>();
+        for (Category category : byId.values()) {
+            Long parentId = category.getParentId();
+            if (category.isRootCategory() || !byId.containsKey(parentId) || parentId.equals(category.getId())) {
+                roots.add(category);
+            } else {
+                children.computeIfAbsent(parentId, id -> new ArrayList<>()).add(category);
+            }
+        }
+        roots.sort(ORDER);
+        children.values().forEach(list -> list.sort(ORDER));
+
+        List<Category> ordered = new ArrayList<>(byId.size());
+        int[] exit = new int[byId.size()];
+        int[] depth = new int[byId.size()];
+        int[] parentPosition = new int[byId.size()];
+        List<Integer> rootPositions = new ArrayList<>();
+        Map<Long, Boolean> visited = new HashMap<>(byId.size() * 2);
+
+        for (Category root : roots) {
+            rootPositions.add(ordered.size());
+            traverse(root, -1, children, ordered, exit, depth, parentPosition, visited);
+        }
+        if (ordered.size() < byId.size()) {
+            // 剩余未访问的分类只可能处于环中
+            List<Category> remaining = byId.values().stream()
+                    .filter(category -> !visited.containsKey(category.getId()))
+                    .sorted(Comparator.comparing(Category::getId))
+                    .toList();
+            for (Category category : remaining) {
+                if (!visited.containsKey(category.getId())) {
+                    rootPositions.add(ordered.size());
+                    traverse(category, -1, children, ordered, exit, depth, parentPosition, visited);
+                }
+            }
+        }
+
+        return new CategoryTree(version, ordered, exit, depth, parentPosition,
+                rootPositions.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * 非递归先序遍历，分配先序位置并记录子树区间
+     */
+    private static void traverse(Category root, int rootParent, Map<Long, List<Category>> children,
+                                 List<Category> ordered, int[] exit, int[] depth, int[] parentPosition,
+                                 Map<Long, Boolean> visited) {
+        // 栈中保存 [先序位置, 下一个待访问子节点的下标]
+        List<int[]> stack = new ArrayList<>();
+        int position = visit(root, rootParent, 0, ordered, depth, parentPosition, visited);
+        stack.add(new int[]{position, 0});
+        while (!stack.isEmpty()) {
+            int[] top = stack.get(stack.size() - 1);
+            Category current = ordered.get(top[0]);
+            List<Category> childList = children.getOrDefault(current.getId(), List.of());
+            Category next = null;
+            while (top[1] < childList.size()) {
+                Category candidate = childList.get(top[1]++);
+                if (!visited.containsKey(candidate.getId())) {
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next == null) {
+                exit[top[0]] = ordered.size();
+                stack.remove(stack.size() - 1);
+            } else {
+                int childPosition = visit(next, top[0], depth[top[0]] + 1, ordered, depth, parentPosition, visited);
+                stack.add(new int[]{childPosition, 0});
+            }
+        }
+    }
+
+    private static int visit(Category category, int parent, int level, List<Category> ordered, int[] depth,
+                             int[] parentPosition, Map<Long, Boolean> visited) {
+        int position = ordered.size();
+        ordered.add(copy(category));
+        depth[position] = level;
+        parentPosition[position] = parent;
+        visited.put(category.getId(), Boolean.TRUE);
+        return position;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return categories.length;
+    }
+
+    public boolean contains(Long categoryId) {
+        return categoryId != null && positionById.containsKey(categoryId);
+    }
+
+    /**
+     * 获取分类，不存在时返回 null
+     */
+    public Category get(Long categoryId) {
+        Integer position = categoryId == null ? null : positionById.get(categoryId);
+        return position == null ? null : copy(categories[position]);
+    }
+
+    /**
+     * 全部分类，按 sort_order、id 排序
+     */
+    public List<Category> all() {
+        List<Category> result = new ArrayList<>(categories.length);
+        for (Category category : categories) {
+            result.add(copy(category));
+        }
+        result.sort(ORDER);
+        return result;
+    }
+
+    /**
+     * 根分类，按 sort_order、id 排序
+     */
+    public List<Category> roots() {
+        List<Category> result = new ArrayList<>(rootPositions.length);
+        for (int position : rootPositions) {
+            result.add(copy(categories[position]));
+        }
+        return result;
+    }
+
+    /**
+     * 直接子分类，按 sort_order、id 排序；分类不存在时返回空列表
+     */
+    public List<Category> children(Long categoryId) {
+        Integer position = categoryId == null ? null : positionById.get(categoryId);
+        if (position == null) {
+            return Collections.emptyList();
+        }
+        List<Category> result = new ArrayList<>();
+        // 子分类依次位于父分类之后，跳过每个子分类的整棵子树即可找到下一个
+        for (int child = position + 1; child < exit[position]; child = exit[child]) {
+            result.add(copy(categories[child]));
+        }
+        return result;
+    }
+
+    /**
+     * 分类及其全部后代的ID（先序），分类不存在时返回空数组
+     */
+    public long[] subtreeIds(Long categoryId) {
+        Integer position = categoryId == null ? null : positionById.get(categoryId);
+        if (position == null) {
+            return new long[0];
+        }
+        return Arrays.copyOfRange(preorder, position, exit[position]);
+    }
+
+    /**
+     * ancestorId 是否为 categoryId 本身或其祖先
+     */
+    public boolean isInSubtree(Long ancestorId, Long categoryId) {
+        Integer ancestor = ancestorId == null ? null : positionById.get(ancestorId);
+        Integer position = categoryId == null ? null : positionById.get(categoryId);
+        return ancestor != null && position != null && ancestor <= position && position < exit[ancestor];
+    }
+
+    /**
+     * 分类深度，根分类为 0；分类不存在时返回 -1
+     */
+    public int depth(Long categoryId) {
+        Integer position = categoryId == null ? null : positionById.get(categoryId);
+        return position == null ? -1 : depth[position];
+    }
+
+    /**
+     * 子树高度，叶子分类为 0；分类不存在时返回 -1
+     */
+    public int height(Long categoryId) {
+        Integer position = categoryId == null ? null : positionById.get(categoryId);
+        return position == null ? -1 : height[position];
+    }
+
+    /**
+     * 从根分类到该分类的路径（含自身）
+     */
+    public List<Category> path(Long categoryId) {
+        Integer position = categoryId == null ? null : positionById.get(categoryId);
+        if (position == null) {
+            return Collections.emptyList();
+        }
+        List<Category> result = new ArrayList<>(depth[position] + 1);
+        for (int current = position; current >= 0; current = parentPosition[current]) {
+            result.add(copy(categories[current]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * 按先序位置依次访问分类，visitor 收到的是快照内部的实例，不能修改
+     */
+    public void forEachInOrder(PreorderVisitor visitor) {
+        for (int i = 0; i < categories.length; i++) {
+            visitor.visit(categories[i], depth[i], parentPosition[i] < 0 ? null : preorder[parentPosition[i]]);
+        }
+    }
+
+    /**
+     * 先序遍历回调
+     */
+    @FunctionalInterface
+    public interface PreorderVisitor {
+
+        void visit(Category category, int depth, Long parentId);
+    }
+
+    private static Category copy(Category category) {
+        Category copy = new Category();
+        BeanUtils.copyProperties(category, copy);
+        return copy;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.blog.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * 压缩位图（Roaring 思路的简化实现）
+ * 按高 16 位分桶，每个桶内元素较少时用有序 char 数组存储，超过 4096 个时转为 1024 个 long 的位图，
+ * 稀疏和稠密的集合都只占用与元素数量相当的内存；只支持非负 int，非线程安全
+ */
+public class CompactBitmap {
+
+    private static final int ARRAY_CONTAINER_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    /**
+     * 各桶的高 16 位，升序排列
+     */
+    private char[] keys = new char[4];
+
+    /**
+     * 各桶的容器：char[]（有序数组）或 long[]（位图）
+     */
+    private Object[] containers = new Object[4];
+
+    private int[] cardinalities = new int[4];
+
+    private int containerCount;
+
+    public boolean add(int value) {
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, containerCount, high);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, high);
+        }
+
+        Object container = containers[index];
+        int cardinality = cardinalities[index];
+        if (container instanceof long[] bitmap) {
+            long mask = 1L << low;
+            if ((bitmap[low >>> 6] & mask) != 0) {
+                return false;
+            }
+            bitmap[low >>> 6] |= mask;
+            cardinalities[index] = cardinality + 1;
+            return true;
+        }
+
+        char[] array = (char[]) container;
+        int position = Arrays.binarySearch(array, 0, cardinality, low);
+        if (position >= 0) {
+            return false;
+        }
+        if (cardinality >= ARRAY_CONTAINER_MAX) {
+            long[] bitmap = toBitmapContainer(array, cardinality);
+            bitmap[low >>> 6] |= 1L << low;
+            containers[index] = bitmap;
+            cardinalities[index] = cardinality + 1;
+            return true;
+        }
+        position = -position - 1;
+        if (cardinality == array.length) {
+            array = Arrays.copyOf(array, Math.min(ARRAY_CONTAINER_MAX, Math.max(4, cardinality * 2)));
+            containers[index] = array;
+        }
+        System.arraycopy(array, position, array, position + 1, cardinality - position);
+        array[position] = low;
+        cardinalities[index] = cardinality + 1;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+        int index = Arrays.binarySearch(keys, 0, containerCount, high);
+        if (index < 0) {
+            return false;
+        }
+
+        Object container = containers[index];
+        int cardinality = cardinalities[index];
+        if (container instanceof long[] bitmap) {
+            long mask = 1L << low;
+            if ((bitmap[low >>> 6] & mask) == 0) {
+                return false;
+            }
+            bitmap[low >>> 6] &= ~mask;
+            cardinality--;
+            if (cardinality <= ARRAY_CONTAINER_MAX) {
+                containers[index] = toArrayContainer(bitmap, cardinality);
+            }
+        } else {
+            char[] array = (char[]) container;
+            int position = Arrays.binarySearch(array, 0, cardinality, low);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(array, position + 1, array, position, cardinality - position - 1);
+            cardinality--;
+        }
+
+        if (cardinality == 0) {
+            removeContainer(index);
+        } else {
+            cardinalities[index] = cardinality;
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, 0, containerCount, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        Object container = containers[index];
+        if (container instanceof long[] bitmap) {
+            return (bitmap[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[index], low) >= 0;
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < containerCount; i++) {
+            total += cardinalities[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return containerCount == 0;
+    }
+
+    /**
+     * 按升序遍历所有元素
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < containerCount; i++) {
+            int base = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof long[] bitmap) {
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    long bits = bitmap[word];
+                    while (bits != 0) {
+                        consumer.accept(base + (word << 6) + Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            } else {
+                char[] array = (char[]) container;
+                for (int j = 0; j < cardinalities[i]; j++) {
+                    consumer.accept(base + array[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 将元素并入目标位集，用于多个位图的交并运算
+     */
+    public void orInto(BitSet target) {
+        forEach(target::set);
+    }
+
+    public BitSet toBitSet() {
+        BitSet bitSet = new BitSet();
+        orInto(bitSet);
+        return bitSet;
+    }
+
+    private void insertContainer(int index, char high) {
+        if (containerCount == keys.length) {
+            int capacity = containerCount * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, containerCount - index);
+        System.arraycopy(containers, index, containers, index + 1, containerCount - index);
+        System.arraycopy(cardinalities, index, cardinalities, index + 1, containerCount - index);
+        keys[index] = high;
+        containers[index] = new char[4];
+        cardinalities[index] = 0;
+        containerCount++;
+    }
+
+    private void removeContainer(int index) {
+        int moved = containerCount - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, moved);
+        System.arraycopy(containers, index + 1, containers, index, moved);
+        System.arraycopy(cardinalities, index + 1, cardinalities, index, moved);
+        containerCount--;
+        containers[containerCount] = null;
+    }
+
+    private static long[] toBitmapContainer(char[] array, int cardinality) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (int i = 0; i < cardinality; i++) {
+            char low = array[i];
+            bitmap[low >>> 6] |= 1L << low;
+        }
+        return bitmap;
+    }
+
+    private static char[] toArrayContainer(long[] bitmap, int cardinality) {
+        char[] array = new char[cardinality];
+        int n = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            long bits = bitmap[word];
+            while (bits != 0) {
+                array[n++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return array;
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.blog.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 文本列透明压缩编码
+ * 压缩后的值格式为 [标记字符][算法ID][原文字符数]:[Base64 压缩数据]，仍存放在原来的文本列中，
+ * 未压缩的旧数据原样保留，读取时按首字符区分，两种格式可以共存。
+ * 原文本身以标记字符开头时用 STORED 算法包装，保证解码无歧义
+ */
+public final class CompressedText {
+
+    /**
+     * 格式标记，正常的 Markdown 正文不会以控制字符开头
+     */
+    public static final char MARKER = '\u0001';
+
+    private static final char LENGTH_SEPARATOR = ':';
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * Base64 按块批量解码，块大小必须是 4 的倍数
+     */
+    private static final int BASE64_CHUNK_SIZE = 8192;
+
+    private static final Map<String, Codec> CODECS_BY_NAME = new ConcurrentHashMap<>();
+    private static final Map<Character, Codec> CODECS_BY_ID = new ConcurrentHashMap<>();
+
+    private static final Codec STORED = new StoredCodec();
+
+    private static final ThreadLocal<DecodeBuffers> DECODE_BUFFERS = ThreadLocal.withInitial(DecodeBuffers::new);
+
+    private static volatile Settings settings = new Settings(false, Integer.MAX_VALUE, null);
+
+    static {
+        register(STORED);
+        register(new DeflateCodec("deflate", Deflater.DEFAULT_COMPRESSION));
+        register(new DeflateCodec("deflate-fast", Deflater.BEST_SPEED));
+    }
+
+    private CompressedText() {
+    }
+
+    /**
+     * 压缩算法；解码按算法ID查找，同一ID的不同实现（如不同压缩级别）必须能互相解码
+     */
+    public interface Codec {
+
+        /**
+         * 写入格式头的算法ID，已有数据使用的ID不能更改
+         */
+        char id();
+
+        /**
+         * 配置中使用的名称
+         */
+        String name();
+
+        byte[] compress(byte[] input);
+
+        /**
+         * 包装压缩数据流
+         */
+        InputStream decompress(InputStream compressed);
+    }
+
+    /**
+     * 注册压缩算法，可用于接入更快的第三方实现
+     */
+    public static void register(Codec codec) {
+        Codec existing = CODECS_BY_ID.get(codec.id());
+        if (existing != null && existing.getClass() != codec.getClass()) {
+            throw new IllegalArgumentException("压缩算法ID冲突: " + codec.id());
+        }
+        CODECS_BY_ID.putIfAbsent(codec.id(), codec);
+        CODECS_BY_NAME.put(codec.name(), codec);
+    }
+
+    /**
+     * 设置写入时的压缩策略，关闭后新写入的数据不压缩，已压缩的数据仍可读取
+     *
+     * @param minLength 原文字符数达到该值才压缩
+     */
+    public static void configure(boolean enabled, int minLength, String codecName) {
+        Codec codec = CODECS_BY_NAME.get(codecName);
+        if (codec == null) {
+            throw new IllegalArgumentException("未知的压缩算法: " + codecName);
+        }
+        settings = new Settings(enabled, Math.max(0, minLength), codec);
+    }
+
+    public static boolean isEnabled() {
+        return settings.enabled();
+    }
+
+    public static int getMinLength() {
+        return settings.minLength();
+    }
+
+    public static String getCodecName() {
+        Codec codec = settings.codec();
+        return codec == null ? null : codec.name();
+    }
+
+    /**
+     * 是否为压缩格式
+     */
+    public static boolean isEncoded(String stored) {
+        return stored != null && !stored.isEmpty() && stored.charAt(0) == MARKER;
+    }
+
+    /**
+     * 按当前配置编码；未开启、长度未达阈值或压缩后不比原文小时返回原文
+     */
+    public static String encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        Settings current = settings;
+        if (current.enabled() && text.length() >= current.minLength()) {
+            return encode(text, current.codec());
+        }
+        return text.isEmpty() || text.charAt(0) != MARKER ? text : wrap(text, STORED, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 用指定算法编码，忽略开关和长度阈值；压缩后不比原文小时返回原文
+     */
+    public static String encode(String text, String codecName) {
+        Codec codec = CODECS_BY_NAME.get(codecName);
+        if (codec == null) {
+            throw new IllegalArgumentException("未知的压缩算法: " + codecName);
+        }
+        return encode(text, codec);
+    }
+
+    private static String encode(String text, Codec codec) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = codec.compress(bytes);
+        // 压缩格式为 ASCII，每字符一个字节；省下的空间不足 1/8 时保持原文，省去读取时的解压开销
+        long encodedLength = headerLength(text.length()) + (compressed.length + 2L) / 3 * 4;
+        if (encodedLength > bytes.length - (bytes.length >> 3)) {
+            return text.charAt(0) != MARKER ? text : wrap(text, STORED, bytes);
+        }
+        return wrap(text, codec, compressed);
+    }
+
+    /**
+     * 解码，未压缩的值原样返回。
+     * Base64 解码、解压和 UTF-8 解码串成一条流，使用线程内复用的缓冲区，直接写入按原文长度分配的字符数组
+     *
+     * @throws IllegalStateException 格式不正确或算法未注册
+     */
+    public static String decode(String stored) {
+        if (!isEncoded(stored)) {
+            return stored;
+        }
+        if (stored.length() < 2) {
+            throw new IllegalStateException("压缩文本格式不正确");
+        }
+        Codec codec = CODECS_BY_ID.get(stored.charAt(1));
+        if (codec == null) {
+            throw new IllegalStateException("未知的压缩算法ID: " + stored.charAt(1));
+        }
+        int separator = stored.indexOf(LENGTH_SEPARATOR, 2);
+        if (separator < 0) {
+            throw new IllegalStateException("压缩文本格式不正确");
+        }
+        int length;
+        try {
+            length = Integer.parseInt(stored, 2, separator, 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("压缩文本格式不正确", e);
+        }
+
+        DecodeBuffers buffers = DECODE_BUFFERS.get();
+        CharsetDecoder decoder = buffers.decoder.reset();
+        ByteBuffer in = buffers.bytes.clear();
+        CharBuffer out = CharBuffer.wrap(new char[length]);
+        InputStream base64 = new Base64TextInputStream(stored, separator + 1, buffers);
+        try (InputStream raw = codec.decompress(base64)) {
+            int read;
+            while ((read = raw.read(in.array(), in.position(), in.remaining())) != -1) {
+                in.position(in.position() + read);
+                in.flip();
+                checkResult(decoder.decode(in, out, false));
+                in.compact();
+            }
+            in.flip();
+            checkResult(decoder.decode(in, out, true));
+            checkResult(decoder.flush(out));
+        } catch (IOException e) {
+            throw new IllegalStateException("压缩文本解码失败", e);
+        }
+        if (out.hasRemaining()) {
+            throw new IllegalStateException("压缩文本长度与格式头不一致");
+        }
+        return new String(out.array());
+    }
+
+    /**
+     * 存储占用的字节数：压缩格式为 ASCII，原文按 UTF-8 计算
+     */
+    public static int storedBytes(String stored) {
+        if (stored == null) {
+            return 0;
+        }
+        return isEncoded(stored) ? stored.length() : utf8Length(stored);
+    }
+
+    private static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static void checkResult(CoderResult result) {
+        // 输出数组按格式头中的长度分配，溢出说明数据与格式头不一致
+        if (result.isOverflow()) {
+            throw new IllegalStateException("压缩文本长度与格式头不一致");
+        }
+    }
+
+    private static int headerLength(int length) {
+        return 3 + Integer.toString(length).length();
+    }
+
+    private static String wrap(String text, Codec codec, byte[] payload) {
+        String encoded = Base64.getEncoder().encodeToString(payload);
+        return new StringBuilder(headerLength(text.length()) + encoded.length())
+                .append(MARKER).append(codec.id()).append(text.length()).append(LENGTH_SEPARATOR)
+                .append(encoded)
+                .toString();
+    }
+
+    private record Settings(boolean enabled, int minLength, Codec codec) {
+    }
+
+    private static final class DecodeBuffers {
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        private final byte[] base64Chunk = new byte[BASE64_CHUNK_SIZE];
+        private final byte[] base64Decoded = new byte[BASE64_CHUNK_SIZE / 4 * 3];
+    }
+
+    /**
+     * 把字符串中的 Base64 部分按块读出并批量解码，避免先复制整个字节数组，也避免逐字节解码的开销
+     */
+    private static final class Base64TextInputStream extends InputStream {
+        private final String text;
+        private final byte[] chunk;
+        private final byte[] decoded;
+        private int position;
+        private int decodedPosition;
+        private int decodedLimit;
+
+        Base64TextInputStream(String text, int position, DecodeBuffers buffers) {
+            this.text = text;
+            this.position = position;
+            this.chunk = buffers.base64Chunk;
+            this.decoded = buffers.base64Decoded;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return decoded[decodedPosition++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, decodedLimit - decodedPosition);
+            System.arraycopy(decoded, decodedPosition, buffer, offset, count);
+            decodedPosition += count;
+            return count;
+        }
+
+        private boolean fill() throws IOException {
+            if (decodedPosition < decodedLimit) {
+                return true;
+            }
+            int count = Math.min(chunk.length, text.length() - position);
+            if (count <= 0) {
+                return false;
+            }
+            // 整块复用缓冲区，最后一块长度不同时单独分配
+            byte[] source = count == chunk.length ? chunk : new byte[count];
+            for (int i = 0; i < count; i++) {
+                source[i] = (byte) text.charAt(position + i);
+            }
+            position += count;
+            try {
+                decodedLimit = Base64.getDecoder().decode(source, decoded);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Base64 数据不正确", e);
+            }
+            decodedPosition = 0;
+            return decodedLimit > 0 || fill();
+        }
+    }
+
+    /**
+     * 原样存储，仅用于转义以标记字符开头的原文
+     */
+    private static final class StoredCodec implements Codec {
+
+        @Override
+        public char id() {
+            return 'S';
+        }
+
+        @Override
+        public String name() {
+            return "stored";
+        }
+
+        @Override
+        public byte[] compress(byte[] input) {
+            return input;
+        }
+
+        @Override
+        public InputStream decompress(InputStream compressed) {
+            return compressed;
+        }
+    }
+
+    /**
+     * java.util.zip 的 Deflate 实现，Deflater / Inflater 按线程复用，避免每次分配本地内存
+     */
+    private static final class DeflateCodec implements Codec {
+
+        private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+
+        private final String name;
+        private final ThreadLocal<Deflater> deflaters;
+
+        DeflateCodec(String name, int level) {
+            this.name = name;
+            this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+        }
+
+        @Override
+        public char id() {
+            return 'D';
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public byte[] compress(byte[] input) {
+            Deflater deflater = deflaters.get();
+            deflater.reset();
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] output = new byte[Math.max(64, input.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            return Arrays.copyOf(output, length);
+        }
+
+        @Override
+        public InputStream decompress(InputStream compressed) {
+            Inflater inflater = INFLATERS.get();
+            inflater.reset();
+            return new InflaterInputStream(compressed, inflater, BUFFER_SIZE);
+        }
+    }
+}
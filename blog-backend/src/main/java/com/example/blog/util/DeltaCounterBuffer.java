@@ -0,0 +1,77 @@
+package com.example.blog.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 增量计数缓冲区
+ * 每个 key 对应一个 LongAdder，高并发累加分散到不同 cell 上；
+ * drain 时取出当前值并从计数器中扣除，扣除期间并发累加的部分会保留到下一轮，不会丢失
+ *
+ * @param <K> 计数对象的标识
+ */
+public class DeltaCounterBuffer<K> {
+
+    private final ConcurrentHashMap<K, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 上一轮因空闲被移出的计数器，下一轮再收集一次迟到的增量
+     */
+    private Map<K, LongAdder> retired = new HashMap<>();
+
+    /**
+     * 累加增量
+     */
+    public void add(K key, long delta) {
+        LongAdder adder = counters.get(key);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        adder.add(delta);
+    }
+
+    /**
+     * 获取尚未取出的增量
+     */
+    public long get(K key) {
+        LongAdder adder = counters.get(key);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * 取出所有非零增量
+     */
+    public synchronized Map<K, Long> drain() {
+        Map<K, Long> deltas = new HashMap<>();
+
+        retired.forEach((key, adder) -> collect(deltas, key, adder));
+        retired = new HashMap<>();
+
+        for (Map.Entry<K, LongAdder> entry : counters.entrySet()) {
+            if (!collect(deltas, entry.getKey(), entry.getValue())
+                    && counters.remove(entry.getKey(), entry.getValue())) {
+                retired.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * 将取出但未能持久化的增量放回缓冲区
+     */
+    public void restore(Map<K, Long> deltas) {
+        deltas.forEach(this::add);
+    }
+
+    private boolean collect(Map<K, Long> deltas, K key, LongAdder adder) {
+        long delta = adder.sum();
+        if (delta == 0) {
+            return false;
+        }
+        adder.add(-delta);
+        deltas.merge(key, delta, Long::sum);
+        return true;
+    }
+}
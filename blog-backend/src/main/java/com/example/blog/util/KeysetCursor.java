@@ -0,0 +1,37 @@
+package com.example.blog.util;
+
+import com.example.blog.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 游标分页的不透明游标
+ * 记录上一页最后一条记录的 (排序列, 排序值, id)，编码为 URL 安全的 Base64 字符串
+ *
+ * @param sort  排序列
+ * @param value 排序值
+ * @param id    记录ID
+ */
+public record KeysetCursor(String sort, String value, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sort + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new BusinessException("无效的分页游标");
+            }
+            return new KeysetCursor(parts[0], parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("无效的分页游标");
+        }
+    }
+}
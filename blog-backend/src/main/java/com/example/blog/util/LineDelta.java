@@ -0,0 +1,124 @@
+package com.example.blog.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 行级增量编码
+ * 以基准文本的行为参照，把目标文本编码为 COPY（复制基准中的连续行）和 INSERT（新增行）指令序列，
+ * 体积与改动的行数成正比。格式：[版本][基准行数][指令]...，整数均为变长编码
+ */
+public final class LineDelta {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int OP_COPY = 1;
+    private static final int OP_INSERT = 2;
+
+    private LineDelta() {
+    }
+
+    /**
+     * 计算从 base 到 target 的增量
+     */
+    public static byte[] encode(List<String> base, List<String> target) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            writeVarInt(out, FORMAT_VERSION);
+            writeVarInt(out, base.size());
+
+            int targetIndex = 0;
+            for (LineDiff.Block block : LineDiff.matchingBlocks(base, target)) {
+                writeInsert(out, target, targetIndex, block.bStart());
+                out.writeByte(OP_COPY);
+                writeVarInt(out, block.aStart());
+                writeVarInt(out, block.length());
+                targetIndex = block.bStart() + block.length();
+            }
+            writeInsert(out, target, targetIndex, target.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 在 base 上应用增量，还原目标文本
+     *
+     * @throws IllegalStateException 增量格式不正确或与基准文本不匹配
+     */
+    public static String apply(List<String> base, byte[] delta) {
+        StringBuilder result = new StringBuilder();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(delta))) {
+            if (readVarInt(in) != FORMAT_VERSION) {
+                throw new IllegalStateException("不支持的增量格式");
+            }
+            if (readVarInt(in) != base.size()) {
+                throw new IllegalStateException("增量与基准文本的行数不一致");
+            }
+            int op;
+            while ((op = in.read()) != -1) {
+                if (op == OP_COPY) {
+                    int start = readVarInt(in);
+                    int length = readVarInt(in);
+                    if (start + length > base.size()) {
+                        throw new IllegalStateException("增量引用超出基准文本范围");
+                    }
+                    for (int i = start; i < start + length; i++) {
+                        result.append(base.get(i));
+                    }
+                } else if (op == OP_INSERT) {
+                    int count = readVarInt(in);
+                    for (int i = 0; i < count; i++) {
+                        byte[] bytes = new byte[readVarInt(in)];
+                        in.readFully(bytes);
+                        result.append(new String(bytes, StandardCharsets.UTF_8));
+                    }
+                } else {
+                    throw new IllegalStateException("未知的增量指令: " + op);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("增量数据不完整", e);
+        }
+        return result.toString();
+    }
+
+    private static void writeInsert(DataOutputStream out, List<String> target, int from, int to) throws IOException {
+        if (from >= to) {
+            return;
+        }
+        out.writeByte(OP_INSERT);
+        writeVarInt(out, to - from);
+        for (int i = from; i < to; i++) {
+            byte[] bytes = target.get(i).getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("变长整数过长");
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.blog.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 行级差异
+ * 行先映射为整数ID，去掉公共前缀和后缀后对中间部分执行 Myers O(ND) 差异算法，得到两段文本的公共行块。
+ * 编辑距离超过上限时中间部分按整体替换处理，保证耗时和内存有界
+ */
+public final class LineDiff {
+
+    /**
+     * Myers 算法的编辑距离上限，回溯记录占用 O(D²) 内存
+     */
+    private static final int MAX_EDIT_DISTANCE = 1000;
+
+    private LineDiff() {
+    }
+
+    /**
+     * 公共行块：a 中从 aStart 开始、b 中从 bStart 开始的 length 行相同
+     */
+    public record Block(int aStart, int bStart, int length) {
+    }
+
+    /**
+     * 差异片段
+     *
+     * @param lines 每行以 ' '（上下文）、'-'（删除）或 '+'（新增）开头
+     */
+    public record Hunk(int oldStart, int oldLines, int newStart, int newLines, List<String> lines) {
+    }
+
+    /**
+     * 按行切分，每行保留行尾换行符，拼接后与原文完全一致
+     */
+    public static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return lines;
+        }
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) == '\n') {
+                lines.add(text.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            lines.add(text.substring(start));
+        }
+        return lines;
+    }
+
+    /**
+     * 计算公共行块，按位置升序排列，相邻块之间至少有一侧不连续
+     */
+    public static List<Block> matchingBlocks(List<String> a, List<String> b) {
+        Map<String, Integer> ids = new HashMap<>();
+        int[] x = toIds(a, ids);
+        int[] y = toIds(b, ids);
+
+        int prefix = 0;
+        while (prefix < x.length && prefix < y.length && x[prefix] == y[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < x.length - prefix && suffix < y.length - prefix
+                && x[x.length - 1 - suffix] == y[y.length - 1 - suffix]) {
+            suffix++;
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        if (prefix > 0) {
+            blocks.add(new Block(0, 0, prefix));
+        }
+        myers(x, prefix, x.length - suffix, y, prefix, y.length - suffix, blocks);
+        if (suffix > 0) {
+            add(blocks, x.length - suffix, y.length - suffix, suffix);
+        }
+        return blocks;
+    }
+
+    /**
+     * 生成统一格式的差异片段，每个片段前后保留 context 行上下文
+     */
+    public static List<Hunk> hunks(List<String> a, List<String> b, int context) {
+        List<Block> blocks = new ArrayList<>(matchingBlocks(a, b));
+        // 末尾哨兵块使最后一段差异也能输出
+        blocks.add(new Block(a.size(), b.size(), 0));
+
+        List<Hunk> hunks = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        int hunkOldStart = -1;
+        int hunkNewStart = -1;
+        int oldCount = 0;
+        int newCount = 0;
+        int ai = 0;
+        int bi = 0;
+        for (int index = 0; index < blocks.size(); index++) {
+            Block block = blocks.get(index);
+            boolean changed = ai < block.aStart() || bi < block.bStart();
+            if (changed) {
+                if (hunkOldStart < 0) {
+                    int lead = Math.min(context, Math.min(ai, bi));
+                    hunkOldStart = ai - lead;
+                    hunkNewStart = bi - lead;
+                    for (int i = ai - lead; i < ai; i++) {
+                        lines.add(" " + stripNewline(a.get(i)));
+                    }
+                    oldCount = lead;
+                    newCount = lead;
+                }
+                for (int i = ai; i < block.aStart(); i++) {
+                    lines.add("-" + stripNewline(a.get(i)));
+                }
+                for (int i = bi; i < block.bStart(); i++) {
+                    lines.add("+" + stripNewline(b.get(i)));
+                }
+                oldCount += block.aStart() - ai;
+                newCount += block.bStart() - bi;
+            }
+
+            if (hunkOldStart >= 0) {
+                // 公共块之后还有差异且不超过两倍上下文时并入当前片段，否则输出尾部上下文并结束片段
+                boolean merge = index + 1 < blocks.size() && block.length() <= context * 2
+                        && isFollowedByChange(block, blocks.get(index + 1));
+                int keep = merge ? block.length() : Math.min(context, block.length());
+                for (int i = 0; i < keep; i++) {
+                    lines.add(" " + stripNewline(a.get(block.aStart() + i)));
+                }
+                oldCount += keep;
+                newCount += keep;
+                if (!merge) {
+                    hunks.add(new Hunk(hunkOldStart + 1, oldCount, hunkNewStart + 1, newCount, lines));
+                    lines = new ArrayList<>();
+                    hunkOldStart = -1;
+                }
+            }
+            ai = block.aStart() + block.length();
+            bi = block.bStart() + block.length();
+        }
+        return hunks;
+    }
+
+    private static boolean isFollowedByChange(Block block, Block next) {
+        return next.aStart() > block.aStart() + block.length() || next.bStart() > block.bStart() + block.length();
+    }
+
+    private static void myers(int[] x, int xStart, int xEnd, int[] y, int yStart, int yEnd, List<Block> blocks) {
+        int n = xEnd - xStart;
+        int m = yEnd - yStart;
+        if (n == 0 || m == 0) {
+            return;
+        }
+
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+        int found = -1;
+        for (int d = 0; d <= max && found < 0; d++) {
+            // 只保存本轮会读取到的对角线 [-d-1, d+1]
+            int[] snapshot = new int[2 * d + 3];
+            System.arraycopy(v, offset - d - 1, snapshot, 0, snapshot.length);
+            trace.add(snapshot);
+
+            for (int k = -d; k <= d; k += 2) {
+                int px = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+                        ? v[offset + k + 1] : v[offset + k - 1] + 1;
+                int py = px - k;
+                while (px < n && py < m && x[xStart + px] == y[yStart + py]) {
+                    px++;
+                    py++;
+                }
+                v[offset + k] = px;
+                if (px >= n && py >= m) {
+                    found = d;
+                    break;
+                }
+            }
+        }
+        if (found < 0) {
+            // 差异过大，中间部分整体替换
+            return;
+        }
+
+        List<Block> reversed = new ArrayList<>();
+        int px = n;
+        int py = m;
+        for (int d = found; d >= 0; d--) {
+            int[] previous = trace.get(d);
+            int k = px - py;
+            int prevK = (k == -d || (k != d && previous[k - 1 + d + 1] < previous[k + 1 + d + 1])) ? k + 1 : k - 1;
+            int prevX = previous[prevK + d + 1];
+            int prevY = prevX - prevK;
+            int snakeStartX = Math.max(prevX + (prevK == k - 1 ? 1 : 0), 0);
+            if (d == 0) {
+                snakeStartX = 0;
+            }
+            int length = px - snakeStartX;
+            if (length > 0) {
+                reversed.add(new Block(xStart + snakeStartX, yStart + py - length, length));
+            }
+            px = prevX;
+            py = prevY;
+        }
+        for (int i = reversed.size() - 1; i >= 0; i--) {
+            Block block = reversed.get(i);
+            add(blocks, block.aStart(), block.bStart(), block.length());
+        }
+    }
+
+    /**
+     * 追加公共块，与前一个块首尾相接时合并
+     */
+    private static void add(List<Block> blocks, int aStart, int bStart, int length) {
+        if (!blocks.isEmpty()) {
+            Block last = blocks.get(blocks.size() - 1);
+            if (last.aStart() + last.length() == aStart && last.bStart() + last.length() == bStart) {
+                blocks.set(blocks.size() - 1, new Block(last.aStart(), last.bStart(), last.length() + length));
+                return;
+            }
+        }
+        blocks.add(new Block(aStart, bStart, length));
+    }
+
+    private static int[] toIds(List<String> lines, Map<String, Integer> ids) {
+        int[] result = new int[lines.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.computeIfAbsent(lines.get(i), line -> ids.size());
+        }
+        return result;
+    }
+
+    private static String stripNewline(String line) {
+        if (line.endsWith("\r\n")) {
+            return line.substring(0, line.length() - 2);
+        }
+        return line.endsWith("\n") ? line.substring(0, line.length() - 1) : line;
+    }
+}
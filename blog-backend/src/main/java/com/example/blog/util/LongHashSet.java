@@ -0,0 +1,182 @@
+package com.example.blog.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * 基本类型 long 的哈希集合
+ * 开放寻址 + 线性探测，删除时回移后续元素而不留墓碑，每个元素只占 8 字节，避免 Long 装箱开销；
+ * 非线程安全，调用方需自行同步
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(8);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1);
+        allocate(capacity);
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsZero;
+        }
+        int i = index(key);
+        while (true) {
+            long current = keys[i];
+            if (current == EMPTY) {
+                return false;
+            }
+            if (current == key) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * 添加元素
+     *
+     * @return 元素原本不存在时返回 true
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            return true;
+        }
+        int i = index(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * 删除元素
+     *
+     * @return 元素原本存在时返回 true
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            return true;
+        }
+        int gap = index(key);
+        while (true) {
+            long current = keys[gap];
+            if (current == EMPTY) {
+                return false;
+            }
+            if (current == key) {
+                break;
+            }
+            gap = (gap + 1) & mask;
+        }
+
+        // 将同一探测链上的后续元素回移到空位，保证查找链不断开
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            long current = keys[i];
+            if (current == EMPTY) {
+                break;
+            }
+            int home = index(current);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = current;
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return containsZero ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public long[] toArray() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (containsZero) {
+            result[n++] = EMPTY;
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 遍历全部元素，不分配数组
+     */
+    public void forEach(LongConsumer action) {
+        if (containsZero) {
+            action.accept(EMPTY);
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        containsZero = false;
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+        size = 0;
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                add(key);
+            }
+        }
+    }
+}
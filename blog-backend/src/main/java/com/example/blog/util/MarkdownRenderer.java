@@ -0,0 +1,1015 @@
+package com.example.blog.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Markdown 渲染器
+ * 支持常用的 CommonMark/GFM 语法：标题、段落、强调、删除线、行内代码、代码块、引用、有序/无序列表、
+ * 分隔线、表格、链接、图片和自动链接。
+ * 输出只包含渲染器自身生成的白名单标签，原文中的 HTML 一律转义；链接和图片地址只允许 http、https、mailto
+ * 和相对路径，因此渲染结果无需再做额外的 XSS 清理。
+ * 标题会生成带前缀的锚点 ID 并收集为目录
+ */
+public final class MarkdownRenderer {
+
+    /**
+     * 引用、列表的最大嵌套层数，超出部分按普通段落处理，避免恶意输入导致栈溢出
+     */
+    private static final int MAX_BLOCK_DEPTH = 16;
+
+    /**
+     * 行内强调、链接的最大嵌套层数
+     */
+    private static final int MAX_INLINE_DEPTH = 16;
+
+    /**
+     * 链接文字的最大长度，限制中括号匹配的扫描范围
+     */
+    private static final int MAX_LINK_TEXT_LENGTH = 1000;
+
+    /**
+     * 目录项文字的最大长度
+     */
+    private static final int MAX_TOC_TEXT_LENGTH = 200;
+
+    /**
+     * 自动链接地址的最大长度
+     */
+    private static final int MAX_AUTOLINK_LENGTH = 2048;
+
+    private static final String HEADING_ID_PREFIX = "md-";
+
+    private static final Pattern ATX_HEADING = Pattern.compile("^ {0,3}(#{1,6})(?:[ \\t]+(.*?))?(?:[ \\t]+#+)?[ \\t]*$");
+    private static final Pattern FENCE = Pattern.compile("^( {0,3})(`{3,}|~{3,})[ \\t]*([^`]*)$");
+    private static final Pattern LIST_ITEM = Pattern.compile("^( {0,3})([*+-]|\\d{1,9}[.)])(?:( +)(.*))?$");
+    private static final Pattern SETEXT_UNDERLINE = Pattern.compile("^ {0,3}(=+|-+)[ \\t]*$");
+    private static final Pattern TABLE_ALIGNMENT = Pattern.compile(":?-+:?");
+    private static final Pattern BLOCK_QUOTE = Pattern.compile("^ {0,3}>");
+    private static final Pattern URL_SCHEME = Pattern.compile("^([A-Za-z][A-Za-z0-9+.-]*):");
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9.!#$%&'*+/=?^_`{|}~-]+@[A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)+$");
+    private static final Set<String> SAFE_SCHEMES = Set.of("http", "https", "mailto");
+
+    private final List<Heading> toc = new ArrayList<>();
+    private final Set<String> headingIds = new HashSet<>();
+    private final Map<String, Integer> headingIdSuffixes = new HashMap<>();
+
+    private MarkdownRenderer() {
+    }
+
+    /**
+     * 目录项
+     *
+     * @param level 标题级别 1-6
+     * @param id    锚点 ID，与渲染结果中标题元素的 id 属性一致
+     * @param text  标题纯文本
+     */
+    public record Heading(int level, String id, String text) {
+    }
+
+    /**
+     * 渲染结果
+     *
+     * @param html 渲染后的 HTML
+     * @param toc  按出现顺序排列的目录
+     */
+    public record Rendered(String html, List<Heading> toc) {
+    }
+
+    /**
+     * 将 Markdown 渲染为安全的 HTML，并提取目录
+     */
+    public static Rendered render(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return new Rendered("", List.of());
+        }
+        MarkdownRenderer renderer = new MarkdownRenderer();
+        StringBuilder html = new StringBuilder(markdown.length() + markdown.length() / 4);
+        renderer.renderBlocks(splitLines(markdown), html, false, 0);
+        return new Rendered(html.toString(), List.copyOf(renderer.toc));
+    }
+
+    private static List<String> splitLines(String markdown) {
+        String normalized = markdown.replace("\r\n", "\n").replace('\r', '\n').replace('\u0000', '\uFFFD');
+        String[] rawLines = normalized.split("\n", -1);
+        List<String> lines = new ArrayList<>(rawLines.length);
+        for (String line : rawLines) {
+            lines.add(expandTabs(line));
+        }
+        return lines;
+    }
+
+    private static String expandTabs(String line) {
+        if (line.indexOf('\t') < 0) {
+            return line;
+        }
+        StringBuilder expanded = new StringBuilder(line.length() + 8);
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                do {
+                    expanded.append(' ');
+                } while (expanded.length() % 4 != 0);
+            } else {
+                expanded.append(c);
+            }
+        }
+        return expanded.toString();
+    }
+
+    // ------------------------------------------------------------------ 块级元素
+
+    /**
+     * 渲染一组行
+     *
+     * @param tight 紧凑列表项中的段落不包裹 &lt;p&gt;
+     */
+    private void renderBlocks(List<String> lines, StringBuilder out, boolean tight, int depth) {
+        int i = 0;
+        int n = lines.size();
+        while (i < n) {
+            String line = lines.get(i);
+            if (isBlank(line)) {
+                i++;
+                continue;
+            }
+
+            Matcher matcher;
+            if ((matcher = FENCE.matcher(line)).matches()) {
+                i = renderFencedCode(lines, i, matcher, out);
+            } else if ((matcher = ATX_HEADING.matcher(line)).matches()) {
+                renderHeading(matcher.group(1).length(), matcher.group(2) == null ? "" : matcher.group(2), out);
+                i++;
+            } else if (isThematicBreak(line)) {
+                out.append("<hr />\n");
+                i++;
+            } else if (depth < MAX_BLOCK_DEPTH && BLOCK_QUOTE.matcher(line).find()) {
+                i = renderBlockQuote(lines, i, out, depth);
+            } else if (depth < MAX_BLOCK_DEPTH && (matcher = LIST_ITEM.matcher(line)).matches()) {
+                i = renderList(lines, i, out, depth);
+            } else if (indentOf(line) >= 4) {
+                i = renderIndentedCode(lines, i, out);
+            } else if (i + 1 < n && line.indexOf('|') >= 0 && isTableDelimiter(lines.get(i + 1))
+                    && splitTableRow(line).size() == splitTableRow(lines.get(i + 1)).size()) {
+                i = renderTable(lines, i, out);
+            } else {
+                i = renderParagraph(lines, i, out, tight, depth);
+            }
+        }
+    }
+
+    private int renderFencedCode(List<String> lines, int start, Matcher opening, StringBuilder out) {
+        int indent = opening.group(1).length();
+        String fence = opening.group(2);
+        String info = opening.group(3).trim();
+        String language = info.isEmpty() ? "" : info.split("\\s+", 2)[0].replaceAll("[^A-Za-z0-9_+#.-]", "");
+
+        out.append("<pre><code");
+        if (!language.isEmpty()) {
+            out.append(" class=\"language-").append(HtmlUtils.escape(language)).append('"');
+        }
+        out.append('>');
+
+        int i = start + 1;
+        for (; i < lines.size(); i++) {
+            String line = lines.get(i);
+            String trimmed = line.stripLeading();
+            if (indentOf(line) <= 3 && trimmed.startsWith(fence.substring(0, 1).repeat(fence.length()))
+                    && trimmed.chars().allMatch(c -> c == fence.charAt(0) || c == ' ')) {
+                i++;
+                break;
+            }
+            // 去掉与开始标记相同的缩进
+            int strip = Math.min(indent, indentOf(line));
+            appendEscaped(out, line.substring(strip));
+            out.append('\n');
+        }
+        out.append("</code></pre>\n");
+        return i;
+    }
+
+    private int renderIndentedCode(List<String> lines, int start, StringBuilder out) {
+        int i = start;
+        int lastContent = start;
+        while (i < lines.size() && (isBlank(lines.get(i)) || indentOf(lines.get(i)) >= 4)) {
+            if (!isBlank(lines.get(i))) {
+                lastContent = i;
+            }
+            i++;
+        }
+        out.append("<pre><code>");
+        for (int j = start; j <= lastContent; j++) {
+            String line = lines.get(j);
+            appendEscaped(out, line.length() >= 4 ? line.substring(4) : "");
+            out.append('\n');
+        }
+        out.append("</code></pre>\n");
+        return lastContent + 1;
+    }
+
+    private void renderHeading(int level, String text, StringBuilder out) {
+        String plain = renderInlinePlain(text).trim();
+        String id = headingId(plain);
+        if (plain.length() > MAX_TOC_TEXT_LENGTH) {
+            plain = plain.substring(0, MAX_TOC_TEXT_LENGTH);
+        }
+        toc.add(new Heading(level, id, plain));
+
+        out.append("<h").append(level).append(" id=\"").append(HtmlUtils.escape(id)).append("\">");
+        renderInline(text.trim(), out);
+        out.append("</h").append(level).append(">\n");
+    }
+
+    /**
+     * 由标题文字生成锚点 ID：保留字母、数字（含中文），空白和连字符转为 '-'，重复时追加序号。
+     * 统一加前缀，避免与页面中已有元素的 ID 冲突
+     */
+    private String headingId(String text) {
+        StringBuilder slug = new StringBuilder();
+        text.toLowerCase(Locale.ROOT).codePoints().forEach(cp -> {
+            if (Character.isLetterOrDigit(cp)) {
+                slug.appendCodePoint(cp);
+            } else if ((Character.isWhitespace(cp) || cp == '-' || cp == '_') && !slug.isEmpty()
+                    && slug.charAt(slug.length() - 1) != '-') {
+                slug.append('-');
+            }
+        });
+        while (!slug.isEmpty() && slug.charAt(slug.length() - 1) == '-') {
+            slug.setLength(slug.length() - 1);
+        }
+        if (slug.length() > 64) {
+            slug.setLength(64);
+        }
+        String base = HEADING_ID_PREFIX + (slug.isEmpty() ? "section" : slug.toString());
+        String id = base;
+        int suffix = headingIdSuffixes.getOrDefault(base, 0);
+        while (!headingIds.add(id)) {
+            id = base + "-" + (++suffix);
+        }
+        headingIdSuffixes.put(base, suffix);
+        return id;
+    }
+
+    private int renderBlockQuote(List<String> lines, int start, StringBuilder out, int depth) {
+        List<String> inner = new ArrayList<>();
+        int i = start;
+        while (i < lines.size()) {
+            String line = lines.get(i);
+            Matcher matcher = BLOCK_QUOTE.matcher(line);
+            if (matcher.find()) {
+                String content = line.substring(matcher.end());
+                inner.add(content.startsWith(" ") ? content.substring(1) : content);
+            } else if (!isBlank(line) && !inner.isEmpty() && !isBlank(inner.get(inner.size() - 1))
+                    && !startsBlock(line)) {
+                // 段落的惰性延续行
+                inner.add(line);
+            } else {
+                break;
+            }
+            i++;
+        }
+        out.append("<blockquote>\n");
+        renderBlocks(inner, out, false, depth + 1);
+        out.append("</blockquote>\n");
+        return i;
+    }
+
+    private int renderList(List<String> lines, int start, StringBuilder out, int depth) {
+        Matcher first = LIST_ITEM.matcher(lines.get(start));
+        first.matches();
+        String firstMarker = first.group(2);
+        boolean ordered = Character.isDigit(firstMarker.charAt(0));
+        char delimiter = firstMarker.charAt(firstMarker.length() - 1);
+
+        List<List<String>> items = new ArrayList<>();
+        boolean loose = false;
+        int i = start;
+        while (i < lines.size()) {
+            Matcher matcher = LIST_ITEM.matcher(lines.get(i));
+            if (!matcher.matches() || isThematicBreak(lines.get(i))
+                    || !sameListType(matcher.group(2), ordered, delimiter)) {
+                break;
+            }
+
+            int markerEnd = matcher.group(1).length() + matcher.group(2).length();
+            String spaces = matcher.group(3) == null ? "" : matcher.group(3);
+            String content = matcher.group(4) == null ? "" : matcher.group(4);
+            int contentIndent;
+            if (content.isEmpty() || spaces.length() > 4) {
+                contentIndent = markerEnd + 1;
+                content = spaces.length() > 4 ? spaces.substring(1) + content : content;
+            } else {
+                contentIndent = markerEnd + spaces.length();
+            }
+
+            List<String> item = new ArrayList<>();
+            item.add(content);
+            i++;
+            boolean sawBlank = false;
+            while (i < lines.size()) {
+                String line = lines.get(i);
+                if (isBlank(line)) {
+                    item.add("");
+                    sawBlank = true;
+                    i++;
+                    continue;
+                }
+                if (indentOf(line) >= contentIndent) {
+                    if (sawBlank) {
+                        loose = true;
+                    }
+                    item.add(line.substring(contentIndent));
+                    sawBlank = false;
+                    i++;
+                    continue;
+                }
+                if (sawBlank || startsBlock(line)) {
+                    break;
+                }
+                // 段落的惰性延续行
+                item.add(line.stripLeading());
+                i++;
+            }
+
+            boolean trailingBlank = false;
+            while (item.size() > 1 && isBlank(item.get(item.size() - 1))) {
+                item.remove(item.size() - 1);
+                trailingBlank = true;
+            }
+            items.add(item);
+
+            if (trailingBlank && i < lines.size()) {
+                Matcher next = LIST_ITEM.matcher(lines.get(i));
+                if (next.matches() && sameListType(next.group(2), ordered, delimiter)) {
+                    loose = true;
+                }
+            }
+        }
+
+        String tag = ordered ? "ol" : "ul";
+        out.append('<').append(tag);
+        if (ordered) {
+            long startNumber = Long.parseLong(firstMarker.substring(0, firstMarker.length() - 1));
+            if (startNumber != 1) {
+                out.append(" start=\"").append(startNumber).append('"');
+            }
+        }
+        out.append(">\n");
+        for (List<String> item : items) {
+            out.append("<li>");
+            int mark = out.length();
+            renderBlocks(item, out, !loose, depth + 1);
+            // 紧凑列表项末尾不保留换行
+            if (out.length() > mark && out.charAt(out.length() - 1) == '\n' && !loose) {
+                out.setLength(out.length() - 1);
+            }
+            out.append("</li>\n");
+        }
+        out.append("</").append(tag).append(">\n");
+        return i;
+    }
+
+    private static boolean sameListType(String marker, boolean ordered, char delimiter) {
+        boolean markerOrdered = Character.isDigit(marker.charAt(0));
+        return markerOrdered == ordered && marker.charAt(marker.length() - 1) == delimiter;
+    }
+
+    private int renderTable(List<String> lines, int start, StringBuilder out) {
+        List<String> header = splitTableRow(lines.get(start));
+        List<String> delimiters = splitTableRow(lines.get(start + 1));
+        String[] alignments = new String[delimiters.size()];
+        for (int c = 0; c < delimiters.size(); c++) {
+            String cell = delimiters.get(c).trim();
+            boolean left = cell.startsWith(":");
+            boolean right = cell.endsWith(":");
+            alignments[c] = left && right ? "center" : right ? "right" : left ? "left" : null;
+        }
+
+        out.append("<table>\n<thead>\n");
+        renderTableRow(header, alignments, "th", out);
+        out.append("</thead>\n");
+
+        int i = start + 2;
+        boolean hasBody = false;
+        while (i < lines.size() && !isBlank(lines.get(i)) && lines.get(i).indexOf('|') >= 0 && !startsBlock(lines.get(i))) {
+            if (!hasBody) {
+                out.append("<tbody>\n");
+                hasBody = true;
+            }
+            renderTableRow(splitTableRow(lines.get(i)), alignments, "td", out);
+            i++;
+        }
+        if (hasBody) {
+            out.append("</tbody>\n");
+        }
+        out.append("</table>\n");
+        return i;
+    }
+
+    private void renderTableRow(List<String> cells, String[] alignments, String tag, StringBuilder out) {
+        out.append("<tr>\n");
+        for (int c = 0; c < alignments.length; c++) {
+            out.append('<').append(tag);
+            if (alignments[c] != null) {
+                out.append(" style=\"text-align:").append(alignments[c]).append('"');
+            }
+            out.append('>');
+            if (c < cells.size()) {
+                renderInline(cells.get(c).trim(), out);
+            }
+            out.append("</").append(tag).append(">\n");
+        }
+        out.append("</tr>\n");
+    }
+
+    /**
+     * 按未转义的竖线拆分表格行，去掉首尾的竖线
+     */
+    private static List<String> splitTableRow(String line) {
+        String trimmed = line.trim();
+        if (trimmed.startsWith("|")) {
+            trimmed = trimmed.substring(1);
+        }
+        if (trimmed.endsWith("|") && !trimmed.endsWith("\\|")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '\\' && i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '|') {
+                cell.append('|');
+                i++;
+            } else if (c == '|') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private int renderParagraph(List<String> lines, int start, StringBuilder out, boolean tight, int depth) {
+        StringBuilder text = new StringBuilder();
+        int i = start;
+        while (i < lines.size()) {
+            String line = lines.get(i);
+            if (isBlank(line)) {
+                break;
+            }
+            if (i > start) {
+                Matcher setext = SETEXT_UNDERLINE.matcher(line);
+                if (setext.matches()) {
+                    renderHeading(setext.group(1).charAt(0) == '=' ? 1 : 2, text.toString(), out);
+                    return i + 1;
+                }
+                // 超出嵌套层数时引用和列表标记不再打断段落
+                if (startsBlock(line) && (depth < MAX_BLOCK_DEPTH || !isNestedBlockStart(line))) {
+                    break;
+                }
+                text.append('\n');
+            }
+            text.append(line.stripLeading());
+            i++;
+        }
+
+        String content = text.toString().stripTrailing();
+        if (!tight) {
+            out.append("<p>");
+        }
+        renderInline(content, out);
+        out.append(tight ? "\n" : "</p>\n");
+        return i;
+    }
+
+    /**
+     * 是否为能够打断段落的块级元素起始行
+     */
+    private static boolean startsBlock(String line) {
+        if (FENCE.matcher(line).matches() || ATX_HEADING.matcher(line).matches()
+                || isThematicBreak(line)) {
+            return true;
+        }
+        return isNestedBlockStart(line);
+    }
+
+    private static boolean isNestedBlockStart(String line) {
+        if (BLOCK_QUOTE.matcher(line).find()) {
+            return true;
+        }
+        Matcher matcher = LIST_ITEM.matcher(line);
+        return matcher.matches() && matcher.group(4) != null && !matcher.group(4).isBlank();
+    }
+
+    /**
+     * 分隔线：三个及以上相同的 '-'、'*' 或 '_'，中间可以有空格。
+     * 不使用带反向引用的正则，避免超长行导致正则回溯栈溢出
+     */
+    private static boolean isThematicBreak(String line) {
+        if (indentOf(line) > 3) {
+            return false;
+        }
+        char marker = 0;
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ' ') {
+                continue;
+            }
+            if (marker == 0 && (c == '-' || c == '*' || c == '_')) {
+                marker = c;
+            } else if (c != marker) {
+                return false;
+            }
+            count++;
+        }
+        return count >= 3;
+    }
+
+    /**
+     * 表格分隔行：每个单元格都是 :?-+:? 的形式
+     */
+    private static boolean isTableDelimiter(String line) {
+        if (indentOf(line) > 3 || line.indexOf('-') < 0) {
+            return false;
+        }
+        for (String cell : splitTableRow(line)) {
+            if (!TABLE_ALIGNMENT.matcher(cell.trim()).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBlank(String line) {
+        return line.isBlank();
+    }
+
+    private static int indentOf(String line) {
+        int indent = 0;
+        while (indent < line.length() && line.charAt(indent) == ' ') {
+            indent++;
+        }
+        return indent;
+    }
+
+    // ------------------------------------------------------------------ 行内元素
+
+    private void renderInline(String text, StringBuilder out) {
+        new InlineRenderer(text, out, false).render();
+    }
+
+    private String renderInlinePlain(String text) {
+        StringBuilder plain = new StringBuilder();
+        new InlineRenderer(text, plain, true).render();
+        return plain.toString();
+    }
+
+    /**
+     * 行内渲染
+     * plain 模式只输出纯文本（不转义、不含标签），用于生成目录
+     */
+    private static final class InlineRenderer {
+
+        private final String text;
+        private final StringBuilder out;
+        private final boolean plain;
+
+        /**
+         * 已确认不存在闭合标记的位置：从该位置之后查找同一分隔符必然失败，避免大量未闭合标记造成平方级扫描
+         */
+        private final Map<String, Integer> noCloserAfter;
+
+        private int depth;
+
+        InlineRenderer(String text, StringBuilder out, boolean plain) {
+            this(text, out, plain, new HashMap<>(), 0);
+        }
+
+        private InlineRenderer(String text, StringBuilder out, boolean plain, Map<String, Integer> noCloserAfter,
+                               int depth) {
+            this.text = text;
+            this.out = out;
+            this.plain = plain;
+            this.noCloserAfter = noCloserAfter;
+            this.depth = depth;
+        }
+
+        void render() {
+            int i = 0;
+            int n = text.length();
+            while (i < n) {
+                char c = text.charAt(i);
+                int next;
+                switch (c) {
+                    case '\\' -> next = backslash(i);
+                    case '`' -> next = codeSpan(i);
+                    case '!' -> next = i + 1 < n && text.charAt(i + 1) == '[' ? link(i + 1, true) : -1;
+                    case '[' -> next = link(i, false);
+                    case '<' -> next = autolink(i);
+                    case '*', '_', '~' -> next = emphasis(i);
+                    case '\n' -> next = lineBreak(i);
+                    default -> next = -1;
+                }
+                if (next < 0) {
+                    appendText(c);
+                    i++;
+                } else {
+                    i = next;
+                }
+            }
+        }
+
+        private int backslash(int i) {
+            if (i + 1 >= text.length()) {
+                return -1;
+            }
+            char next = text.charAt(i + 1);
+            if (next == '\n') {
+                appendTag("<br />\n", " ");
+                return i + 2;
+            }
+            if (isAsciiPunctuation(next)) {
+                appendText(next);
+                return i + 2;
+            }
+            return -1;
+        }
+
+        private int lineBreak(int i) {
+            // 行尾两个及以上空格表示硬换行
+            int spaces = 0;
+            while (out.length() - 1 - spaces >= 0 && out.charAt(out.length() - 1 - spaces) == ' ') {
+                spaces++;
+            }
+            out.setLength(out.length() - spaces);
+            appendTag(spaces >= 2 ? "<br />\n" : "\n", " ");
+            return i + 1;
+        }
+
+        private int codeSpan(int i) {
+            int runEnd = i;
+            while (runEnd < text.length() && text.charAt(runEnd) == '`') {
+                runEnd++;
+            }
+            String fence = text.substring(i, runEnd);
+            int close = findCloser(fence, runEnd, j -> text.charAt(j - 1) != '`'
+                    && (j + fence.length() >= text.length() || text.charAt(j + fence.length()) != '`'));
+            if (close < 0) {
+                appendText(fence);
+                return runEnd;
+            }
+            String code = text.substring(runEnd, close).replace('\n', ' ');
+            if (code.length() >= 2 && code.startsWith(" ") && code.endsWith(" ") && !code.isBlank()) {
+                code = code.substring(1, code.length() - 1);
+            }
+            appendTag("<code>", "");
+            appendText(code);
+            appendTag("</code>", "");
+            return close + fence.length();
+        }
+
+        private int emphasis(int i) {
+            char c = text.charAt(i);
+            int runEnd = i;
+            while (runEnd < text.length() && text.charAt(runEnd) == c) {
+                runEnd++;
+            }
+            int runLength = runEnd - i;
+            if (depth >= MAX_INLINE_DEPTH || runEnd >= text.length() || Character.isWhitespace(text.charAt(runEnd))) {
+                return -1;
+            }
+            // 下划线不在单词内部生效
+            if (c == '_' && i > 0 && Character.isLetterOrDigit(text.charAt(i - 1))) {
+                return -1;
+            }
+
+            String delimiter;
+            String openTag;
+            String closeTag;
+            if (c == '~') {
+                if (runLength != 2) {
+                    return -1;
+                }
+                delimiter = "~~";
+                openTag = "<del>";
+                closeTag = "</del>";
+            } else if (runLength >= 2) {
+                delimiter = String.valueOf(c).repeat(2);
+                openTag = "<strong>";
+                closeTag = "</strong>";
+            } else {
+                delimiter = String.valueOf(c);
+                openTag = "<em>";
+                closeTag = "</em>";
+            }
+
+            int contentStart = i + delimiter.length();
+            int close = findCloser(delimiter, contentStart + 1, j -> {
+                if (Character.isWhitespace(text.charAt(j - 1))) {
+                    return false;
+                }
+                int after = j + delimiter.length();
+                return c != '_' || after >= text.length() || !Character.isLetterOrDigit(text.charAt(after));
+            });
+            if (close < 0) {
+                return -1;
+            }
+            // 闭合标记位于更长的同字符序列中时取最靠后的位置，使 ***a*** 渲染为嵌套的强调
+            while (close + delimiter.length() < text.length() && text.charAt(close + delimiter.length()) == c) {
+                close++;
+            }
+
+            appendTag(openTag, "");
+            new InlineRenderer(text.substring(contentStart, close), out, plain, new HashMap<>(), depth + 1).render();
+            appendTag(closeTag, "");
+            return close + delimiter.length();
+        }
+
+        /**
+         * 从 from 开始查找满足条件的闭合标记，查找失败的位置会被记住
+         */
+        private int findCloser(String delimiter, int from, IntPredicate accept) {
+            Integer failedFrom = noCloserAfter.get(delimiter);
+            if (failedFrom != null && from >= failedFrom) {
+                return -1;
+            }
+            int j = text.indexOf(delimiter, from);
+            while (j >= 0) {
+                if (accept.test(j)) {
+                    return j;
+                }
+                j = text.indexOf(delimiter, j + 1);
+            }
+            noCloserAfter.merge(delimiter, from, Math::min);
+            return -1;
+        }
+
+        /**
+         * 解析 [text](url "title") 或 ![alt](url "title")，格式不合法时按普通文本处理
+         */
+        private int link(int open, boolean image) {
+            if (depth >= MAX_INLINE_DEPTH) {
+                return -1;
+            }
+            int close = matchingBracket(open);
+            if (close < 0 || close + 1 >= text.length() || text.charAt(close + 1) != '(') {
+                return -1;
+            }
+            int[] destination = parseDestination(close + 2);
+            if (destination == null) {
+                return -1;
+            }
+
+            String label = text.substring(open + 1, close);
+            String url = unescapeBackslashes(text.substring(destination[0], destination[1]));
+            String title = destination[2] >= 0 ? unescapeBackslashes(text.substring(destination[2], destination[3])) : null;
+            String safeUrl = safeUrl(url);
+
+            if (image) {
+                if (plain || safeUrl == null) {
+                    appendText(plainText(label));
+                } else {
+                    out.append("<img src=\"").append(HtmlUtils.escape(safeUrl))
+                            .append("\" alt=\"").append(HtmlUtils.escape(plainText(label))).append('"');
+                    if (title != null) {
+                        out.append(" title=\"").append(HtmlUtils.escape(title)).append('"');
+                    }
+                    out.append(" loading=\"lazy\" />");
+                }
+            } else if (plain || safeUrl == null) {
+                new InlineRenderer(label, out, plain, new HashMap<>(), depth + 1).render();
+            } else {
+                appendAnchorOpen(safeUrl, title);
+                new InlineRenderer(label, out, false, new HashMap<>(), depth + 1).render();
+                out.append("</a>");
+            }
+            return destination[4];
+        }
+
+        private int matchingBracket(int open) {
+            int level = 0;
+            int limit = Math.min(text.length(), open + MAX_LINK_TEXT_LENGTH);
+            for (int j = open; j < limit; j++) {
+                char c = text.charAt(j);
+                if (c == '\\') {
+                    j++;
+                } else if (c == '[') {
+                    level++;
+                } else if (c == ']' && --level == 0) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 解析链接地址和可选标题
+         *
+         * @return [地址起, 地址止, 标题起, 标题止, 右括号之后的位置]，没有标题时标题起止为 -1；格式不合法时返回 null
+         */
+        private int[] parseDestination(int start) {
+            int n = text.length();
+            int i = skipSpaces(start);
+            int urlStart;
+            int urlEnd;
+            if (i < n && text.charAt(i) == '<') {
+                urlStart = i + 1;
+                int end = text.indexOf('>', urlStart);
+                if (end < 0 || text.substring(urlStart, end).indexOf('\n') >= 0) {
+                    return null;
+                }
+                urlEnd = end;
+                i = end + 1;
+            } else {
+                urlStart = i;
+                int parens = 0;
+                while (i < n) {
+                    char c = text.charAt(i);
+                    if (c == '\\' && i + 1 < n) {
+                        i += 2;
+                        continue;
+                    }
+                    if (Character.isWhitespace(c) || (c == ')' && parens == 0)) {
+                        break;
+                    }
+                    if (c == '(') {
+                        parens++;
+                    } else if (c == ')') {
+                        parens--;
+                    }
+                    i++;
+                }
+                urlEnd = i;
+            }
+
+            i = skipSpaces(i);
+            int titleStart = -1;
+            int titleEnd = -1;
+            if (i < n && (text.charAt(i) == '"' || text.charAt(i) == '\'')) {
+                char quote = text.charAt(i);
+                int end = i + 1;
+                while (end < n && text.charAt(end) != quote) {
+                    end += text.charAt(end) == '\\' ? 2 : 1;
+                }
+                if (end >= n) {
+                    return null;
+                }
+                titleStart = i + 1;
+                titleEnd = end;
+                i = skipSpaces(end + 1);
+            }
+            if (i >= n || text.charAt(i) != ')') {
+                return null;
+            }
+            return new int[]{urlStart, urlEnd, titleStart, titleEnd, i + 1};
+        }
+
+        private int skipSpaces(int i) {
+            while (i < text.length() && (text.charAt(i) == ' ' || text.charAt(i) == '\n')) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * 解析 &lt;https://...&gt; 与 &lt;user@example.com&gt; 形式的自动链接；其余尖括号内容按文本转义输出
+         */
+        private int autolink(int open) {
+            int close = -1;
+            int limit = Math.min(text.length(), open + 2 + MAX_AUTOLINK_LENGTH);
+            for (int j = open + 1; j < limit; j++) {
+                char c = text.charAt(j);
+                if (c == '>') {
+                    close = j;
+                    break;
+                }
+                if (c <= ' ' || c == '<') {
+                    return -1;
+                }
+            }
+            if (close < 0) {
+                return -1;
+            }
+            String target = text.substring(open + 1, close);
+            if (target.isEmpty() || target.chars().anyMatch(ch -> ch <= ' ' || ch == '<')) {
+                return -1;
+            }
+            String href;
+            if (URL_SCHEME.matcher(target).find()) {
+                href = safeUrl(target);
+            } else if (EMAIL.matcher(target).matches()) {
+                href = "mailto:" + target;
+            } else {
+                return -1;
+            }
+            if (href == null || plain) {
+                appendText(target);
+            } else {
+                appendAnchorOpen(href, null);
+                appendText(target);
+                out.append("</a>");
+            }
+            return close + 1;
+        }
+
+        private void appendAnchorOpen(String href, String title) {
+            out.append("<a href=\"").append(HtmlUtils.escape(href)).append('"');
+            if (title != null) {
+                out.append(" title=\"").append(HtmlUtils.escape(title)).append('"');
+            }
+            String lower = href.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("http://") || lower.startsWith("https://")) {
+                out.append(" rel=\"nofollow noopener noreferrer\"");
+            }
+            out.append('>');
+        }
+
+        private String plainText(String markdown) {
+            StringBuilder plainOut = new StringBuilder();
+            new InlineRenderer(markdown, plainOut, true, new HashMap<>(), depth + 1).render();
+            return plainOut.toString();
+        }
+
+        private void appendTag(String tag, String plainReplacement) {
+            out.append(plain ? plainReplacement : tag);
+        }
+
+        private void appendText(char c) {
+            if (plain) {
+                out.append(c);
+            } else {
+                appendEscaped(out, c);
+            }
+        }
+
+        private void appendText(String value) {
+            if (plain) {
+                out.append(value);
+            } else {
+                appendEscaped(out, value);
+            }
+        }
+    }
+
+    /**
+     * 只允许 http、https、mailto 协议和相对地址，其余（javascript:、data: 等）返回 null
+     */
+    private static String safeUrl(String url) {
+        String trimmed = url.trim();
+        // 浏览器解析协议时会忽略控制字符和空白
+        String normalized = trimmed.replaceAll("[\\x00-\\x20\\x7F]", "");
+        Matcher scheme = URL_SCHEME.matcher(normalized);
+        if (scheme.find() && !SAFE_SCHEMES.contains(scheme.group(1).toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+        return trimmed;
+    }
+
+    private static String unescapeBackslashes(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length() && isAsciiPunctuation(value.charAt(i + 1))) {
+                result.append(value.charAt(++i));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static boolean isAsciiPunctuation(char c) {
+        return (c >= '!' && c <= '/') || (c >= ':' && c <= '@') || (c >= '[' && c <= '`') || (c >= '{' && c <= '~');
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            appendEscaped(out, value.charAt(i));
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, char c) {
+        switch (c) {
+            case '<' -> out.append("&lt;");
+            case '>' -> out.append("&gt;");
+            case '"' -> out.append("&quot;");
+            case '\'' -> out.append("&#39;");
+            case '&' -> out.append("&amp;");
+            default -> out.append(c);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.blog.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 堆外 Slab 缓存
+ * 数据存放在按需分配的直接内存 Slab 中，每个 Slab 切分为固定大小的页；一个条目占用若干页（不要求连续），
+ * 堆上只保留键和页号数组。空间不足时按 LRU 淘汰，释放的页回收到空闲页栈中复用，不产生碎片。
+ * 适合缓存体积较大、读多写少的字节数据，避免大对象反复进出堆导致 GC 压力
+ */
+public class OffHeapSlabCache<K> {
+
+    private final int pageSize;
+    private final int pagesPerSlab;
+    private final int maxPages;
+
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final int[] freePages;
+    private int freeCount;
+
+    /**
+     * 已经分配过的页数（含空闲页），只增不减
+     */
+    private int allocatedPages;
+
+    private final LinkedHashMap<K, Slot> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long usedBytes;
+
+    /**
+     * @param capacityBytes 堆外内存上限
+     * @param slabSize      单个 Slab 的大小，Slab 在需要时才分配
+     * @param pageSize      页大小，条目按页分配空间
+     */
+    public OffHeapSlabCache(long capacityBytes, int slabSize, int pageSize) {
+        if (pageSize <= 0 || slabSize < pageSize || capacityBytes < slabSize) {
+            throw new IllegalArgumentException("缓存容量需不小于 Slab 大小，Slab 大小需不小于页大小");
+        }
+        this.pageSize = pageSize;
+        this.pagesPerSlab = slabSize / pageSize;
+        this.maxPages = (int) Math.min(Integer.MAX_VALUE - 8, (capacityBytes / slabSize) * pagesPerSlab);
+        this.freePages = new int[maxPages];
+    }
+
+    /**
+     * 读取条目，返回堆上的副本；不存在时返回 null
+     */
+    public synchronized byte[] get(K key) {
+        Slot slot = entries.get(key);
+        if (slot == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+
+        byte[] value = new byte[slot.length];
+        int offset = 0;
+        for (int page : slot.pages) {
+            int length = Math.min(pageSize, slot.length - offset);
+            slabOf(page).get(offsetOf(page), value, offset, length);
+            offset += length;
+        }
+        return value;
+    }
+
+    /**
+     * 写入条目，空间不足时淘汰最久未访问的条目；单个条目超过缓存容量时不写入并返回 false
+     */
+    public synchronized boolean put(K key, byte[] value) {
+        int pageCount = (value.length + pageSize - 1) / pageSize;
+        if (pageCount > maxPages) {
+            return false;
+        }
+        release(entries.remove(key));
+
+        Iterator<Map.Entry<K, Slot>> eldest = entries.entrySet().iterator();
+        while (freeCount + (maxPages - allocatedPages) < pageCount && eldest.hasNext()) {
+            Slot evicted = eldest.next().getValue();
+            eldest.remove();
+            release(evicted);
+            evictions++;
+        }
+
+        int[] pages = new int[pageCount];
+        int offset = 0;
+        for (int i = 0; i < pageCount; i++) {
+            int page = allocatePage();
+            int length = Math.min(pageSize, value.length - offset);
+            slabOf(page).put(offsetOf(page), value, offset, length);
+            pages[i] = page;
+            offset += length;
+        }
+        entries.put(key, new Slot(pages, value.length));
+        usedBytes += value.length;
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        release(entries.remove(key));
+    }
+
+    public synchronized void invalidateAll() {
+        entries.values().forEach(this::release);
+        entries.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, entries.size(), usedBytes,
+                (long) slabs.size() * pagesPerSlab * pageSize);
+    }
+
+    private int allocatePage() {
+        if (freeCount > 0) {
+            return freePages[--freeCount];
+        }
+        if (allocatedPages % pagesPerSlab == 0) {
+            slabs.add(ByteBuffer.allocateDirect(pagesPerSlab * pageSize));
+        }
+        return allocatedPages++;
+    }
+
+    private void release(Slot slot) {
+        if (slot == null) {
+            return;
+        }
+        for (int page : slot.pages) {
+            freePages[freeCount++] = page;
+        }
+        usedBytes -= slot.length;
+    }
+
+    private ByteBuffer slabOf(int page) {
+        return slabs.get(page / pagesPerSlab);
+    }
+
+    private int offsetOf(int page) {
+        return (page % pagesPerSlab) * pageSize;
+    }
+
+    private record Slot(int[] pages, int length) {
+    }
+
+    /**
+     * 缓存统计
+     *
+     * @param usedBytes     条目实际占用的字节数
+     * @param reservedBytes 已分配的堆外内存字节数
+     */
+    public record CacheStats(long hits, long misses, long evictions, long size, long usedBytes, long reservedBytes) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.blog.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 搜索分词器
+ * 拉丁字母和数字按连续串切分为单词并转小写；中日韩文字切分为相邻二元组（bigram），
+ * 索引时额外输出单字，使单字查询也能命中。每个词元记录在原文中的起止位置，供高亮使用
+ */
+public final class SearchTokenizer {
+
+    /**
+     * 超过该长度的单词（如长链接、哈希串）不参与索引
+     */
+    private static final int MAX_WORD_LENGTH = 40;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 词元
+     *
+     * @param term  归一化后的词
+     * @param start 在原文中的起始下标（含）
+     * @param end   在原文中的结束下标（不含）
+     */
+    public record Token(String term, int start, int end) {
+    }
+
+    /**
+     * 索引分词：中日韩文字同时输出二元组和单字
+     */
+    public static List<Token> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 流式索引分词：逐个回调词元而不收集成列表，用于长文本的单遍扫描
+     */
+    public static void scanForIndex(String text, Consumer<Token> consumer) {
+        scan(text, true, consumer);
+    }
+
+    /**
+     * 查询分词：中日韩文字只在单独出现时输出单字，其余输出二元组
+     */
+    public static List<Token> tokenizeForQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 查询分词并去重，保持出现顺序
+     */
+    public static Set<String> queryTerms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        scan(text, false, token -> terms.add(token.term()));
+        return terms;
+    }
+
+    private static List<Token> tokenize(String text, boolean indexing) {
+        List<Token> tokens = new ArrayList<>();
+        scan(text, indexing, tokens::add);
+        return tokens;
+    }
+
+    private static void scan(String text, boolean indexing, Consumer<Token> tokens) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = text.codePointAt(i);
+            if (isCjk(codePoint)) {
+                int runEnd = i;
+                while (runEnd < length && isCjk(text.codePointAt(runEnd))) {
+                    runEnd += Character.charCount(text.codePointAt(runEnd));
+                }
+                emitCjkRun(text, i, runEnd, indexing, tokens);
+                i = runEnd;
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int runEnd = i;
+                while (runEnd < length) {
+                    int next = text.codePointAt(runEnd);
+                    if (isCjk(next) || !Character.isLetterOrDigit(next)) {
+                        break;
+                    }
+                    runEnd += Character.charCount(next);
+                }
+                if (runEnd - i <= MAX_WORD_LENGTH) {
+                    tokens.accept(new Token(text.substring(i, runEnd).toLowerCase(Locale.ROOT), i, runEnd));
+                }
+                i = runEnd;
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+    }
+
+    private static void emitCjkRun(String text, int start, int end, boolean indexing, Consumer<Token> tokens) {
+        int first = start;
+        int second = first + Character.charCount(text.codePointAt(first));
+        if (second >= end) {
+            tokens.accept(new Token(text.substring(first, second), first, second));
+            return;
+        }
+
+        while (second < end) {
+            int third = second + Character.charCount(text.codePointAt(second));
+            if (indexing) {
+                tokens.accept(new Token(text.substring(first, second), first, second));
+            }
+            tokens.accept(new Token(text.substring(first, third), first, third));
+            first = second;
+            second = third;
+        }
+        if (indexing) {
+            tokens.accept(new Token(text.substring(first, second), first, second));
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.blog.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 检索摘要提取与高亮
+ * 对正文做一次流式分词扫描，用固定宽度的滑动窗口找出覆盖查询词最多、命中最密集的片段；
+ * 窗口内只保存命中的词元，内存占用与片段长度相关而与正文长度无关。
+ * 输出为 HTML：命中的词用 &lt;em&gt; 包裹，其余内容全部转义
+ */
+public final class SnippetExtractor {
+
+    private static final String HIGHLIGHT_OPEN = "<em>";
+    private static final String HIGHLIGHT_CLOSE = "</em>";
+    private static final String ELLIPSIS = "…";
+
+    private SnippetExtractor() {
+    }
+
+    /**
+     * 提取包含查询词的最佳片段并高亮，正文中没有命中时返回 null
+     *
+     * @param maxLength 片段的最大字符数（不含高亮标签和省略号）
+     */
+    public static String extract(String text, Set<String> queryTerms, int maxLength) {
+        if (text == null || text.isEmpty() || queryTerms.isEmpty()) {
+            return null;
+        }
+
+        BestWindow window = new BestWindow(queryTerms, maxLength);
+        SearchTokenizer.scanForIndex(text, window::accept);
+        if (window.bestScore == 0) {
+            return null;
+        }
+
+        // 以最佳窗口为中心向两侧补足到 maxLength
+        int padding = Math.max(0, maxLength - (window.bestEnd - window.bestStart)) / 2;
+        int start = Math.max(0, window.bestStart - padding);
+        int end = Math.min(text.length(), start + Math.max(maxLength, window.bestEnd - window.bestStart));
+        start = Math.max(0, Math.min(start, end - maxLength));
+        if (start > 0 && Character.isLowSurrogate(text.charAt(start))) {
+            start--;
+        }
+        if (end < text.length() && Character.isLowSurrogate(text.charAt(end))) {
+            end++;
+        }
+
+        return (start > 0 ? ELLIPSIS : "")
+                + highlight(text.substring(start, end), queryTerms)
+                + (end < text.length() ? ELLIPSIS : "");
+    }
+
+    /**
+     * 高亮整段文本中的查询词，相邻或重叠的命中合并为一个高亮区间
+     */
+    public static String highlight(String text, Set<String> queryTerms) {
+        if (text == null) {
+            return null;
+        }
+
+        StringBuilder html = new StringBuilder(text.length() + 32);
+        int[] state = {0, -1, -1}; // 已输出位置, 当前高亮区间起点, 当前高亮区间终点
+        SearchTokenizer.scanForIndex(text, token -> {
+            if (!queryTerms.contains(token.term())) {
+                return;
+            }
+            if (state[1] >= 0 && token.start() <= state[2]) {
+                state[2] = Math.max(state[2], token.end());
+                return;
+            }
+            appendHighlight(html, text, state);
+            state[1] = token.start();
+            state[2] = token.end();
+        });
+        appendHighlight(html, text, state);
+        html.append(HtmlUtils.escape(text.substring(state[0])));
+        return html.toString();
+    }
+
+    private static void appendHighlight(StringBuilder html, String text, int[] state) {
+        if (state[1] < 0) {
+            return;
+        }
+        html.append(HtmlUtils.escape(text.substring(state[0], state[1])))
+                .append(HIGHLIGHT_OPEN)
+                .append(HtmlUtils.escape(text.substring(state[1], state[2])))
+                .append(HIGHLIGHT_CLOSE);
+        state[0] = state[2];
+        state[1] = -1;
+        state[2] = -1;
+    }
+
+    /**
+     * 滑动窗口：保留起点在最近 maxLength 个字符内的命中词元，得分 = 覆盖的不同查询词数优先，其次是命中次数
+     */
+    private static final class BestWindow {
+
+        private final Set<String> queryTerms;
+        private final int maxLength;
+        private final Deque<SearchTokenizer.Token> hits = new ArrayDeque<>();
+        private final Map<String, Integer> termCounts = new HashMap<>();
+
+        private long bestScore;
+        private int bestStart;
+        private int bestEnd;
+
+        BestWindow(Set<String> queryTerms, int maxLength) {
+            this.queryTerms = queryTerms;
+            this.maxLength = maxLength;
+        }
+
+        void accept(SearchTokenizer.Token token) {
+            if (!queryTerms.contains(token.term())) {
+                return;
+            }
+            hits.addLast(token);
+            termCounts.merge(token.term(), 1, Integer::sum);
+            while (hits.peekFirst().start() < token.end() - maxLength) {
+                SearchTokenizer.Token expired = hits.removeFirst();
+                termCounts.computeIfPresent(expired.term(), (term, count) -> count > 1 ? count - 1 : null);
+            }
+
+            long score = (long) termCounts.size() * 100_000 + hits.size();
+            if (score > bestScore) {
+                bestScore = score;
+                bestStart = hits.peekFirst().start();
+                bestEnd = token.end();
+            }
+        }
+    }
+}
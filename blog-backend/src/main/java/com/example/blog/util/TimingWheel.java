@@ -0,0 +1,256 @@
+package com.example.blog.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分层时间轮
+ * 每层由固定数量的槽组成，超出本层跨度的任务放入上一层（tick 为本层总跨度），上层槽到期时任务降级重新放入下层。
+ * 只有非空的槽才进入 DelayQueue，工作线程阻塞到最早的槽到期为止，没有空转的 tick；
+ * 添加和取消任务都是 O(1)，与待执行任务数量无关。任务在到期时间所在的 tick 开始时触发，
+ * tick 为 1ms 时即为精确到毫秒。任务交给外部 Executor 执行，不阻塞时间轮线程
+ */
+public class TimingWheel {
+
+    private final Executor executor;
+    private final DelayQueue<Bucket> queue = new DelayQueue<>();
+    private final Level root;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * @param name       工作线程名称
+     * @param tickMillis 最底层每个槽的时间跨度
+     * @param wheelSize  每层的槽数量
+     * @param executor   执行到期任务的线程池
+     */
+    public TimingWheel(String name, long tickMillis, int wheelSize, Executor executor) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tick 和槽数量必须为正数");
+        }
+        this.executor = executor;
+        long now = System.currentTimeMillis();
+        this.root = new Level(tickMillis, wheelSize, now - now % tickMillis);
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 在指定时刻执行任务；时刻已过时立即提交执行
+     *
+     * @param deadlineMillis 到期时间（毫秒时间戳）
+     */
+    public synchronized Timeout schedule(long deadlineMillis, Runnable task) {
+        Timeout timeout = new Timeout(deadlineMillis, task);
+        if (!root.add(timeout)) {
+            fire(timeout);
+        }
+        return timeout;
+    }
+
+    /**
+     * 尚未触发的任务数量
+     */
+    public synchronized int pendingCount() {
+        return root.count();
+    }
+
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Bucket bucket = queue.take();
+                synchronized (this) {
+                    // 同一时刻可能有多个槽到期（含上层槽），一并处理
+                    while (bucket != null) {
+                        root.advance(bucket.expiration);
+                        for (Timeout timeout : bucket.drain()) {
+                            if (!root.add(timeout)) {
+                                fire(timeout);
+                            }
+                        }
+                        bucket = queue.poll();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        timeout.fired = true;
+        executor.execute(timeout.task);
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public final class Timeout {
+
+        private final long deadline;
+        private final Runnable task;
+
+        /**
+         * 所在的槽，由时间轮的锁保护
+         */
+        private Bucket bucket;
+        private boolean fired;
+        private boolean cancelled;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * 任务是否已触发或已取消
+         */
+        public boolean isDone() {
+            synchronized (TimingWheel.this) {
+                return fired || cancelled;
+            }
+        }
+
+        /**
+         * 取消任务
+         *
+         * @return 任务尚未触发且此前未取消时返回 true
+         */
+        public boolean cancel() {
+            synchronized (TimingWheel.this) {
+                if (fired || cancelled) {
+                    return false;
+                }
+                cancelled = true;
+                if (bucket != null) {
+                    bucket.remove(this);
+                }
+                return true;
+            }
+        }
+    }
+
+    private final class Level {
+
+        private final long tickMillis;
+        private final int wheelSize;
+        private final long interval;
+        private final Bucket[] buckets;
+        private long currentTime;
+        private Level overflow;
+
+        Level(long tickMillis, int wheelSize, long startTime) {
+            this.tickMillis = tickMillis;
+            this.wheelSize = wheelSize;
+            this.interval = tickMillis * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startTime - startTime % tickMillis;
+        }
+
+        /**
+         * @return 任务已到期（不足一个 tick）时返回 false，由调用方立即执行
+         */
+        boolean add(Timeout timeout) {
+            long deadline = timeout.deadline;
+            if (deadline < currentTime + tickMillis) {
+                return false;
+            }
+            if (deadline < currentTime + interval) {
+                long virtualId = deadline / tickMillis;
+                Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(timeout);
+                // 槽被重新使用时更新到期时间并重新入队
+                if (bucket.setExpiration(virtualId * tickMillis)) {
+                    queue.offer(bucket);
+                }
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, wheelSize, currentTime);
+            }
+            return overflow.add(timeout);
+        }
+
+        void advance(long time) {
+            if (time >= currentTime + tickMillis) {
+                currentTime = time - time % tickMillis;
+                if (overflow != null) {
+                    overflow.advance(currentTime);
+                }
+            }
+        }
+
+        int count() {
+            int count = 0;
+            for (Bucket bucket : buckets) {
+                count += bucket.timeouts.size();
+            }
+            return overflow == null ? count : count + overflow.count();
+        }
+    }
+
+    private static final class Bucket implements Delayed {
+
+        private final Set<Timeout> timeouts = new LinkedHashSet<>();
+        private volatile long expiration = -1L;
+
+        void add(Timeout timeout) {
+            timeouts.add(timeout);
+            timeout.bucket = this;
+        }
+
+        void remove(Timeout timeout) {
+            timeouts.remove(timeout);
+            timeout.bucket = null;
+        }
+
+        boolean setExpiration(long newExpiration) {
+            if (expiration == newExpiration) {
+                return false;
+            }
+            expiration = newExpiration;
+            return true;
+        }
+
+        /**
+         * 取出全部任务并重置到期时间，槽出队后才会调用
+         */
+        List<Timeout> drain() {
+            List<Timeout> drained = new ArrayList<>(timeouts);
+            timeouts.clear();
+            drained.forEach(timeout -> timeout.bucket = null);
+            expiration = -1L;
+            return drained;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiration - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiration, ((Bucket) other).expiration);
+        }
+    }
+}
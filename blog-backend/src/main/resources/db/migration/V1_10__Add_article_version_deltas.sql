@@ -0,0 +1,10 @@
+-- Delta-compressed article version history
+-- 每隔若干个版本保存一次完整正文（关键帧），其余版本只保存相对上一版本的行级差异，
+-- 还原任意版本最多回放 keyframe-interval - 1 个增量
+ALTER TABLE `t_article_version`
+ADD COLUMN `storage_type` varchar(10) NOT NULL DEFAULT 'FULL' COMMENT '存储方式(FULL 关键帧, DELTA 增量)' AFTER `content`,
+ADD COLUMN `delta` mediumblob NULL COMMENT '相对上一版本的行级差异' AFTER `storage_type`,
+ADD COLUMN `content_length` int NOT NULL DEFAULT 0 COMMENT '正文字符数' AFTER `delta`;
+
+-- 同一文章的版本号唯一，按版本号区间读取关键帧和增量链
+CREATE UNIQUE INDEX `uk_article_version_number` ON `t_article_version` (`article_id`, `version_number`);
@@ -0,0 +1,20 @@
+-- Split article bodies out of t_article so that list queries scan narrow rows
+CREATE TABLE IF NOT EXISTS `t_article_content` (
+  `article_id` bigint NOT NULL COMMENT '文章ID',
+  `content` longtext COMMENT '文章内容(Markdown格式)',
+  `update_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`article_id`),
+  CONSTRAINT `fk_article_content_article_id` FOREIGN KEY (`article_id`) REFERENCES `t_article` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='文章内容表';
+
+-- 分离存储模式下 t_article.content 不再写入
+ALTER TABLE `t_article` MODIFY COLUMN `content` longtext NULL COMMENT '文章内容(Markdown格式，分离存储模式下为空)';
+
+-- 回填已有文章内容
+INSERT INTO `t_article_content` (`article_id`, `content`, `update_time`)
+SELECT `id`, `content`, `update_time`
+FROM `t_article`
+WHERE `content` IS NOT NULL;
+
+-- 确认启用分离存储 (blog.article.content-storage=split) 后，可执行以下语句释放主表空间：
+-- UPDATE `t_article` SET `content` = NULL;
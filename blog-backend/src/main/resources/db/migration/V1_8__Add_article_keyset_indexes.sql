@@ -0,0 +1,8 @@
+-- Composite indexes backing keyset (cursor) pagination of article lists
+-- 每种排序对应一个 (status, 排序列, id) 索引，游标条件和 ORDER BY 都能直接走索引
+CREATE INDEX `idx_article_status_create_time_id` ON `t_article` (`status`, `create_time`, `id`);
+CREATE INDEX `idx_article_status_view_count_id` ON `t_article` (`status`, `view_count`, `id`);
+CREATE INDEX `idx_article_status_like_count_id` ON `t_article` (`status`, `like_count`, `id`);
+
+-- 不按状态过滤的列表（后台管理）
+CREATE INDEX `idx_article_create_time_id` ON `t_article` (`create_time`, `id`);
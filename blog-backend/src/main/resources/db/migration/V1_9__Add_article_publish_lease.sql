@@ -0,0 +1,5 @@
+-- Lease columns for scheduled publishing in a cluster
+-- 定时发布到期时各节点抢占同一行租约，只有抢到租约的节点执行发布；节点宕机后租约过期可被其他节点接管
+ALTER TABLE `t_article`
+ADD COLUMN `publish_lease_owner` varchar(64) NULL COMMENT '定时发布租约持有节点' AFTER `scheduled_publish_time`,
+ADD COLUMN `publish_lease_until` datetime NULL COMMENT '定时发布租约到期时间' AFTER `publish_lease_owner`;
@@ -0,0 +1,6 @@
+-- Drop category article count triggers
+-- 分类、标签的文章数改由应用内计数服务维护（提交后累加增量、批量回写、定期 GROUP BY 对账），
+-- H2 不执行触发器，保留触发器会在 MySQL 上重复计数
+DROP TRIGGER IF EXISTS after_article_insert;
+DROP TRIGGER IF EXISTS after_article_update;
+DROP TRIGGER IF EXISTS after_article_delete;